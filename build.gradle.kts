@@ -2,6 +2,21 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.4"
     id("io.spring.dependency-management") version "1.1.7"
+    id("org.graalvm.buildtools.native") version "0.10.6" apply false
+}
+
+when {
+    providers.gradleProperty("native").isPresent -> apply(plugin = "org.graalvm.buildtools.native")
+    providers.gradleProperty("aot").isPresent -> apply(plugin = "org.springframework.boot.aot")
+}
+
+plugins.withId("org.springframework.boot.aot") {
+    tasks.named<org.springframework.boot.gradle.tasks.aot.ProcessAot>("processAot") {
+        args(
+            "--spring.profiles.active=${providers.gradleProperty("aotProfile").getOrElse("prod")}",
+            "--server.port=8080"
+        )
+    }
 }
 
 group = "net.protsenko.fundy"
@@ -43,6 +58,9 @@ dependencies {
     runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     annotationProcessor("org.projectlombok:lombok")
+
+    testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.withType<Test> {
@@ -0,0 +1,26 @@
+plugins {
+    application
+}
+
+group = "net.protsenko.fundy"
+version = "1.0.0-SNAPSHOT"
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(24)
+    }
+}
+
+application {
+    mainClass = "net.protsenko.fundy.loadtest.LoadTest"
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Drives the market API with a mixed workload and checks latency SLOs."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = application.mainClass
+    args = project.properties
+        .filterKeys { it.startsWith("lt.") }
+        .map { (k, v) -> "--${k.removePrefix("lt.")}=$v" }
+}
@@ -0,0 +1,72 @@
+package net.protsenko.fundy.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long micros) {
+        long v = Math.max(1, micros);
+        counts.incrementAndGet(index(v));
+        total.incrementAndGet();
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    void error() {
+        errors.incrementAndGet();
+    }
+
+    long count() {
+        return total.get();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    long maxMicros() {
+        return max.get();
+    }
+
+    long percentileMicros(double p) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(p / 100.0 * n);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return upperBound(i);
+        }
+        return max.get();
+    }
+
+    void mergeInto(LatencyHistogram other) {
+        for (int i = 0; i < counts.length(); i++) other.counts.addAndGet(i, counts.get(i));
+        other.total.addAndGet(total.get());
+        other.errors.addAndGet(errors.get());
+        other.max.accumulateAndGet(max.get(), Math::max);
+    }
+
+    private static int index(long v) {
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        if (exp < SUB_BITS) return (int) v;
+        int shift = exp - SUB_BITS;
+        int sub = (int) ((v >>> shift) & (SUB - 1));
+        return (shift + 1) * SUB + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB) return index;
+        int shift = index / SUB - 1;
+        long sub = index % SUB;
+        return ((SUB + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,182 @@
+package net.protsenko.fundy.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LoadTest {
+
+    private final Map<String, String> args;
+    private final Scenario scenario;
+    private final Map<String, LatencyHistogram> measured = new LinkedHashMap<>();
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final LongAdder throttled = new LongAdder();
+
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private LoadTest(Map<String, String> args) {
+        this.args = args;
+        this.scenario = new Scenario(
+                str("base-url", "http://localhost:8080"),
+                Duration.ofMillis(num("timeout-ms", 10_000)),
+                (int) num("mix-arbitrage", 5),
+                (int) num("mix-funding", 3),
+                (int) num("mix-tickers", 2));
+        scenario.names().forEach(n -> measured.put(n, new LatencyHistogram()));
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Map<String, String> args = new HashMap<>();
+        for (String a : argv) {
+            if (!a.startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + a);
+            int eq = a.indexOf('=');
+            args.put(eq < 0 ? a.substring(2) : a.substring(2, eq), eq < 0 ? "true" : a.substring(eq + 1));
+        }
+        System.exit(new LoadTest(args).run() ? 0 : 1);
+    }
+
+    private boolean run() throws InterruptedException, IOException {
+        int users = (int) num("users", 50);
+        long warmup = num("warmup-s", 10);
+        long duration = num("duration-s", 60);
+        long think = num("think-ms", 0);
+
+        System.out.printf(Locale.ROOT, "Load test: %d users, warmup %ds, measure %ds against %s%n",
+                users, warmup, duration, str("base-url", "http://localhost:8080"));
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) pool.submit(() -> user(think));
+            TimeUnit.SECONDS.sleep(warmup);
+            recording = true;
+            long start = System.nanoTime();
+            TimeUnit.SECONDS.sleep(duration);
+            recording = false;
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            running = false;
+            pool.shutdown();
+            pool.awaitTermination(30, TimeUnit.SECONDS);
+            return report(elapsed);
+        }
+    }
+
+    private void user(long think) {
+        while (running) {
+            Scenario.Request rq = scenario.next();
+            long t0 = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> rs = http.send(rq.http(), HttpResponse.BodyHandlers.discarding());
+                ok = rs.statusCode() / 100 == 2;
+                if (rs.statusCode() == 429 && recording) throttled.increment();
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                return;
+            }
+            long micros = (System.nanoTime() - t0) / 1_000;
+            if (recording) {
+                LatencyHistogram h = measured.get(rq.name());
+                if (ok) h.record(micros);
+                else h.error();
+            }
+            if (think > 0) {
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(think / 2, think * 3 / 2 + 1));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean report(double elapsed) throws IOException {
+        LatencyHistogram all = new LatencyHistogram();
+        measured.values().forEach(h -> h.mergeInto(all));
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-10s %10s %8s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "rps", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        measured.forEach((name, h) -> lines.add(row(name, h, elapsed)));
+        lines.add(row("total", all, elapsed));
+
+        long requests = all.count() + all.errors();
+        double errorRate = requests == 0 ? 1.0 : (double) all.errors() / requests;
+        double rps = all.count() / elapsed;
+
+        List<String> failures = new ArrayList<>();
+        check(failures, "p50", all.percentileMicros(50) / 1000.0, dbl("slo-p50-ms", 50));
+        check(failures, "p99", all.percentileMicros(99) / 1000.0, dbl("slo-p99-ms", 250));
+        check(failures, "p999", all.percentileMicros(99.9) / 1000.0, dbl("slo-p999-ms", 1000));
+        check(failures, "error rate", errorRate, dbl("slo-error-rate", 0.001));
+        double minRps = dbl("slo-min-rps", 0);
+        if (rps < minRps) {
+            failures.add(String.format(Locale.ROOT, "throughput %.1f rps < %.1f rps", rps, minRps));
+        }
+
+        if (throttled.sum() > 0) {
+            lines.add("");
+            lines.add(String.format(Locale.ROOT, "WARNING: %d responses were 429 (per-IP quota); start the target with "
+                    + "FUNDY_API_QUOTA_ENABLED=false or add this host to FUNDY_API_QUOTA_EXEMPT", throttled.sum()));
+        }
+
+        lines.add("");
+        if (failures.isEmpty()) {
+            lines.add("SLO: PASS");
+        } else {
+            lines.add("SLO: FAIL");
+            failures.forEach(f -> lines.add("  " + f));
+        }
+        lines.forEach(System.out::println);
+
+        String file = args.get("report");
+        if (file != null) {
+            Path path = Path.of(file);
+            if (path.toAbsolutePath().getParent() != null) Files.createDirectories(path.toAbsolutePath().getParent());
+            Files.write(path, lines);
+        }
+        return failures.isEmpty();
+    }
+
+    private static String row(String name, LatencyHistogram h, double elapsed) {
+        return String.format(Locale.ROOT, "%-10s %10d %8d %9.1f %9.2f %9.2f %9.2f %9.2f",
+                name, h.count() + h.errors(), h.errors(), h.count() / elapsed,
+                h.percentileMicros(50) / 1000.0, h.percentileMicros(99) / 1000.0,
+                h.percentileMicros(99.9) / 1000.0, h.maxMicros() / 1000.0);
+    }
+
+    private static void check(List<String> failures, String metric, double actual, double limit) {
+        if (actual > limit) failures.add(String.format(Locale.ROOT, "%s %.3f > %.3f", metric, actual, limit));
+    }
+
+    private String str(String key, String def) {
+        return args.getOrDefault(key, def);
+    }
+
+    private long num(String key, long def) {
+        return args.containsKey(key) ? Long.parseLong(args.get(key)) : def;
+    }
+
+    private double dbl(String key, double def) {
+        return args.containsKey(key) ? Double.parseDouble(args.get(key)) : def;
+    }
+}
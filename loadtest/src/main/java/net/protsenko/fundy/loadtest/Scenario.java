@@ -0,0 +1,83 @@
+package net.protsenko.fundy.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class Scenario {
+
+    private static final String[] EXCHANGES = {
+            "BYBIT", "MEXC", "OKX", "GATEIO", "HTX", "BINGX", "KUCOIN", "BITGET", "COINEX"
+    };
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final List<Step> steps = new ArrayList<>();
+    private int totalWeight;
+
+    Scenario(String baseUrl, Duration timeout, int arbitrageWeight, int fundingWeight, int tickersWeight) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        add("arbitrage", arbitrageWeight);
+        add("funding", fundingWeight);
+        add("tickers", tickersWeight);
+    }
+
+    List<String> names() {
+        return steps.stream().map(Step::name).toList();
+    }
+
+    Request next() {
+        int r = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Step s : steps) {
+            if ((r -= s.weight()) < 0) return new Request(s.name(), build(s.name()));
+        }
+        throw new IllegalStateException("empty scenario");
+    }
+
+    private void add(String name, int weight) {
+        if (weight <= 0) return;
+        steps.add(new Step(name, weight));
+        totalWeight += weight;
+    }
+
+    private HttpRequest build(String name) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        return switch (name) {
+            case "arbitrage" -> post("/api/market/arbitrage/opportunities", """
+                    {"exchanges":%s,"minFundingRate":%s,"minPerpetualPrice":0}""".formatted(
+                    exchanges(rnd), rnd.nextInt(0, 5) / 10000.0));
+            case "funding" -> post("/api/market/funding/opportunities", """
+                    {"exchanges":%s,"minFundingRate":%s}""".formatted(
+                    exchanges(rnd), rnd.nextInt(0, 10) / 10000.0));
+            case "tickers" -> post("/api/market/data/tickers", """
+                    {"exchanges":%s}""".formatted(exchanges(rnd)));
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    private static String exchanges(ThreadLocalRandom rnd) {
+        if (rnd.nextInt(4) == 0) return "[]";
+        List<String> picked = new ArrayList<>();
+        for (String ex : EXCHANGES) if (rnd.nextBoolean()) picked.add("\"" + ex + "\"");
+        if (picked.size() < 2) return "[]";
+        return "[" + String.join(",", picked) + "]";
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    record Request(String name, HttpRequest http) {
+    }
+
+    private record Step(String name, int weight) {
+    }
+}
@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Training run for the JVM AOT cache (or, before JDK 24, a dynamic CDS archive).
+# Starts APP with the given JVM options against replayed exchange tapes, drives the
+# load test mix through it, then stops it so the JVM writes its training data on exit.
+#
+#   TAPES=build/tapes APP=/application/fundy.jar scripts/aot-train.sh \
+#       -XX:AOTMode=record -XX:AOTConfiguration=/application/fundy.aotconf -Dspring.aot.enabled=true
+set -euo pipefail
+
+HERE=$(cd "$(dirname "$0")" && pwd)
+JAVA=${JAVA:-java}
+APP=${APP:-fundy.jar}
+PORT=${PORT:-8080}
+USERS=${USERS:-50}
+DURATION=${DURATION:-60}
+APP=$(cd "$(dirname "$APP")" && pwd)/$(basename "$APP")
+
+. "$HERE/replay-env.sh"
+export SERVER_PORT_INTERNAL=$PORT
+
+(cd "$STATE" && exec "$JAVA" "$@" -jar "$APP") > "$STATE/train.log" 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null || true' EXIT
+if ! replay_wait "$pid"; then
+  tail -50 "$STATE/train.log" >&2
+  exit 1
+fi
+
+replay_load "$USERS" "$DURATION" "$STATE/train-load.txt"
+grep '^total' "$STATE/train-load.txt" >&2 || true
+
+kill -TERM "$pid"
+wait "$pid" || true
+trap - EXIT
@@ -0,0 +1,86 @@
+#!/usr/bin/env python3
+"""Writes a synthetic HTTP tape session for FUNDY_HTTP_TAPE_MODE=replay.
+
+Covers the Bybit and MEXC linear endpoints the snapshot refresh calls, with the
+same symbols listed on both so the arbitrage and funding scans have work to do.
+With --steps > 1 every ticker and funding tape holds a random walk, so a replay
+at speed 0 produces new snapshot versions on every refresh.
+
+    scripts/bench-tapes.py build/tapes [--symbols 400] [--steps 1] [--seed 7]
+"""
+import argparse
+import gzip
+import json
+import os
+import random
+import struct
+import time
+
+
+def entry(at, uri, body):
+    b = json.dumps(body).encode()
+    u = uri.encode()
+    return struct.pack(">qiH", at, 20, 200) + struct.pack(">H", len(u)) + u + struct.pack(">i", len(b)) + b
+
+
+def main():
+    ap = argparse.ArgumentParser()
+    ap.add_argument("dir")
+    ap.add_argument("--session", default="bench")
+    ap.add_argument("--symbols", type=int, default=400)
+    ap.add_argument("--steps", type=int, default=1)
+    ap.add_argument("--seed", type=int, default=7)
+    args = ap.parse_args()
+
+    random.seed(args.seed)
+    out = os.path.join(args.dir, args.session)
+    os.makedirs(out, exist_ok=True)
+
+    bases = [f"C{i:03d}" for i in range(args.symbols)] + ["BTC", "ETH", "SOL", "XRP"]
+    now = int(time.time() * 1000)
+    nxt = (now // 28800000 + 1) * 28800000
+    px = {b: random.uniform(0.01, 50000) for b in bases}
+
+    def tape(name, uri, bodies):
+        with gzip.open(os.path.join(out, name + ".tape.gz"), "wb") as f:
+            for i, body in enumerate(bodies):
+                f.write(entry(now + i * 1000, uri, body))
+
+    def fmt(p):
+        return f"{p:.6f}"
+
+    def rate():
+        return f"{random.uniform(-0.002, 0.002):.6f}"
+
+    steps = []
+    for _ in range(max(1, args.steps)):
+        steps.append(dict(px))
+        for b in bases:
+            px[b] *= random.uniform(0.998, 1.002)
+
+    tape("bybit_instruments", "https://api.bybit.com/v5/market/instruments-info?category=linear", [
+        {"retCode": 0, "retMsg": "OK", "time": now, "result": {"list": [
+            {"symbol": b + "USDT", "baseCoin": b, "quoteCoin": "USDT", "status": "Trading"} for b in bases]}}])
+    tape("bybit_tickers", "https://api.bybit.com/v5/market/tickers?category=linear", [
+        {"retCode": 0, "retMsg": "OK", "result": {"category": "linear", "list": [
+            {"symbol": b + "USDT", "lastPrice": fmt(p[b]), "bid1Price": fmt(p[b] * 0.9999),
+             "ask1Price": fmt(p[b] * 1.0001), "highPrice24h": fmt(p[b] * 1.05), "lowPrice24h": fmt(p[b] * 0.95),
+             "volume24h": "12345", "fundingRate": rate(), "nextFundingTime": str(nxt)} for b in bases]}}
+        for p in steps])
+    tape("mexc_detail", "https://contract.mexc.com/api/v1/contract/detail", [
+        {"success": True, "code": 0, "data": [
+            {"symbol": b + "_USDT", "baseCoin": b, "quoteCoin": "USDT", "state": 0, "contractSize": 1} for b in bases]}])
+    tape("mexc_tickers", "https://contract.mexc.com/api/v1/contract/ticker", [
+        {"success": True, "code": 0, "data": [
+            {"symbol": b + "_USDT", "lastPrice": p[b] * random.uniform(0.995, 1.005), "bid1": p[b] * 0.999,
+             "ask1": p[b] * 1.001, "high24Price": p[b] * 1.05, "lower24Price": p[b] * 0.95, "volume24": 1000}
+            for b in bases]}
+        for p in steps])
+    tape("mexc_funding", "https://contract.mexc.com/api/v1/contract/funding_rate", [
+        {"success": True, "code": 0, "data": [
+            {"symbol": b + "_USDT", "fundingRate": rate(), "nextSettleTime": str(nxt)} for b in bases]}
+        for _ in steps])
+
+
+if __name__ == "__main__":
+    main()
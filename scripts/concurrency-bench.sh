@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Load test at increasing numbers of concurrent users against replayed exchange tapes
+# (scripts/bench-tapes.py, scripts/replay-env.sh). Runs the baseline commit, the commit before
+# fundy.virtual-threads was introduced, then HEAD with a platform-thread Tomcat pool and with
+# virtual-thread request handling. Each row adds the RSS and live JVM threads after the step.
+# CPUS=n pins the app to the first n CPUs.
+#
+#   scripts/concurrency-bench.sh [baseline-commit]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+export JAVA=${JAVA:-java}
+JAVA_OPTS=${JAVA_OPTS:-}
+GRADLE=${GRADLE:-./gradlew}
+export PORT=${PORT:-8080}
+USERS=${USERS:-"200 1000 2000"}
+DURATION=${DURATION:-30}
+CPUS=${CPUS:-}
+HEAP=${HEAP:-512m}
+OUT=${OUT:-build/reports/concurrency}
+BASELINE=${1:-$(git log --reverse --format=%H -S FUNDY_VIRTUAL_THREADS -- src/main/resources/application-prod.yaml | head -1)^}
+
+mkdir -p "$OUT"
+OUT=$(cd "$OUT" && pwd)
+TAPES=${TAPES:-$OUT/tapes}
+[ -d "$TAPES" ] || scripts/bench-tapes.py "$TAPES" --steps 20 >/dev/null
+export TAPES=$(cd "$TAPES" && pwd)
+export LOADTEST_OPTS=${LOADTEST_OPTS:-$JAVA_OPTS}
+
+jar() {
+  (cd "$1" && $GRADLE -q bootJar -x test)
+  cp "$1"/build/libs/Fundy-*.jar "$2"
+}
+
+rm -rf "$OUT/baseline"
+git worktree add -f --detach "$OUT/baseline" "$BASELINE" >/dev/null 2>&1
+trap 'git worktree remove -f "$OUT/baseline"' EXIT
+jar "$OUT/baseline" "$OUT/baseline.jar"
+jar . "$OUT/head.jar"
+
+bench() {
+  local label=$1 app=$2 virtual=$3
+  local state=$OUT/run-$label pin=()
+  [ -n "$CPUS" ] && pin=(taskset -c "0-$((CPUS - 1))")
+  rm -rf "$state"
+  mkdir -p "$state"
+  (STATE=$state . scripts/replay-env.sh && export SERVER_PORT_INTERNAL=$PORT FUNDY_VIRTUAL_THREADS=$virtual \
+    && cd "$state" && exec "${pin[@]}" "$JAVA" $JAVA_OPTS -Xmx"$HEAP" -jar "$app") \
+    > "$state/app.log" 2>&1 &
+  local pid=$!
+  (STATE=$state . scripts/replay-env.sh && replay_wait "$pid") || { tail -50 "$state/app.log" >&2; exit 1; }
+  sleep 5
+
+  for users in $USERS; do
+    local report=$OUT/$label-$users.txt
+    (STATE=$state . scripts/replay-env.sh && replay_load "$users" "$DURATION" "$report")
+    local total=$(grep '^total' "$report")
+    local rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    local threads=$(ls "/proc/$pid/task" | wc -l)
+    printf '%-16s %6s %s %9s %8s\n' "$label" "$users" "${total#total}" "$((rss / 1024))MiB" "$threads"
+  done
+  kill -TERM "$pid"
+  wait "$pid" || true
+}
+
+printf '%-16s %6s %10s %8s %9s %9s %9s %9s %9s %9s %8s\n' \
+  run users requests errors rps "p50 ms" "p99 ms" "p999 ms" "max ms" rss threads
+bench baseline "$OUT/baseline.jar" false
+bench platform "$OUT/head.jar" false
+bench virtual "$OUT/head.jar" true
@@ -0,0 +1,49 @@
+# Sourced by the bench and training scripts. Runs the app against tapes written by
+# bench-tapes.py: exchange HTTP is replayed as fast as it is requested, exchanges without
+# tapes and WebSocket streams are off, and all state and logs go to a scratch directory.
+: "${TAPES:?TAPES must point at a tape directory}"
+STATE=${STATE:-$(mktemp -d)}
+mkdir -p "$STATE"
+
+export SPRING_PROFILES_ACTIVE=prod
+export FUNDY_HTTP_TAPE_MODE=replay FUNDY_HTTP_TAPE_DIR="$TAPES" FUNDY_HTTP_TAPE_SPEED=0 FUNDY_HTTP_TAPE_LOOP=true
+export FUNDY_STREAMS_ENABLED=false FUNDY_API_QUOTA_ENABLED=false
+export FUNDY_WARM_START_FILE="$STATE/fundy-warm.bin" FUNDY_FUNDING_HISTORY_DIR="$STATE/funding-history" \
+  FUNDY_ALERTS_STORE_FILE="$STATE/alert-rules.json"
+for ex in KUCOIN BITGET BINGX OKX GATEIO COINEX HTX; do
+  export "FUNDY_EXCHANGES_${ex}_ENABLED=false"
+done
+
+# 0 once the readiness probe on $PORT answers 200
+replay_ready() {
+  local status
+  { exec 3<>"/dev/tcp/127.0.0.1/$PORT"; } 2>/dev/null || return 1
+  printf 'GET /actuator/health/readiness HTTP/1.0\r\nHost: localhost\r\n\r\n' >&3
+  read -r _ status _ <&3 || true
+  exec 3<&-
+  [ "$status" = 200 ]
+}
+
+# waits for readiness of the app started as $1, fails if it exits first
+replay_wait() {
+  local pid=$1 timeout=${2:-180}
+  for _ in $(seq 1 $((timeout * 10))); do
+    replay_ready && return 0
+    kill -0 "$pid" 2>/dev/null || return 1
+    sleep 0.1
+  done
+  return 1
+}
+
+# runs the load test mix: replay_load <users> <duration-s> <report>; LOADTEST_CP runs compiled
+# classes, otherwise the sources are launched directly (JDK 22+)
+replay_load() {
+  local driver
+  if [ -n "${LOADTEST_CP:-}" ]; then
+    driver=(-cp "$LOADTEST_CP" net.protsenko.fundy.loadtest.LoadTest)
+  else
+    driver=("${LOADTEST_SRC:-$(dirname "${BASH_SOURCE[0]}")/../loadtest/src/main/java}/net/protsenko/fundy/loadtest/LoadTest.java")
+  fi
+  "${JAVA:-java}" ${LOADTEST_OPTS:-} "${driver[@]}" --base-url="http://127.0.0.1:$PORT" --users="$1" \
+    --warmup-s="${WARMUP:-5}" --duration-s="$2" --report="$3" >/dev/null 2>&1 || true
+}
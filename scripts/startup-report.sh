@@ -0,0 +1,134 @@
+#!/usr/bin/env bash
+# Compares the plain build with the AOT build started from a JVM AOT cache that was trained
+# under the load test mix (scripts/aot-train.sh). Every run replays the synthetic exchange
+# tapes from scripts/bench-tapes.py, so no credentials or network are needed.
+# Reports the Spring start time, time to liveness and readiness, and RSS once ready.
+#
+#   scripts/startup-report.sh            builds both images and measures them with Docker
+#   LOCAL=1 scripts/startup-report.sh    measures the jars with the local JDK; before JDK 24
+#                                        the cache is a dynamic CDS archive instead
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PORT=${PORT:-8080}
+TIMEOUT=${TIMEOUT:-180}
+SETTLE=${SETTLE:-5}
+OUT=${OUT:-build/startup}
+TAPES=${TAPES:-$OUT/tapes}
+
+mkdir -p "$OUT"
+OUT=$(cd "$OUT" && pwd)
+[ -d "$TAPES" ] || scripts/bench-tapes.py "$TAPES" --steps 20 >/dev/null
+TAPES=$(cd "$TAPES" && pwd)
+
+row() {
+  printf '%-12s %10s %12s %12s %10s\n' "$@"
+}
+
+elapsed_ms() {
+  echo $(( ($(date +%s%N) - $1) / 1000000 ))
+}
+
+spring_started() {
+  grep -o 'Started FundyApplication in [0-9.]* seconds' "$1" | grep -o '[0-9.]*' | head -1
+}
+
+docker_measure() {
+  local image=$1 name=fundy-startup-${1//:/-}
+  docker rm -f "$name" >/dev/null 2>&1 || true
+  local start=$(date +%s%N)
+  docker run -d --name "$name" --env-file "$OUT/replay.env" -e SERVER_PORT_INTERNAL="$PORT" \
+    -v "$TAPES:/tapes:ro" -p "$PORT:$PORT" "$image" >/dev/null
+
+  local live="" ready=""
+  for _ in $(seq 1 $((TIMEOUT * 10))); do
+    [ -z "$live" ] && curl -fs "http://localhost:$PORT/actuator/health/liveness" >/dev/null && live=$(elapsed_ms "$start")
+    if curl -fs "http://localhost:$PORT/actuator/health/readiness" >/dev/null; then
+      ready=$(elapsed_ms "$start")
+      break
+    fi
+    sleep 0.1
+  done
+  sleep "$SETTLE"
+  local rss=$(docker stats --no-stream --format '{{.MemUsage}}' "$name" | cut -d/ -f1)
+  docker logs "$name" > "$OUT/$name.log" 2>&1
+  docker rm -f "$name" >/dev/null
+  row "$image" "$(spring_started "$OUT/$name.log")s" "${live:-timeout}ms" "${ready:-timeout}ms" "$rss"
+}
+
+local_measure() {
+  local label=$1
+  shift
+  local state=$OUT/run-$label log=$OUT/run-$label.log
+  rm -rf "$state"
+  mkdir -p "$state"
+  local start=$(date +%s%N)
+  (TAPES=$TAPES STATE=$state . scripts/replay-env.sh && export SERVER_PORT_INTERNAL=$PORT && cd "$state" \
+    && exec "$JAVA" $JAVA_OPTS "$@") > "$log" 2>&1 &
+  local pid=$!
+
+  local live="" ready=""
+  for _ in $(seq 1 $((TIMEOUT * 10))); do
+    [ -z "$live" ] && curl -fs "http://localhost:$PORT/actuator/health/liveness" >/dev/null && live=$(elapsed_ms "$start")
+    if curl -fs "http://localhost:$PORT/actuator/health/readiness" >/dev/null; then
+      ready=$(elapsed_ms "$start")
+      break
+    fi
+    kill -0 "$pid" 2>/dev/null || break
+    sleep 0.1
+  done
+  sleep "$SETTLE"
+  local rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+  kill -TERM "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+  row "$label" "$(spring_started "$log")s" "${live:-timeout}ms" "${ready:-timeout}ms" "$((${rss:-0} / 1024))MiB"
+}
+
+row image started live ready rss
+
+if [ -z "${LOCAL:-}" ]; then
+  (TAPES=/tapes STATE=$OUT/docker-state . scripts/replay-env.sh && env | grep -E '^(FUNDY|SPRING)_' \
+    | sed 's#=.*docker-state#=/tmp/fundy#') > "$OUT/replay.env"
+  docker build -q -f Dockerfile -t fundy:jit . >/dev/null
+  docker build -q -f Dockerfile.aot -t fundy:aot . >/dev/null
+  docker_measure fundy:jit
+  docker_measure fundy:aot
+  exit 0
+fi
+
+JAVA=${JAVA:-java}
+JAVA_OPTS=${JAVA_OPTS:-}
+feature=$("$JAVA" -XshowSettings:properties -version 2>&1 | sed -n 's/.*java.specification.version = //p')
+
+if [ -z "${JIT_JAR:-}" ]; then
+  ./gradlew -q bootJar
+  cp build/libs/Fundy-*.jar "$OUT/jit.jar"
+  JIT_JAR=$OUT/jit.jar
+fi
+if [ -z "${AOT_JAR:-}" ]; then
+  ./gradlew -q bootJar -Paot
+  cp build/libs/Fundy-*.jar "$OUT/aot.jar"
+  AOT_JAR=$OUT/aot.jar
+fi
+
+rm -rf "$OUT/aot"
+"$JAVA" -Djarmode=tools -jar "$AOT_JAR" extract --destination "$OUT/aot" >/dev/null
+app=$OUT/aot/$(basename "$AOT_JAR")
+if [ "$feature" -ge 24 ]; then
+  record=(-XX:AOTMode=record -XX:AOTConfiguration="$OUT/aot/fundy.aotconf")
+  cache=(-XX:AOTCache="$OUT/aot/fundy.aot")
+else
+  record=(-XX:ArchiveClassesAtExit="$OUT/aot/fundy.jsa")
+  cache=(-XX:SharedArchiveFile="$OUT/aot/fundy.jsa")
+fi
+
+JAVA=$JAVA APP=$app TAPES=$TAPES PORT=$PORT LOADTEST_OPTS=$JAVA_OPTS STATE=$OUT/train \
+  scripts/aot-train.sh $JAVA_OPTS "${record[@]}" -Dspring.aot.enabled=true
+if [ "$feature" -ge 24 ]; then
+  "$JAVA" $JAVA_OPTS -XX:AOTMode=create -XX:AOTConfiguration="$OUT/aot/fundy.aotconf" "${cache[@]}" \
+    -Dspring.aot.enabled=true -jar "$app" >/dev/null
+fi
+
+local_measure plain -jar "$JIT_JAR"
+local_measure aot -Dspring.aot.enabled=true -jar "$app"
+local_measure aot+cache "${cache[@]}" -Dspring.aot.enabled=true -jar "$app"
@@ -1 +1,3 @@
 rootProject.name = "Fundy"
+
+if (file("loadtest").isDirectory) include("loadtest")
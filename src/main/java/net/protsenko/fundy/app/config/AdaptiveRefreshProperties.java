@@ -0,0 +1,22 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.adaptive-refresh")
+public class AdaptiveRefreshProperties {
+    private boolean enabled = true;
+    private Duration minInterval = Duration.ofMillis(500);
+    private Duration maxInterval = Duration.ofSeconds(10);
+    private Duration interestTtl = Duration.ofMinutes(1);
+    private Duration nearThresholdTtl = Duration.ofMinutes(2);
+    private Duration volatilityHalfLife = Duration.ofSeconds(30);
+    private double hotVolatility = 0.002;
+    private int topMovers = 10;
+    private int maxTrackedSymbols = 5_000;
+}
@@ -0,0 +1,24 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+    private int initialLimit = 8;
+    private int minLimit = 2;
+    private int maxLimit = 64;
+    private int maxQueue = 32;
+    private Duration queueTimeout = Duration.ofMillis(500);
+    private double rttTolerance = 1.5;
+    private double smoothing = 0.2;
+    private int longWindow = 100;
+    private Duration retryAfter = Duration.ofSeconds(2);
+    private Duration requestTimeout = Duration.ofSeconds(15);
+}
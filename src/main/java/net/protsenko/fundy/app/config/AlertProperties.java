@@ -0,0 +1,21 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.alerts")
+public class AlertProperties {
+    private Duration cooldown = Duration.ofMinutes(15);
+    private BigDecimal hysteresis = new BigDecimal("0.1");
+    private int maxRules = 1_000;
+    private BigDecimal nearRatio = new BigDecimal("0.8");
+    private String apiToken;
+    private String chatId;
+    private String storeFile = "./data/alert-rules.json";
+}
@@ -0,0 +1,28 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.api-quota")
+public class ApiQuotaProperties {
+    private boolean enabled = true;
+    private List<String> paths = List.of("/api/market/", "/api/alerts/");
+    private double rate = 10;
+    private int burst = 60;
+    private int stripes = 16;
+    private int maxTracked = 100_000;
+    private List<String> exempt = List.of();
+    private Duration idleEviction = Duration.ofMinutes(10);
+    private int defaultCost = 1;
+    private Map<String, Integer> costs = new LinkedHashMap<>(Map.of(
+            "/api/market/arbitrage", 10,
+            "/api/market/funding", 3));
+}
@@ -4,11 +4,15 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
 @Configuration
+@EnableScheduling
 public class AsyncConfig {
     @Bean
     public Executor exchangeExecutor() {
@@ -19,4 +23,12 @@ public class AsyncConfig {
     public TaskExecutor applicationTaskExecutor() {
         return new SimpleAsyncTaskExecutor(r -> Thread.ofVirtual().name("vt-", 0).unstarted(r));
     }
+
+    @Bean
+    public TaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("sched-");
+        return scheduler;
+    }
 }
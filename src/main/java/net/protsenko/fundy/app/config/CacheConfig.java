@@ -13,7 +13,11 @@ import java.util.List;
 
 @Configuration
 @EnableCaching
-@EnableConfigurationProperties(ExchangeCacheProperties.class)
+@EnableConfigurationProperties({ExchangeCacheProperties.class, UniverseProperties.class, SnapshotProperties.class,
+        FundingScheduleProperties.class, AlertProperties.class, TelegramOutboxProperties.class,
+        ClusterProperties.class, DepthProperties.class, HttpTapeProperties.class, WarmStartProperties.class,
+        RateLimitProperties.class, AdaptiveRefreshProperties.class, StreamProperties.class,
+        ApiQuotaProperties.class, AdmissionProperties.class, FundingHistoryProperties.class})
 public class CacheConfig {
 
     @Bean
@@ -35,17 +39,11 @@ public class CacheConfig {
                 .maximumSize(p.getFundingMaxSize())
                 .recordStats();
 
-        Caffeine<Object, Object> universe = Caffeine.newBuilder()
-                .expireAfterWrite(java.time.Duration.ofHours(24))
-                .maximumSize(10)
-                .recordStats();
-
         manager.setCaches(List.of(
                 new CaffeineCache("ex-instruments", instruments.build()),
                 new CaffeineCache("ex-tickers", tickers.build()),
                 new CaffeineCache("ex-funding", funding.build()),
-                new CaffeineCache("ex-funding-meta", funding.build()),
-                new CaffeineCache("universe-perp-24h", universe.build())
+                new CaffeineCache("ex-funding-meta", funding.build())
         ));
         return manager;
     }
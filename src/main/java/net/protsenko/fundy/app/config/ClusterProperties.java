@@ -0,0 +1,24 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.cluster")
+public class ClusterProperties {
+    private boolean enabled = false;
+    private String leaseFile = "./data/fundy-leader.lock";
+    private String advertiseHost;
+    private int feedPort = 7071;
+    private String feedBindAddress = "127.0.0.1";
+    private String feedSecret;
+    private int maxFrameBytes = 32 * 1024 * 1024;
+    private Duration handshakeTimeout = Duration.ofSeconds(5);
+    private Duration leaseCheckInterval = Duration.ofSeconds(5);
+    private Duration reconnectDelay = Duration.ofSeconds(2);
+    private int followerQueue = 256;
+}
@@ -0,0 +1,18 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.depth")
+public class DepthProperties {
+    private int levels = 20;
+    private int maxHotSymbols = 40;
+    private Duration hotTtl = Duration.ofMinutes(2);
+    private Duration refreshInterval = Duration.ofSeconds(5);
+    private Duration maxAge = Duration.ofSeconds(20);
+}
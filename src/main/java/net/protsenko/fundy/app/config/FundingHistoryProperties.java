@@ -0,0 +1,18 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.funding-history")
+public class FundingHistoryProperties {
+    private boolean enabled = true;
+    private String dir = "./data/funding-history";
+    private Duration flushInterval = Duration.ofMinutes(1);
+    private Duration minuteRetention = Duration.ofDays(7);
+    private int maxPoints = 500;
+}
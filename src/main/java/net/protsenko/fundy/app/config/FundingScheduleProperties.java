@@ -0,0 +1,19 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.funding-schedule")
+public class FundingScheduleProperties {
+    private Duration tick = Duration.ofSeconds(1);
+    private int wheelSize = 512;
+    private Duration windowBefore = Duration.ofMinutes(2);
+    private Duration windowAfter = Duration.ofMinutes(2);
+    private Duration denseInterval = Duration.ofSeconds(15);
+    private Duration sparseInterval = Duration.ofMinutes(10);
+}
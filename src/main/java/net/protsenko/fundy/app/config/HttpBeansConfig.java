@@ -1,5 +1,6 @@
 package net.protsenko.fundy.app.config;
 
+import net.protsenko.fundy.app.utils.ReplayHttpClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -8,10 +9,11 @@ import java.net.http.HttpClient;
 @Configuration
 public class HttpBeansConfig {
     @Bean
-    public HttpClient httpClient() {
+    public HttpClient httpClient(HttpTapeProperties tape) {
+        if (tape.getMode() == HttpTapeProperties.Mode.REPLAY) return ReplayHttpClient.load(tape);
         return HttpClient.newBuilder()
                 .version(HttpClient.Version.HTTP_2)
                 .followRedirects(HttpClient.Redirect.NORMAL)
                 .build();
     }
-}
\ No newline at end of file
+}
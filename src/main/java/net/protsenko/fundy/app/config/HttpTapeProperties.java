@@ -0,0 +1,30 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.http-tape")
+public class HttpTapeProperties {
+    private Mode mode = Mode.OFF;
+    private String dir = "./data/tapes";
+    private String session;
+    private double speed = 1.0;
+    private boolean loop = true;
+    private boolean recordedLatency = true;
+    private Duration extraLatency = Duration.ZERO;
+    private Duration latencyJitter = Duration.ZERO;
+    private double errorRate = 0;
+    private int errorStatus = 503;
+    private double timeoutRate = 0;
+
+    public enum Mode {
+        OFF,
+        RECORD,
+        REPLAY
+    }
+}
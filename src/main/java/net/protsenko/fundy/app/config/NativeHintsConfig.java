@@ -0,0 +1,39 @@
+package net.protsenko.fundy.app.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.DtoHints.class)
+public class NativeHintsConfig {
+
+    static class DtoHints implements RuntimeHintsRegistrar {
+
+        private static final String BASE_PACKAGE = "net.protsenko.fundy.app";
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+                @Override
+                protected boolean isCandidateComponent(AnnotatedBeanDefinition def) {
+                    return def.getMetadata().isIndependent();
+                }
+            };
+            scanner.addIncludeFilter((reader, factory) ->
+                    Record.class.getName().equals(reader.getClassMetadata().getSuperClassName()));
+
+            BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+            for (BeanDefinition def : scanner.findCandidateComponents(BASE_PACKAGE)) {
+                binding.registerReflectionHints(hints.reflection(),
+                        ClassUtils.resolveClassName(def.getBeanClassName(), classLoader));
+            }
+        }
+    }
+}
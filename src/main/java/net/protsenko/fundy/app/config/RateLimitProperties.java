@@ -0,0 +1,33 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.RequestClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private Map<RequestClass, Duration> maxWait = new EnumMap<>(Map.of(
+            RequestClass.TICKERS, Duration.ofSeconds(2),
+            RequestClass.DEPTH, Duration.ofSeconds(2),
+            RequestClass.FUNDING, Duration.ofSeconds(30),
+            RequestClass.INSTRUMENTS, Duration.ofMinutes(1)));
+    private Duration defaultPause = Duration.ofSeconds(5);
+    private double minRateFactor = 0.1;
+    private double recoveryStep = 0.02;
+    private Map<ExchangeType, Budget> exchanges = new EnumMap<>(ExchangeType.class);
+
+    @Data
+    public static class Budget {
+        private double rate = 10;
+        private int burst = 20;
+    }
+}
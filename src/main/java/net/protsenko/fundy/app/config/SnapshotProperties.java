@@ -0,0 +1,16 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.snapshot")
+public class SnapshotProperties {
+    private Duration refreshInterval = Duration.ofSeconds(2);
+    private Duration maxAge = Duration.ofSeconds(60);
+    private int changeLogCapacity = 200_000;
+}
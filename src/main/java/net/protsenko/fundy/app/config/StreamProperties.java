@@ -0,0 +1,23 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.streams")
+public class StreamProperties {
+    private boolean enabled = true;
+    private Duration publishInterval = Duration.ofMillis(250);
+    private Duration heartbeatInterval = Duration.ofSeconds(20);
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration reconnectMin = Duration.ofSeconds(1);
+    private Duration reconnectMax = Duration.ofMinutes(1);
+    private Duration resyncMinInterval = Duration.ofSeconds(10);
+    private Duration staleAfter = Duration.ofSeconds(10);
+    private int maxMessageBytes = 4 * 1024 * 1024;
+}
@@ -0,0 +1,21 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.telegram.outbox")
+public class TelegramOutboxProperties {
+    private int capacity = 1_000;
+    private String spoolFile = "./data/telegram-outbox.jsonl";
+    private int compactAfter = 1_000;
+    private Duration perChatInterval = Duration.ofSeconds(1);
+    private Duration globalInterval = Duration.ofMillis(40);
+    private int maxBatchChars = 4_000;
+    private int maxAttempts = 5;
+    private Duration maxBackoff = Duration.ofMinutes(1);
+}
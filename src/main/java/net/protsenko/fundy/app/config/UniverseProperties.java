@@ -0,0 +1,22 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.universe")
+public class UniverseProperties {
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    private Map<ExchangeType, Duration> refreshIntervals = new EnumMap<>(ExchangeType.class);
+
+    public Duration refreshInterval(ExchangeType ex) {
+        return refreshIntervals.getOrDefault(ex, refreshInterval);
+    }
+}
@@ -0,0 +1,19 @@
+package net.protsenko.fundy.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "fundy.warm-start")
+public class WarmStartProperties {
+    private boolean enabled = true;
+    private String file = "./data/fundy-warm.bin";
+    private Duration persistInterval = Duration.ofMinutes(1);
+    private Duration maxFileAge = Duration.ofHours(1);
+    private Duration readyMaxAge = Duration.ofMinutes(2);
+    private int readyMinExchanges = 2;
+}
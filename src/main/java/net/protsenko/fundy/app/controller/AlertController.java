@@ -0,0 +1,53 @@
+package net.protsenko.fundy.app.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import net.protsenko.fundy.app.config.AlertProperties;
+import net.protsenko.fundy.app.dto.AlertRule;
+import net.protsenko.fundy.app.dto.rq.AlertRuleRequest;
+import net.protsenko.fundy.app.exception.ForbiddenException;
+import net.protsenko.fundy.app.service.AlertEngine;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/alerts/rules")
+@RequiredArgsConstructor
+public class AlertController {
+    private static final String TOKEN_HEADER = "X-Fundy-Alerts-Token";
+
+    private final AlertEngine engine;
+    private final AlertProperties props;
+
+    @PostMapping
+    public AlertRule create(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                            @Valid @RequestBody AlertRuleRequest req) {
+        authorize(token);
+        return engine.add(req);
+    }
+
+    @GetMapping
+    public List<AlertRule> list(@RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        authorize(token);
+        return engine.list();
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                       @PathVariable String id) {
+        authorize(token);
+        return engine.remove(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private void authorize(String token) {
+        String expected = props.getApiToken();
+        if (expected == null || expected.isBlank()) throw new ForbiddenException("Alert rules API is disabled");
+        if (token == null || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            throw new ForbiddenException("Invalid alerts token");
+        }
+    }
+}
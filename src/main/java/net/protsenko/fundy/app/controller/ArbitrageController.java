@@ -3,23 +3,25 @@ package net.protsenko.fundy.app.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.dto.rq.ArbitrageFilterRequest;
-import net.protsenko.fundy.app.dto.rs.ArbitrageData;
+import net.protsenko.fundy.app.dto.rs.JsonRows;
 import net.protsenko.fundy.app.service.ArbitrageScannerService;
+import net.protsenko.fundy.app.utils.AdmissionGate;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.context.request.async.DeferredResult;
 
 @RestController
 @RequestMapping("/api/market/arbitrage")
 @RequiredArgsConstructor
 public class ArbitrageController {
     private final ArbitrageScannerService service;
+    private final AdmissionGate admission;
 
     @PostMapping("/opportunities")
-    public List<ArbitrageData> getArbitrageOpportunities(@Valid @RequestBody ArbitrageFilterRequest req) {
-        return service.getArbitrageOpportunities(req);
+    public DeferredResult<ResponseEntity<JsonRows>> getArbitrageOpportunities(@Valid @RequestBody ArbitrageFilterRequest req) {
+        return admission.respondAsync("arbitrage", () -> service.getArbitrageOpportunities(req), () -> service.lastOpportunities(req));
     }
 }
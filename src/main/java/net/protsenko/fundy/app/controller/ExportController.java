@@ -0,0 +1,104 @@
+package net.protsenko.fundy.app.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import net.protsenko.fundy.app.dto.rq.ExportRequest;
+import net.protsenko.fundy.app.exception.ExportResumeException;
+import net.protsenko.fundy.app.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/market/export")
+@RequiredArgsConstructor
+public class ExportController {
+    private static final String DATA_VERSION = "X-Data-Version";
+
+    private final ExportService service;
+
+    @GetMapping("/arbitrage")
+    public ResponseEntity<StreamingResponseBody> arbitrage(@Valid @ModelAttribute ExportRequest req,
+                                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String encoding,
+                                                           @RequestHeader(value = DATA_VERSION, required = false) Long version) {
+        ExportService.Pinned data = pin(req, version);
+        return stream("arbitrage", req, encoding, data.version(), out -> service.arbitrage(data, req.effectiveFormat(), req.effectiveOffset(), out));
+    }
+
+    @GetMapping("/funding")
+    public ResponseEntity<StreamingResponseBody> funding(@Valid @ModelAttribute ExportRequest req,
+                                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String encoding,
+                                                         @RequestHeader(value = DATA_VERSION, required = false) Long version) {
+        ExportService.Pinned data = pin(req, version);
+        return stream("funding", req, encoding, data.version(), out -> service.funding(data, req.effectiveFormat(), req.effectiveOffset(), out));
+    }
+
+    @GetMapping("/tickers")
+    public ResponseEntity<StreamingResponseBody> tickers(@Valid @ModelAttribute ExportRequest req,
+                                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String encoding,
+                                                         @RequestHeader(value = DATA_VERSION, required = false) Long version) {
+        ExportService.Pinned data = pin(req, version);
+        return stream("tickers", req, encoding, data.version(), out -> service.tickers(data, req.effectiveFormat(), req.effectiveOffset(), out));
+    }
+
+    @GetMapping("/funding-history")
+    public ResponseEntity<StreamingResponseBody> fundingHistory(@Valid @ModelAttribute ExportRequest req,
+                                                                @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String encoding) {
+        if (req.effectiveOffset() > 0 && (req.from() == null || req.to() == null)) {
+            throw new ExportResumeException("Resuming a history export needs the same explicit from and to");
+        }
+        long from = req.effectiveFrom(), to = req.effectiveTo();
+        return stream("funding-history", req, encoding, null, out -> service.history(req.effectiveExchanges(), req.effectiveResolution(),
+                from, to, req.effectiveFormat(), req.effectiveOffset(), out));
+    }
+
+    // live rows only keep their order while no snapshot is swapped, so a resume names the version it started from
+    private ExportService.Pinned pin(ExportRequest req, Long version) {
+        ExportService.Pinned data = service.pin(req.effectiveExchanges());
+        if (req.effectiveOffset() == 0) return data;
+        if (version == null) throw new ExportResumeException("Resuming an export needs the " + DATA_VERSION + " it started with");
+        if (version != data.version()) {
+            throw new ExportResumeException("Data changed since version " + version + ", restart the export from offset 0");
+        }
+        return data;
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, ExportRequest req, String encoding, Long version, Export export) {
+        boolean gzip = encoding != null && encoding.toLowerCase().contains("gzip");
+        String filename = name + "." + req.effectiveFormat().extension();
+
+        ResponseEntity.BodyBuilder rs = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(req.effectiveFormat().contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header("X-Export-Offset", Long.toString(req.effectiveOffset()));
+        if (version != null) rs.header(DATA_VERSION, Long.toString(version));
+        if (gzip) rs.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        return rs.body(out -> {
+            if (!gzip) {
+                export.write(out);
+                return;
+            }
+            try (GZIPOutputStream z = new GZIPOutputStream(out, 64 * 1024, true)) {
+                export.write(z);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        long write(OutputStream out) throws IOException;
+    }
+}
@@ -6,6 +6,8 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.utils.FeedbackTelegramSender;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -19,14 +21,6 @@ public class FeedbackController {
 
     private final FeedbackTelegramSender telegram;
 
-    private static String clientIp(HttpServletRequest req) {
-        String h = req.getHeader("X-Forwarded-For");
-        if (h != null && !h.isBlank()) return h.split(",")[0].trim();
-        h = req.getHeader("X-Real-IP");
-        if (h != null && !h.isBlank()) return h.trim();
-        return req.getRemoteAddr();
-    }
-
     private static String safe(String s) {
         return (s == null || s.isBlank()) ? "-" : s;
     }
@@ -56,10 +50,12 @@ public class FeedbackController {
 
     @PostMapping
     public ResponseEntity<Void> send(@Valid @RequestBody FeedbackRq rq, HttpServletRequest req) {
-        String ip = clientIp(req);
+        String ip = req.getRemoteAddr();
         String ua = req.getHeader("User-Agent");
-        telegram.send(buildHtml(rq, ip, ua));
-        return ResponseEntity.ok().build();
+        if (!telegram.send(buildHtml(rq, ip, ua))) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "60").build();
+        }
+        return ResponseEntity.accepted().build();
     }
 
     public record FeedbackRq(
@@ -2,13 +2,21 @@ package net.protsenko.fundy.app.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import net.protsenko.fundy.app.dto.rs.FundingRateView;
+import net.protsenko.fundy.app.dto.rs.FundingHistoryResponse;
+import net.protsenko.fundy.app.dto.rs.JsonRows;
 import net.protsenko.fundy.app.dto.rq.FundingFilterRequest;
+import net.protsenko.fundy.app.dto.rq.FundingHistoryRequest;
+import net.protsenko.fundy.app.dto.rq.SettlingSoonRequest;
+import net.protsenko.fundy.app.service.FundingHistoryService;
 import net.protsenko.fundy.app.service.FundingScannerService;
+import net.protsenko.fundy.app.service.SettlementIndex;
+import net.protsenko.fundy.app.utils.AdmissionGate;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
 
@@ -17,9 +25,22 @@ import java.util.List;
 @RequiredArgsConstructor
 public class FundingController {
     private final FundingScannerService service;
+    private final SettlementIndex settlements;
+    private final FundingHistoryService history;
+    private final AdmissionGate admission;
 
     @PostMapping("/opportunities")
-    public List<FundingRateView> getFundingOpportunities(@Valid @RequestBody FundingFilterRequest req) {
-        return service.getFundingOpportunities(req);
+    public DeferredResult<ResponseEntity<JsonRows>> getFundingOpportunities(@Valid @RequestBody FundingFilterRequest req) {
+        return admission.respondAsync("funding", () -> service.getFundingOpportunities(req), () -> service.lastFundingOpportunities(req));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/settling")
+    public JsonRows getSettlingSoon(@Valid @RequestBody SettlingSoonRequest req) {
+        return settlements.settlingSoon(req);
+    }
+
+    @PostMapping("/history")
+    public List<FundingHistoryResponse> getFundingHistory(@Valid @RequestBody FundingHistoryRequest req) {
+        return history.history(req);
+    }
+}
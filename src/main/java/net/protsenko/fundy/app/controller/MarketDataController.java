@@ -1,14 +1,20 @@
 package net.protsenko.fundy.app.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.dto.rq.InstrumentsRequest;
 import net.protsenko.fundy.app.dto.rq.TickersRequest;
+import net.protsenko.fundy.app.dto.rs.ChangesResponse;
 import net.protsenko.fundy.app.dto.rs.ExchangeData;
 import net.protsenko.fundy.app.dto.rs.TickerData;
 import net.protsenko.fundy.app.dto.rs.UniverseEntry;
 import net.protsenko.fundy.app.exchange.ExchangeType;
 import net.protsenko.fundy.app.service.MarketDataService;
+import net.protsenko.fundy.app.service.SymbolSearchService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,15 +27,30 @@ import java.util.List;
 @Validated
 public class MarketDataController {
     private final MarketDataService service;
+    private final SymbolSearchService search;
 
     @PostMapping("/instruments")
     public List<UniverseEntry> instruments(@Valid @RequestBody InstrumentsRequest req) {
         return service.getPerpUniverse(req);
     }
 
+    @GetMapping("/search")
+    public List<UniverseEntry> search(@RequestParam @Size(max = 32) String q,
+                                      @RequestParam(defaultValue = "20") @Positive @Max(100) int limit) {
+        return search.search(q, limit);
+    }
+
     @PostMapping("/tickers")
-    public List<TickerData> tickers(@Valid @RequestBody TickersRequest tickersRequest) {
-        return service.getTickers(tickersRequest);
+    public ResponseEntity<List<TickerData>> tickers(@Valid @RequestBody TickersRequest tickersRequest) {
+        long version = service.version();
+        return ResponseEntity.ok()
+                .header("X-Data-Version", Long.toString(version))
+                .body(service.getTickers(tickersRequest));
+    }
+
+    @GetMapping("/changes")
+    public ChangesResponse changes(@RequestParam(defaultValue = "0") long since) {
+        return service.changesSince(since);
     }
 
     @GetMapping("/exchanges")
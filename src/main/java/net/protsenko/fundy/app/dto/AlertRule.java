@@ -0,0 +1,28 @@
+package net.protsenko.fundy.app.dto;
+
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+public record AlertRule(
+        String id,
+        Type type,
+        String symbol,
+        Set<ExchangeType> exchanges,
+        BigDecimal threshold,
+        String chatId
+) {
+    public enum Type {
+        FUNDING_ABOVE,
+        ARBITRAGE_SCORE_ABOVE
+    }
+
+    public int mask() {
+        return ExchangeType.mask(exchanges);
+    }
+
+    public boolean anySymbol() {
+        return symbol == null;
+    }
+}
@@ -0,0 +1,25 @@
+package net.protsenko.fundy.app.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record DepthLevels(
+        double[] bidPrices,
+        double[] bidSizes,
+        double[] askPrices,
+        double[] askSizes
+) {
+    public static DepthLevels of(List<List<BigDecimal>> bids, List<List<BigDecimal>> asks, double sizeMultiplier) {
+        int nb = bids == null ? 0 : bids.size(), na = asks == null ? 0 : asks.size();
+        double[] bp = new double[nb], bs = new double[nb], ap = new double[na], as = new double[na];
+        for (int i = 0; i < nb; i++) {
+            bp[i] = bids.get(i).get(0).doubleValue();
+            bs[i] = bids.get(i).get(1).doubleValue() * sizeMultiplier;
+        }
+        for (int i = 0; i < na; i++) {
+            ap[i] = asks.get(i).get(0).doubleValue();
+            as[i] = asks.get(i).get(1).doubleValue() * sizeMultiplier;
+        }
+        return new DepthLevels(bp, bs, ap, as);
+    }
+}
@@ -0,0 +1,19 @@
+package net.protsenko.fundy.app.dto;
+
+import net.protsenko.fundy.app.dto.rs.FundingRateData;
+import net.protsenko.fundy.app.dto.rs.TickerData;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.util.Map;
+
+public record ExchangeSnapshot(
+        ExchangeType exchange,
+        long version,
+        long updatedAt,
+        Map<String, TickerData> tickers,
+        Map<String, FundingRateData> funding
+) {
+    public static ExchangeSnapshot empty(ExchangeType exchange) {
+        return new ExchangeSnapshot(exchange, 0L, 0L, Map.of(), Map.of());
+    }
+}
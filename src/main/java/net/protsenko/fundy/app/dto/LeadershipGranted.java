@@ -0,0 +1,4 @@
+package net.protsenko.fundy.app.dto;
+
+public record LeadershipGranted(String address) {
+}
@@ -0,0 +1,16 @@
+package net.protsenko.fundy.app.dto;
+
+import net.protsenko.fundy.app.dto.rs.ChangeEntry;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.util.List;
+
+public record MarketDataRefresh(
+        ExchangeType exchange,
+        long version,
+        ExchangeSnapshot snapshot,
+        List<ChangeEntry> changes,
+        boolean restored,
+        boolean resync
+) {
+}
@@ -0,0 +1,94 @@
+package net.protsenko.fundy.app.dto;
+
+public final class OrderBook {
+
+    private final int depth;
+    private final double[] bidPx;
+    private final double[] bidSz;
+    private final double[] askPx;
+    private final double[] askSz;
+    private int bids;
+    private int asks;
+    private long updatedAt;
+
+    public OrderBook(int depth) {
+        this.depth = depth;
+        this.bidPx = new double[depth];
+        this.bidSz = new double[depth];
+        this.askPx = new double[depth];
+        this.askSz = new double[depth];
+    }
+
+    public synchronized void replace(DepthLevels levels) {
+        bids = 0;
+        asks = 0;
+        for (int i = 0; i < levels.bidPrices().length; i++) update(true, levels.bidPrices()[i], levels.bidSizes()[i]);
+        for (int i = 0; i < levels.askPrices().length; i++) update(false, levels.askPrices()[i], levels.askSizes()[i]);
+        updatedAt = System.currentTimeMillis();
+    }
+
+    public synchronized void update(boolean bid, double price, double size) {
+        double[] px = bid ? bidPx : askPx;
+        double[] sz = bid ? bidSz : askSz;
+        int n = bid ? bids : asks;
+
+        int i = 0;
+        while (i < n && (bid ? px[i] > price : px[i] < price)) i++;
+
+        if (i < n && px[i] == price) {
+            if (size > 0) {
+                sz[i] = size;
+            } else {
+                System.arraycopy(px, i + 1, px, i, n - i - 1);
+                System.arraycopy(sz, i + 1, sz, i, n - i - 1);
+                n--;
+            }
+        } else if (size > 0 && i < depth) {
+            int tail = Math.min(n, depth - 1) - i;
+            System.arraycopy(px, i, px, i + 1, tail);
+            System.arraycopy(sz, i, sz, i + 1, tail);
+            px[i] = price;
+            sz[i] = size;
+            n = Math.min(n + 1, depth);
+        }
+
+        if (bid) bids = n;
+        else asks = n;
+        updatedAt = System.currentTimeMillis();
+    }
+
+    public synchronized double bestBid() {
+        return bids > 0 ? bidPx[0] : 0;
+    }
+
+    public synchronized double bestAsk() {
+        return asks > 0 ? askPx[0] : 0;
+    }
+
+    public synchronized long updatedAt() {
+        return updatedAt;
+    }
+
+    public synchronized Fill buy(double notional) {
+        return walk(askPx, askSz, asks, notional);
+    }
+
+    public synchronized Fill sell(double notional) {
+        return walk(bidPx, bidSz, bids, notional);
+    }
+
+    private static Fill walk(double[] px, double[] sz, int n, double notional) {
+        double remaining = notional, qty = 0;
+        int used = 0;
+        for (int i = 0; i < n && remaining > 0; i++, used++) {
+            double take = Math.min(remaining, px[i] * sz[i]);
+            qty += take / px[i];
+            remaining -= take;
+        }
+        double filled = notional - remaining;
+        return new Fill(qty > 0 ? filled / qty : 0, filled, used, remaining <= notional * 1e-9);
+    }
+
+    public record Fill(double avgPrice, double filledNotional, int levels, boolean complete) {
+    }
+}
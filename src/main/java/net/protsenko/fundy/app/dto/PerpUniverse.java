@@ -0,0 +1,197 @@
+package net.protsenko.fundy.app.dto;
+
+import net.protsenko.fundy.app.dto.rs.InstrumentData;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.ExchangeLinkResolver;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public final class PerpUniverse {
+
+    public static final PerpUniverse EMPTY = new PerpUniverse(new TreeMap<>(), 0L);
+
+    private final NavigableMap<String, Entry> entries;
+    private final Map<ExchangeType, List<InstrumentData>> instruments;
+    private final AtomicReferenceArray<Map<String, Map<ExchangeType, String>>> projections =
+            new AtomicReferenceArray<>(ExchangeType.ALL_MASK + 1);
+    private final long builtAt;
+
+    private PerpUniverse(NavigableMap<String, Entry> entries, long builtAt) {
+        this(entries, indexByExchange(entries), builtAt);
+    }
+
+    private PerpUniverse(NavigableMap<String, Entry> entries,
+                         Map<ExchangeType, List<InstrumentData>> instruments,
+                         long builtAt) {
+        this.entries = Collections.unmodifiableNavigableMap(entries);
+        this.instruments = instruments;
+        this.builtAt = builtAt;
+    }
+
+    private static Map<ExchangeType, List<InstrumentData>> indexByExchange(Map<String, Entry> entries) {
+        Map<ExchangeType, List<InstrumentData>> byEx = new EnumMap<>(ExchangeType.class);
+        for (ExchangeType ex : ExchangeType.values()) byEx.put(ex, new ArrayList<>());
+        for (Entry e : entries.values()) {
+            e.nativeSymbols().forEach((ex, sym) -> byEx.get(ex).add(e.instrument(ex)));
+        }
+        byEx.replaceAll((ex, list) -> List.copyOf(list));
+        return byEx;
+    }
+
+    public static PerpUniverse of(Map<String, Map<ExchangeType, String>> normalized) {
+        NavigableMap<String, Entry> out = new TreeMap<>();
+        normalized.forEach((key, natives) -> {
+            if (natives == null || natives.isEmpty()) return;
+            out.put(key, Entry.of(key, natives));
+        });
+        return new PerpUniverse(out, System.currentTimeMillis());
+    }
+
+    public Change withExchange(ExchangeType ex, Map<String, String> nativeByKey) {
+        Set<String> listed = new TreeSet<>();
+        Set<String> delisted = new TreeSet<>();
+        Set<String> renamed = new TreeSet<>();
+
+        for (InstrumentData i : instruments.get(ex)) {
+            String key = i.baseAsset() + "/" + i.quoteAsset();
+            String fresh = nativeByKey.get(key);
+            if (fresh == null) delisted.add(key);
+            else if (!fresh.equals(i.nativeSymbol())) renamed.add(key);
+        }
+        nativeByKey.forEach((key, sym) -> {
+            Entry e = entries.get(key);
+            if (e == null || !e.has(ex)) listed.add(key);
+        });
+
+        UniverseChange diff = new UniverseChange(ex, Set.copyOf(listed), Set.copyOf(delisted), Set.copyOf(renamed));
+        if (diff.isEmpty()) return new Change(this, diff);
+
+        NavigableMap<String, Entry> next = new TreeMap<>(entries);
+        for (String key : delisted) {
+            Entry e = next.get(key).without(ex);
+            if (e == null) next.remove(key);
+            else next.put(key, e);
+        }
+        Set<String> touched = new HashSet<>(listed);
+        touched.addAll(renamed);
+        for (String key : touched) {
+            Entry e = next.get(key);
+            next.put(key, e == null ? Entry.of(key, Map.of(ex, nativeByKey.get(key))) : e.with(ex, nativeByKey.get(key)));
+        }
+
+        Set<String> dropped = new HashSet<>(delisted);
+        dropped.addAll(renamed);
+        List<InstrumentData> exList = new ArrayList<>(instruments.get(ex).size() + listed.size());
+        for (InstrumentData i : instruments.get(ex)) {
+            if (!dropped.contains(i.baseAsset() + "/" + i.quoteAsset())) exList.add(i);
+        }
+        for (String key : touched) exList.add(next.get(key).instrument(ex));
+
+        Map<ExchangeType, List<InstrumentData>> nextInstruments = new EnumMap<>(instruments);
+        nextInstruments.put(ex, List.copyOf(exList));
+        return new Change(new PerpUniverse(next, nextInstruments, System.currentTimeMillis()), diff);
+    }
+
+    public long builtAt() {
+        return builtAt;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    public Entry get(String canonicalKey) {
+        return entries.get(canonicalKey);
+    }
+
+    public List<InstrumentData> instruments(ExchangeType ex) {
+        return instruments.get(ex);
+    }
+
+    public Map<String, Map<ExchangeType, String>> project(Set<ExchangeType> exchanges) {
+        return project(ExchangeType.mask(exchanges));
+    }
+
+    public Map<String, Map<ExchangeType, String>> project(int mask) {
+        int m = mask & ExchangeType.ALL_MASK;
+        Map<String, Map<ExchangeType, String>> cached = projections.get(m);
+        if (cached != null) return cached;
+
+        Map<String, Map<ExchangeType, String>> out = new LinkedHashMap<>();
+        for (Entry e : entries.values()) {
+            int hit = e.mask() & m;
+            if (hit == 0) continue;
+            out.put(e.key(), hit == e.mask() ? e.nativeSymbols() : e.restrict(hit));
+        }
+        Map<String, Map<ExchangeType, String>> view = Collections.unmodifiableMap(out);
+        return projections.compareAndSet(m, null, view) ? view : projections.get(m);
+    }
+
+    public record Change(PerpUniverse universe, UniverseChange diff) {
+    }
+
+    public record Entry(
+            String key,
+            String base,
+            String quote,
+            int mask,
+            Map<ExchangeType, String> nativeSymbols,
+            Map<ExchangeType, String> links
+    ) {
+        static Entry of(String key, Map<ExchangeType, String> natives) {
+            int slash = key.indexOf('/');
+            String base = slash > 0 ? key.substring(0, slash) : key;
+            String quote = slash > 0 ? key.substring(slash + 1) : "USDT";
+            EnumMap<ExchangeType, String> copy = new EnumMap<>(natives);
+            EnumMap<ExchangeType, String> links = new EnumMap<>(ExchangeType.class);
+            for (ExchangeType ex : ExchangeType.values()) links.put(ex, ExchangeLinkResolver.link(ex, base, quote));
+            return new Entry(key, base, quote, ExchangeType.mask(copy.keySet()), Collections.unmodifiableMap(copy),
+                    Collections.unmodifiableMap(links));
+        }
+
+        public InstrumentData instrument(ExchangeType ex) {
+            return new InstrumentData(base, quote, InstrumentType.PERPETUAL, nativeSymbols.get(ex), ex);
+        }
+
+        public boolean has(ExchangeType ex) {
+            return ex.in(mask);
+        }
+
+        public String nativeSymbol(ExchangeType ex) {
+            return nativeSymbols.get(ex);
+        }
+
+        public String link(ExchangeType ex) {
+            return links.get(ex);
+        }
+
+        Entry with(ExchangeType ex, String nativeSymbol) {
+            EnumMap<ExchangeType, String> copy = new EnumMap<>(nativeSymbols);
+            copy.put(ex, nativeSymbol);
+            return new Entry(key, base, quote, mask | ex.bit(), Collections.unmodifiableMap(copy), links);
+        }
+
+        Entry without(ExchangeType ex) {
+            int m = mask & ~ex.bit();
+            if (m == 0) return null;
+            return new Entry(key, base, quote, m, restrict(m), links);
+        }
+
+        Map<ExchangeType, String> restrict(int m) {
+            EnumMap<ExchangeType, String> out = new EnumMap<>(ExchangeType.class);
+            nativeSymbols.forEach((ex, sym) -> {
+                if (ex.in(m)) out.put(ex, sym);
+            });
+            return Collections.unmodifiableMap(out);
+        }
+    }
+}
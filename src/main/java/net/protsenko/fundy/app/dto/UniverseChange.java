@@ -0,0 +1,16 @@
+package net.protsenko.fundy.app.dto;
+
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.util.Set;
+
+public record UniverseChange(
+        ExchangeType exchange,
+        Set<String> listed,
+        Set<String> delisted,
+        Set<String> renamed
+) {
+    public boolean isEmpty() {
+        return listed.isEmpty() && delisted.isEmpty() && renamed.isEmpty();
+    }
+}
@@ -0,0 +1,30 @@
+package net.protsenko.fundy.app.dto.rq;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import net.protsenko.fundy.app.dto.AlertRule;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Set;
+
+public record AlertRuleRequest(
+        @NotNull AlertRule.Type type,
+        String symbol,
+        Set<ExchangeType> exchanges,
+        @NotNull @Positive BigDecimal threshold
+) {
+    public String canonicalSymbol() {
+        if (symbol == null || symbol.isBlank()) return null;
+        String s = symbol.trim().toUpperCase(Locale.ROOT);
+        return s.contains("/") ? s : s + "/USDT";
+    }
+
+    @AssertTrue(message = "arbitrage rules need a symbol and exactly two exchanges")
+    public boolean isArbitrageRuleComplete() {
+        return type != AlertRule.Type.ARBITRAGE_SCORE_ABOVE
+                || (canonicalSymbol() != null && exchanges != null && exchanges.size() == 2);
+    }
+}
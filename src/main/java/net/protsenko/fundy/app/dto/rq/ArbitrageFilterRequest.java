@@ -1,5 +1,6 @@
 package net.protsenko.fundy.app.dto.rq;
 
+import jakarta.validation.constraints.Positive;
 import net.protsenko.fundy.app.exchange.ExchangeType;
 
 import java.math.BigDecimal;
@@ -10,7 +11,8 @@ import java.util.Set;
 public record ArbitrageFilterRequest(
         Set<ExchangeType> exchanges,
         BigDecimal minFundingRate,
-        BigDecimal minPerpetualPrice
+        BigDecimal minPerpetualPrice,
+        @Positive BigDecimal notional
 ) {
     public Set<ExchangeType> effectiveExchanges() {
         return (exchanges == null || exchanges.isEmpty())
@@ -0,0 +1,46 @@
+package net.protsenko.fundy.app.dto.rq;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Pattern;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.ExportWriter.Format;
+import net.protsenko.fundy.app.utils.RollupStore.Resolution;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+public record ExportRequest(
+        Set<ExchangeType> exchanges,
+        @Pattern(regexp = "(?i)csv|ndjson") String format,
+        @PositiveOrZero Long offset,
+        Long from,
+        Long to,
+        @Pattern(regexp = "1m|1h|1d") String resolution
+) {
+    public Set<ExchangeType> effectiveExchanges() {
+        return (exchanges == null || exchanges.isEmpty())
+                ? EnumSet.allOf(ExchangeType.class)
+                : EnumSet.copyOf(exchanges);
+    }
+
+    public Format effectiveFormat() {
+        return format == null ? Format.CSV : Format.valueOf(format.toUpperCase());
+    }
+
+    public long effectiveOffset() {
+        return offset == null ? 0 : offset;
+    }
+
+    public long effectiveTo() {
+        return to == null ? System.currentTimeMillis() : to;
+    }
+
+    public long effectiveFrom() {
+        return from == null ? effectiveTo() - Duration.ofDays(30).toMillis() : from;
+    }
+
+    public Resolution effectiveResolution() {
+        return resolution == null ? null : Resolution.of(resolution);
+    }
+}
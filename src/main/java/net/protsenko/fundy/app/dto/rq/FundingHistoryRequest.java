@@ -0,0 +1,31 @@
+package net.protsenko.fundy.app.dto.rq;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+public record FundingHistoryRequest(
+        @NotBlank String symbol,
+        Set<ExchangeType> exchanges,
+        Long from,
+        Long to,
+        @Pattern(regexp = "1m|1h|1d") String resolution
+) {
+    public Set<ExchangeType> effectiveExchanges() {
+        return (exchanges == null || exchanges.isEmpty())
+                ? EnumSet.allOf(ExchangeType.class)
+                : exchanges;
+    }
+
+    public long effectiveTo() {
+        return to == null ? System.currentTimeMillis() : to;
+    }
+
+    public long effectiveFrom() {
+        return from == null ? effectiveTo() - Duration.ofDays(7).toMillis() : from;
+    }
+}
@@ -0,0 +1,32 @@
+package net.protsenko.fundy.app.dto.rq;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+public record SettlingSoonRequest(
+        Set<ExchangeType> exchanges,
+        BigDecimal minFundingRate,
+        @Positive @Max(1440) Integer withinMinutes
+) {
+    public Set<ExchangeType> effectiveExchanges() {
+        return (exchanges == null || exchanges.isEmpty())
+                ? EnumSet.allOf(ExchangeType.class)
+                : exchanges;
+    }
+
+    public BigDecimal minFr() {
+        return minFundingRate == null
+                ? BigDecimal.ZERO
+                : minFundingRate;
+    }
+
+    public Duration window() {
+        return Duration.ofMinutes(withinMinutes == null ? 60 : withinMinutes);
+    }
+}
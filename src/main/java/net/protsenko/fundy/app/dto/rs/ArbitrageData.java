@@ -13,6 +13,7 @@ public record ArbitrageData(
         Map<ExchangeType, BigDecimal> fundingRates,
         Map<ExchangeType, Long> nextFundingTs,
         BigDecimal priceSpread,
+        BigDecimal executableSpread,
         BigDecimal fundingSpread,
         Decision decision,
         Map<ExchangeType, String> links
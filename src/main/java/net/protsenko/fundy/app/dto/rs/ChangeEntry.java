@@ -0,0 +1,38 @@
+package net.protsenko.fundy.app.dto.rs;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.math.BigDecimal;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEntry(
+        String symbol,
+        ExchangeType exchange,
+        Kind kind,
+        BigDecimal lastPrice,
+        BigDecimal bid,
+        BigDecimal ask,
+        BigDecimal fundingRate,
+        Long nextFundingTs
+) {
+    public enum Kind {
+        ADDED,
+        UPDATED,
+        REMOVED
+    }
+
+    public static ChangeEntry removed(String symbol, ExchangeType exchange) {
+        return new ChangeEntry(symbol, exchange, Kind.REMOVED, null, null, null, null, null);
+    }
+
+    public ChangeEntry merge(ChangeEntry later) {
+        if (later.kind != Kind.UPDATED || kind == Kind.REMOVED) return later;
+        return new ChangeEntry(symbol, exchange, kind,
+                later.lastPrice != null ? later.lastPrice : lastPrice,
+                later.bid != null ? later.bid : bid,
+                later.ask != null ? later.ask : ask,
+                later.fundingRate != null ? later.fundingRate : fundingRate,
+                later.nextFundingTs != null ? later.nextFundingTs : nextFundingTs);
+    }
+}
@@ -0,0 +1,14 @@
+package net.protsenko.fundy.app.dto.rs;
+
+import java.util.List;
+
+public record ChangesResponse(
+        long since,
+        long version,
+        boolean resync,
+        List<ChangeEntry> changes
+) {
+    public static ChangesResponse resync(long since, long version) {
+        return new ChangesResponse(since, version, true, List.of());
+    }
+}
@@ -0,0 +1,16 @@
+package net.protsenko.fundy.app.dto.rs;
+
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.util.List;
+
+public record FundingHistoryResponse(
+        String symbol,
+        ExchangeType exchange,
+        String resolution,
+        long from,
+        long to,
+        FundingRollup total,
+        List<FundingRollup> buckets
+) {
+}
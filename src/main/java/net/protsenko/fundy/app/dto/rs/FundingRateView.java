@@ -1,7 +1,5 @@
 package net.protsenko.fundy.app.dto.rs;
 
-import net.protsenko.fundy.app.utils.ExchangeLinkResolver;
-
 import java.math.BigDecimal;
 
 public record FundingRateView(
@@ -13,7 +11,7 @@ public record FundingRateView(
         long nextFundingTs,
         String link
 ) {
-    public static FundingRateView of(FundingRateData fr) {
+    public static FundingRateView of(FundingRateData fr, String link) {
         return new FundingRateView(
                 fr.symbol(),
                 fr.instrument().baseAsset(),
@@ -21,7 +19,7 @@ public record FundingRateView(
                 fr.exchange().name(),
                 fr.fundingRate(),
                 fr.nextFundingTs(),
-                ExchangeLinkResolver.link(fr.exchange(), fr.instrument())
+                link
         );
     }
 }
@@ -0,0 +1,16 @@
+package net.protsenko.fundy.app.dto.rs;
+
+import net.protsenko.fundy.app.utils.RollupStore;
+
+public record FundingRollup(
+        long ts,
+        double min,
+        double max,
+        double avg,
+        double sum,
+        long count
+) {
+    public static FundingRollup of(RollupStore.Bucket b) {
+        return new FundingRollup(b.start(), b.min(), b.max(), b.count() == 0 ? 0 : b.sum() / b.count(), b.sum(), b.count());
+    }
+}
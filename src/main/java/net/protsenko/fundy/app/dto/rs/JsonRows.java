@@ -0,0 +1,23 @@
+package net.protsenko.fundy.app.dto.rs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.List;
+
+public record JsonRows(List<byte[]> rows, long contentLength) {
+
+    public static JsonRows of(List<byte[]> rows) {
+        long length = 2L + Math.max(0, rows.size() - 1);
+        for (byte[] r : rows) length += r.length;
+        return new JsonRows(rows, length);
+    }
+
+    public static byte[] encode(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package net.protsenko.fundy.app.exception;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import net.protsenko.fundy.app.dto.rs.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,6 +21,31 @@ public class ApiExceptionHandler {
                 .body(new ErrorResponse("exchange_error", ex.getMessage()));
     }
 
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(OverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(new ErrorResponse("overloaded", ex.getMessage()));
+    }
+
+    @ExceptionHandler(LimitReachedException.class)
+    public ResponseEntity<ErrorResponse> handleLimit(LimitReachedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("limit_reached", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ForbiddenException.class)
+    public ResponseEntity<ErrorResponse> handleForbidden(ForbiddenException ex) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(new ErrorResponse("forbidden", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ExportResumeException.class)
+    public ResponseEntity<ErrorResponse> handleExportResume(ExportResumeException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(new ErrorResponse("resume_rejected", ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleOther(Exception ex) {
         log.error("Unhandled error", ex);
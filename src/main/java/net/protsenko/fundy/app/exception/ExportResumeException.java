@@ -0,0 +1,7 @@
+package net.protsenko.fundy.app.exception;
+
+public class ExportResumeException extends RuntimeException {
+    public ExportResumeException(String message) {
+        super(message);
+    }
+}
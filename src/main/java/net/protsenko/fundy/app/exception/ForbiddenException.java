@@ -0,0 +1,7 @@
+package net.protsenko.fundy.app.exception;
+
+public class ForbiddenException extends RuntimeException {
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
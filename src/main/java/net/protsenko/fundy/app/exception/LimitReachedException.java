@@ -0,0 +1,7 @@
+package net.protsenko.fundy.app.exception;
+
+public class LimitReachedException extends RuntimeException {
+    public LimitReachedException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package net.protsenko.fundy.app.exchange;
 
+import net.protsenko.fundy.app.dto.DepthLevels;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
 import net.protsenko.fundy.app.dto.rs.TickerData;
@@ -15,5 +16,12 @@ public interface ExchangeClient {
 
     ExchangeType getExchangeType();
 
+    default void invalidateFunding(List<InstrumentData> instruments) {
+    }
+
+    default DepthLevels getDepth(InstrumentData instrument, int levels) {
+        return null;
+    }
+
     Boolean isEnabled();
 }
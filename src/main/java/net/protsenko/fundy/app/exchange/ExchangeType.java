@@ -1,5 +1,7 @@
 package net.protsenko.fundy.app.exchange;
 
+import java.util.Collection;
+
 public enum ExchangeType {
     BYBIT,
     MEXC,
@@ -9,5 +11,22 @@ public enum ExchangeType {
     COINEX,
     HTX,
     OKX,
-    BINGX
+    BINGX;
+
+    public static final int ALL_MASK = (1 << values().length) - 1;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean in(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    public static int mask(Collection<ExchangeType> exchanges) {
+        if (exchanges == null || exchanges.isEmpty()) return ALL_MASK;
+        int m = 0;
+        for (ExchangeType ex : exchanges) m |= ex.bit();
+        return m;
+    }
 }
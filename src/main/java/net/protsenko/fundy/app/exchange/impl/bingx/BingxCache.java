@@ -3,19 +3,41 @@ package net.protsenko.fundy.app.exchange.impl.bingx;
 import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
 import net.protsenko.fundy.app.props.BingxConfig;
 import net.protsenko.fundy.app.utils.HttpExecutor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Map;
 
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+
 @Component
 @RequiredArgsConstructor
 public class BingxCache implements ExchangeMappingSupport {
 
+    private static final TickerExtractor TICKERS = TickerExtractor.of(ExchangeType.BINGX)
+            .path("data")
+            .envelope("code", "msg")
+            .field("lastPrice", LAST)
+            .field("bestBid", BID)
+            .field("bidPrice", BID)
+            .field("bestAsk", ASK)
+            .field("askPrice", ASK)
+            .field("high24h", HIGH)
+            .field("highPrice", HIGH)
+            .field("low24h", LOW)
+            .field("lowPrice", LOW)
+            .field("volume24h", VOLUME)
+            .field("volume", VOLUME)
+            .build();
+
     private final HttpExecutor http;
     private final BingxConfig cfg;
 
@@ -28,7 +50,7 @@ public class BingxCache implements ExchangeMappingSupport {
     public List<BingxContractItem> contracts() {
         String url = cfg.getBaseUrl() + "/openApi/swap/v2/quote/contracts";
         BingxResponse<List<BingxContractItem>> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
+                http.get(Endpoint.instruments(ExchangeType.BINGX), url, cfg.getTimeout(), new TypeReference<>() {
                 });
         require(resp != null && resp.code() == 0 && resp.data() != null,
                 () -> "BingX contracts error: " + (resp != null ? resp.msg() : "null"));
@@ -36,24 +58,35 @@ public class BingxCache implements ExchangeMappingSupport {
     }
 
     @Cacheable(cacheNames = "ex-tickers", key = "'BINGX'", sync = true)
-    public Map<String, BingxTickerItem> tickers() {
+    public TickerColumns tickers() {
         String url = cfg.getBaseUrl() + "/openApi/swap/v2/quote/ticker";
-        BingxResponse<List<BingxTickerItem>> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
-                });
-        require(resp != null && resp.code() == 0 && resp.data() != null,
-                () -> "BingX tickers error: " + (resp != null ? resp.msg() : "null"));
-        return indexByCanonical(resp.data(), BingxTickerItem::symbol);
+        TickerColumns cols = http.get(Endpoint.tickers(ExchangeType.BINGX), url, cfg.getTimeout(), TICKERS);
+        require("0".equals(cols.meta("code")), () -> "BingX tickers error: " + cols.meta("msg"));
+        return cols;
     }
 
     @Cacheable(cacheNames = "ex-funding", key = "'BINGX'", sync = true)
     public Map<String, BingxPremiumIndexItem> funding() {
         String url = cfg.getBaseUrl() + "/openApi/swap/v2/quote/premiumIndex";
         BingxResponse<List<BingxPremiumIndexItem>> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
+                http.get(Endpoint.funding(ExchangeType.BINGX), url, cfg.getTimeout(), new TypeReference<>() {
                 });
         require(resp != null && resp.code() == 0 && resp.data() != null,
                 () -> "BingX premiumIndex error: " + (resp != null ? resp.msg() : "null"));
         return indexByCanonical(resp.data(), BingxPremiumIndexItem::symbol);
     }
+
+    public BingxDepth depth(String symbol, int limit) {
+        String url = cfg.getBaseUrl() + "/openApi/swap/v2/quote/depth?symbol=" + symbol + "&limit=" + limit;
+        BingxResponse<BingxDepth> resp =
+                http.get(Endpoint.depth(ExchangeType.BINGX), url, cfg.getTimeout(), new TypeReference<>() {
+                });
+        require(resp != null && resp.code() == 0 && resp.data() != null,
+                () -> "BingX depth error for " + symbol + ": " + (resp != null ? resp.msg() : "null"));
+        return resp.data();
+    }
+
+    @CacheEvict(cacheNames = "ex-funding", key = "'BINGX'")
+    public void evictFunding() {
+    }
 }
@@ -0,0 +1,13 @@
+package net.protsenko.fundy.app.exchange.impl.bingx;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record BingxDepth(
+        List<List<BigDecimal>> bids,
+        List<List<BigDecimal>> asks,
+        @JsonProperty("T") long ts
+) {
+}
@@ -2,6 +2,7 @@ package net.protsenko.fundy.app.exchange.impl.bingx;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.dto.DepthLevels;
 import net.protsenko.fundy.app.dto.InstrumentType;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
@@ -31,9 +32,7 @@ public class BingxExchangeClient implements ExchangeClient, ExchangeMappingSuppo
 
     @Override
     public List<TickerData> getTickers(List<InstrumentData> instruments) {
-        Map<String, BingxTickerItem> byCanonical = cache.tickers();
-        return mapTickersByCanonical(instruments, byCanonical,
-                (inst, t) -> ticker(inst, t.lastPrice(), t.bestBid(), t.bestAsk(), t.high24h(), t.low24h(), t.volume24h()));
+        return mapTickers(instruments, cache.tickers());
     }
 
     @Override
@@ -43,6 +42,17 @@ public class BingxExchangeClient implements ExchangeClient, ExchangeMappingSuppo
                 (inst, f) -> funding(inst, f.lastFundingRate(), f.nextFundingTime()));
     }
 
+    @Override
+    public void invalidateFunding(List<InstrumentData> instruments) {
+        if (!instruments.isEmpty()) cache.evictFunding();
+    }
+
+    @Override
+    public DepthLevels getDepth(InstrumentData instrument, int levels) {
+        BingxDepth book = cache.depth(instrument.nativeSymbol(), depthLimit(levels, 5, 10, 20, 50, 100));
+        return DepthLevels.of(book.bids(), book.asks(), 1);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.BINGX;
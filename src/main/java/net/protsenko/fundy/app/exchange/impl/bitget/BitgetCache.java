@@ -3,9 +3,13 @@ package net.protsenko.fundy.app.exchange.impl.bitget;
 import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
 import net.protsenko.fundy.app.props.BitgetConfig;
 import net.protsenko.fundy.app.utils.HttpExecutor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
@@ -13,10 +17,24 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+
 @Component
 @RequiredArgsConstructor
 public class BitgetCache implements ExchangeMappingSupport {
 
+    private static final TickerExtractor TICKERS = TickerExtractor.of(ExchangeType.BITGET)
+            .path("data")
+            .envelope("code", "msg")
+            .field("last", LAST)
+            .field("bestBid", BID)
+            .field("bestAsk", ASK)
+            .field("high24h", HIGH)
+            .field("low24h", LOW)
+            .field("baseVolume", VOLUME)
+            .field("fundingRate", FUNDING_RATE)
+            .build();
+
     private final HttpExecutor http;
     private final BitgetConfig cfg;
 
@@ -28,7 +46,7 @@ public class BitgetCache implements ExchangeMappingSupport {
     @Cacheable(cacheNames = "ex-instruments", key = "'BITGET'", sync = true)
     public List<BitgetContractItem> contracts() {
         String url = cfg.getBaseUrl() + "/api/mix/v1/market/contracts?productType=" + cfg.getProductType();
-        BitgetResponse<List<BitgetContractItem>> resp = http.get(url, cfg.getTimeout(), new TypeReference<>() {
+        BitgetResponse<List<BitgetContractItem>> resp = http.get(Endpoint.instruments(ExchangeType.BITGET), url, cfg.getTimeout(), new TypeReference<>() {
         });
         require(resp != null && "00000".equals(resp.code()) && resp.data() != null,
                 () -> "Bitget instruments error: " + (resp != null ? resp.msg() : "null response"));
@@ -36,13 +54,11 @@ public class BitgetCache implements ExchangeMappingSupport {
     }
 
     @Cacheable(cacheNames = "ex-tickers", key = "'BITGET'", sync = true)
-    public Map<String, BitgetTickerItem> tickers() {
+    public TickerColumns tickers() {
         String url = cfg.getBaseUrl() + "/api/mix/v1/market/tickers?productType=" + cfg.getProductType();
-        BitgetResponse<List<BitgetTickerItem>> resp = http.get(url, cfg.getTimeout(), new TypeReference<>() {
-        });
-        require(resp != null && "00000".equals(resp.code()) && resp.data() != null,
-                () -> "Bitget tickers error: " + (resp != null ? resp.msg() : "null response"));
-        return indexByCanonical(resp.data(), BitgetTickerItem::symbol);
+        TickerColumns cols = http.get(Endpoint.tickers(ExchangeType.BITGET), url, cfg.getTimeout(), TICKERS);
+        require("00000".equals(cols.meta("code")), () -> "Bitget tickers error: " + cols.meta("msg"));
+        return cols;
     }
 
     @Cacheable(cacheNames = "ex-funding-meta", key = "'BITGET'", sync = true)
@@ -50,13 +66,22 @@ public class BitgetCache implements ExchangeMappingSupport {
         String v2Type = mapToV2ProductType(cfg.getProductType());
         String url = cfg.getBaseUrl() + "/api/v2/mix/market/current-fund-rate?productType=" + v2Type;
         BitgetResponse<List<BitgetFundingMeta>> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
+                http.get(Endpoint.funding(ExchangeType.BITGET), url, cfg.getTimeout(), new TypeReference<>() {
                 });
         require(resp != null && "00000".equals(resp.code()) && resp.data() != null,
                 () -> "Bitget current-fund-rate error: " + (resp != null ? resp.msg() : "null response"));
         return indexByCanonical(resp.data(), BitgetFundingMeta::symbol);
     }
 
+    public BitgetDepth depth(String symbol, int limit) {
+        String url = cfg.getBaseUrl() + "/api/mix/v1/market/depth?symbol=" + symbol + "&limit=" + limit;
+        BitgetResponse<BitgetDepth> resp = http.get(Endpoint.depth(ExchangeType.BITGET), url, cfg.getTimeout(), new TypeReference<>() {
+        });
+        require(resp != null && "00000".equals(resp.code()) && resp.data() != null,
+                () -> "Bitget depth error for " + symbol + ": " + (resp != null ? resp.msg() : "null response"));
+        return resp.data();
+    }
+
     private String mapToV2ProductType(String v1) {
         String t = v1 == null ? "" : v1.toLowerCase(Locale.ROOT).trim();
         return switch (t) {
@@ -66,4 +91,8 @@ public class BitgetCache implements ExchangeMappingSupport {
             default -> "usdt-futures";
         };
     }
+
+    @CacheEvict(cacheNames = "ex-funding-meta", key = "'BITGET'")
+    public void evictFunding() {
+    }
 }
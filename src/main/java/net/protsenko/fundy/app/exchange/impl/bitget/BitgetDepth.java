@@ -0,0 +1,11 @@
+package net.protsenko.fundy.app.exchange.impl.bitget;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record BitgetDepth(
+        List<List<BigDecimal>> asks,
+        List<List<BigDecimal>> bids,
+        String timestamp
+) {
+}
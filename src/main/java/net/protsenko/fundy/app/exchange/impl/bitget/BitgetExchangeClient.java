@@ -2,6 +2,7 @@ package net.protsenko.fundy.app.exchange.impl.bitget;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.dto.DepthLevels;
 import net.protsenko.fundy.app.dto.InstrumentType;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
@@ -9,6 +10,7 @@ import net.protsenko.fundy.app.dto.rs.TickerData;
 import net.protsenko.fundy.app.exchange.ExchangeClient;
 import net.protsenko.fundy.app.exchange.ExchangeType;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -33,19 +35,15 @@ public class BitgetExchangeClient implements ExchangeClient, ExchangeMappingSupp
 
     @Override
     public List<TickerData> getTickers(List<InstrumentData> instruments) {
-        Map<String, BitgetTickerItem> byCanonical = cache.tickers();
-        return mapTickersByCanonical(instruments, byCanonical,
-                (inst, t) -> ticker(inst, t.last(), t.bestBid(), t.bestAsk(), t.high24h(), t.low24h(), t.baseVolume()));
+        return mapTickers(instruments, cache.tickers());
     }
 
     @Override
     public List<FundingRateData> getFundingRates(List<InstrumentData> instruments) {
-        Map<String, BitgetTickerItem> byCanonical = cache.tickers();
+        TickerColumns cols = cache.tickers();
         Map<String, BitgetFundingMeta> metaByCanonical = cache.fundingMeta();
-        return mapFundingByCanonical(instruments, byCanonical, (inst, t) -> {
-            long next = resolveNextFundingTs(inst, metaByCanonical);
-            return funding(inst, t.fundingRate(), next);
-        });
+        return mapRows(instruments, cols, (inst, row) ->
+                funding(inst, cols.decimal(row, TickerColumns.Field.FUNDING_RATE), resolveNextFundingTs(inst, metaByCanonical)));
     }
 
     private long resolveNextFundingTs(InstrumentData inst, Map<String, BitgetFundingMeta> metaByCanonical) {
@@ -66,6 +64,17 @@ public class BitgetExchangeClient implements ExchangeClient, ExchangeMappingSupp
         return nextFundingAlignedHours(interval);
     }
 
+    @Override
+    public void invalidateFunding(List<InstrumentData> instruments) {
+        if (!instruments.isEmpty()) cache.evictFunding();
+    }
+
+    @Override
+    public DepthLevels getDepth(InstrumentData instrument, int levels) {
+        BitgetDepth book = cache.depth(instrument.nativeSymbol(), depthLimit(levels, 5, 15, 50, 100));
+        return DepthLevels.of(book.bids(), book.asks(), 1);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.BITGET;
@@ -2,19 +2,36 @@ package net.protsenko.fundy.app.exchange.impl.bybit;
 
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
 import net.protsenko.fundy.app.props.BybitConfig;
 import net.protsenko.fundy.app.utils.HttpExecutor;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Map;
+
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
 
 @Component
 @RequiredArgsConstructor
 public class BybitCache implements ExchangeMappingSupport {
 
+    private static final TickerExtractor TICKERS = TickerExtractor.of(ExchangeType.BYBIT)
+            .path("result", "list")
+            .envelope("retCode", "retMsg")
+            .field("lastPrice", LAST)
+            .field("bid1Price", BID)
+            .field("ask1Price", ASK)
+            .field("highPrice24h", HIGH)
+            .field("lowPrice24h", LOW)
+            .field("volume24h", VOLUME)
+            .field("fundingRate", FUNDING_RATE)
+            .field("nextFundingTime", NEXT_FUNDING)
+            .build();
+
     private final HttpExecutor http;
     private final BybitConfig cfg;
 
@@ -26,18 +43,26 @@ public class BybitCache implements ExchangeMappingSupport {
     @Cacheable(cacheNames = "ex-instruments", key = "'BYBIT'", sync = true)
     public List<BybitInstrumentItem> instruments() {
         String url = cfg.getBaseUrl() + "/v5/market/instruments-info?category=linear";
-        BybitInstrumentsResponse resp = http.get(url, cfg.getTimeout(), BybitInstrumentsResponse.class);
+        BybitInstrumentsResponse resp = http.get(Endpoint.instruments(ExchangeType.BYBIT), url, cfg.getTimeout(), BybitInstrumentsResponse.class);
         require(resp != null && resp.retCode() == 0 && resp.result() != null,
                 () -> "Bybit instruments error: " + (resp != null ? resp.retMsg() : "null response"));
         return resp.result().list();
     }
 
     @Cacheable(cacheNames = "ex-tickers", key = "'BYBIT'", sync = true)
-    public Map<String, BybitTickerItem> tickers() {
+    public TickerColumns tickers() {
         String url = cfg.getBaseUrl() + "/v5/market/tickers?category=linear";
-        BybitTickerResponse resp = http.get(url, cfg.getTimeout(), BybitTickerResponse.class);
+        TickerColumns cols = http.get(Endpoint.tickers(ExchangeType.BYBIT), url, cfg.getTimeout(), TICKERS);
+        require("0".equals(cols.meta("retCode")),
+                () -> "Bybit tickers error: " + cols.meta("retMsg"));
+        return cols;
+    }
+
+    public BybitOrderBookResponse.Result orderBook(String symbol, int limit) {
+        String url = cfg.getBaseUrl() + "/v5/market/orderbook?category=linear&symbol=" + symbol + "&limit=" + limit;
+        BybitOrderBookResponse resp = http.get(Endpoint.depth(ExchangeType.BYBIT), url, cfg.getTimeout(), BybitOrderBookResponse.class);
         require(resp != null && resp.retCode() == 0 && resp.result() != null,
-                () -> "Bybit tickers error: " + (resp != null ? resp.retMsg() : "null response"));
-        return indexByCanonical(resp.result().list(), BybitTickerItem::symbol);
+                () -> "Bybit orderbook error for " + symbol + ": " + (resp != null ? resp.retMsg() : "null response"));
+        return resp.result();
     }
 }
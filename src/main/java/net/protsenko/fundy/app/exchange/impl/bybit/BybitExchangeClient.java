@@ -2,27 +2,33 @@ package net.protsenko.fundy.app.exchange.impl.bybit;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.dto.DepthLevels;
 import net.protsenko.fundy.app.dto.InstrumentType;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
 import net.protsenko.fundy.app.dto.rs.TickerData;
-import net.protsenko.fundy.app.exchange.ExchangeClient;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.stream.StreamMapper;
+import net.protsenko.fundy.app.exchange.stream.StreamTables;
+import net.protsenko.fundy.app.exchange.stream.StreamingExchangeClient;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Map;
 
-import static net.protsenko.fundy.app.utils.ExchangeUtils.toLong;
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.FUNDING_RATE;
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.NEXT_FUNDING;
 
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class BybitExchangeClient implements ExchangeClient, ExchangeMappingSupport {
+public class BybitExchangeClient implements StreamingExchangeClient, ExchangeMappingSupport {
 
     private final BybitCache cache;
+    private final BybitStreamMapper streamMapper;
+    private final StreamTables streams;
 
     @Override
     public List<InstrumentData> getInstruments() {
@@ -34,17 +40,36 @@ public class BybitExchangeClient implements ExchangeClient, ExchangeMappingSuppo
 
     @Override
     public List<TickerData> getTickers(List<InstrumentData> instruments) {
-        Map<String, BybitTickerItem> byCanonical = cache.tickers();
-        return mapTickersByCanonical(instruments, byCanonical,
-                (inst, t) -> ticker(inst, t.lastPrice(), t.bid1Price(), t.ask1Price(),
-                        t.highPrice24h(), t.lowPrice24h(), t.volume24h()));
+        if (streams.live(ExchangeType.BYBIT)) return mapTickers(instruments, streams.table(ExchangeType.BYBIT));
+        return mapTickers(instruments, cache.tickers());
     }
 
     @Override
     public List<FundingRateData> getFundingRates(List<InstrumentData> instruments) {
-        Map<String, BybitTickerItem> byCanonical = cache.tickers();
-        return mapFundingByCanonical(instruments, byCanonical,
-                (inst, t) -> funding(inst, t.fundingRate(), toLong(t.nextFundingTime())));
+        if (streams.live(ExchangeType.BYBIT)) {
+            return mapRows(instruments, streams.table(ExchangeType.BYBIT),
+                    (inst, row) -> funding(inst, row.decimal(FUNDING_RATE), row.longValue(NEXT_FUNDING)));
+        }
+        TickerColumns cols = cache.tickers();
+        return mapRows(instruments, cols,
+                (inst, row) -> funding(inst, cols.decimal(row, FUNDING_RATE), cols.longValue(row, NEXT_FUNDING)));
+    }
+
+    @Override
+    public DepthLevels getDepth(InstrumentData instrument, int levels) {
+        BybitOrderBookResponse.Result book =
+                cache.orderBook(ensureSymbol(instrument, instrument.baseAsset() + instrument.quoteAsset()), levels);
+        return DepthLevels.of(book.b(), book.a(), 1);
+    }
+
+    @Override
+    public StreamMapper streamMapper() {
+        return streamMapper;
+    }
+
+    @Override
+    public TickerColumns streamSnapshot() {
+        return cache.tickers();
     }
 
     @Override
@@ -0,0 +1,18 @@
+package net.protsenko.fundy.app.exchange.impl.bybit;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record BybitOrderBookResponse(
+        int retCode,
+        String retMsg,
+        Result result
+) {
+    public record Result(
+            String s,
+            List<List<BigDecimal>> b,
+            List<List<BigDecimal>> a,
+            long ts
+    ) {
+    }
+}
@@ -0,0 +1,114 @@
+package net.protsenko.fundy.app.exchange.impl.bybit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.exchange.stream.StreamMapper;
+import net.protsenko.fundy.app.exchange.stream.StreamSink;
+import net.protsenko.fundy.app.exchange.stream.TickerUpdate;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.props.BybitConfig;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.*;
+
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BybitStreamMapper implements StreamMapper {
+
+    private static final int ARGS_PER_FRAME = 10;
+    private static final String TOPIC = "tickers.";
+    private static final Map<String, TickerColumns.Field> FIELDS = Map.of(
+            "lastPrice", LAST,
+            "bid1Price", BID,
+            "ask1Price", ASK,
+            "highPrice24h", HIGH,
+            "lowPrice24h", LOW,
+            "volume24h", VOLUME,
+            "fundingRate", FUNDING_RATE,
+            "nextFundingTime", NEXT_FUNDING);
+
+    private final BybitConfig cfg;
+    private final ObjectMapper mapper;
+
+    @Override
+    public URI uri() {
+        return URI.create(cfg.getStreamUrl());
+    }
+
+    @Override
+    public List<String> subscribe(Collection<String> nativeSymbols) {
+        return frames("subscribe", nativeSymbols);
+    }
+
+    @Override
+    public List<String> unsubscribe(Collection<String> nativeSymbols) {
+        return frames("unsubscribe", nativeSymbols);
+    }
+
+    @Override
+    public String ping() {
+        return "{\"op\":\"ping\"}";
+    }
+
+    @Override
+    public void decode(String message, StreamSink sink) {
+        JsonNode root;
+        try {
+            root = mapper.readTree(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Bybit stream: malformed message", e);
+        }
+        String topic = root.path("topic").asText("");
+        if (!topic.startsWith(TOPIC)) {
+            if (root.has("success") && !root.path("success").asBoolean()) {
+                log.warn("Bybit stream {} rejected: {}", root.path("op").asText(), root.path("ret_msg").asText());
+            }
+            return;
+        }
+        JsonNode data = root.path("data");
+        Map<TickerColumns.Field, BigDecimal> values = new EnumMap<>(TickerColumns.Field.class);
+        for (Map.Entry<String, JsonNode> e : data.properties()) {
+            TickerColumns.Field f = FIELDS.get(e.getKey());
+            String v = e.getValue().asText("");
+            if (f == null || v.isBlank()) continue;
+            try {
+                values.put(f, new BigDecimal(v));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        sink.ticker(new TickerUpdate(
+                topic.substring(TOPIC.length()),
+                root.path("cs").asLong(0),
+                "snapshot".equals(root.path("type").asText()),
+                values));
+    }
+
+    private List<String> frames(String op, Collection<String> nativeSymbols) {
+        List<String> out = new ArrayList<>();
+        List<String> args = new ArrayList<>(ARGS_PER_FRAME);
+        for (String symbol : nativeSymbols) {
+            args.add(TOPIC + symbol);
+            if (args.size() == ARGS_PER_FRAME) {
+                out.add(frame(op, args));
+                args.clear();
+            }
+        }
+        if (!args.isEmpty()) out.add(frame(op, args));
+        return out;
+    }
+
+    private String frame(String op, List<String> args) {
+        return mapper.createObjectNode()
+                .put("op", op)
+                .set("args", mapper.valueToTree(args))
+                .toString();
+    }
+}
@@ -3,19 +3,39 @@ package net.protsenko.fundy.app.exchange.impl.coinex;
 import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
 import net.protsenko.fundy.app.props.CoinexConfig;
 import net.protsenko.fundy.app.utils.HttpExecutor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Map;
 
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+
 @Component
 @RequiredArgsConstructor
 public class CoinexCache implements ExchangeMappingSupport {
 
+    private static final TickerExtractor TICKERS = TickerExtractor.of(ExchangeType.COINEX)
+            .path("data", "ticker")
+            .keyedBySymbol()
+            .envelope("code", "message")
+            .field("last", LAST)
+            .field("buy", BID)
+            .field("sell", ASK)
+            .field("high", HIGH)
+            .field("low", LOW)
+            .field("vol", VOLUME)
+            .field("funding_rate_last", FUNDING_RATE)
+            .field("funding_time", NEXT_FUNDING)
+            .build();
+
     private final HttpExecutor http;
     private final CoinexConfig cfg;
 
@@ -28,7 +48,7 @@ public class CoinexCache implements ExchangeMappingSupport {
     public List<CoinexContractItem> contracts() {
         String url = cfg.getBaseUrl() + "/perpetual/v1/market/list";
         CoinexResponse<List<CoinexContractItem>> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
+                http.get(Endpoint.instruments(ExchangeType.COINEX), url, cfg.getTimeout(), new TypeReference<>() {
                 });
         require(resp != null && resp.code() == 0 && resp.data() != null,
                 () -> "CoinEx instruments error: " + (resp != null ? resp.message() : "null"));
@@ -36,24 +56,35 @@ public class CoinexCache implements ExchangeMappingSupport {
     }
 
     @Cacheable(cacheNames = "ex-tickers", key = "'COINEX'", sync = true)
-    public Map<String, Map.Entry<String, CoinexTickerItem>> allTickers() {
+    public TickerColumns allTickers() {
         String url = cfg.getBaseUrl() + "/perpetual/v1/market/ticker/all";
-        CoinexResponse<CoinexTickerAllData> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
-                });
-        require(resp != null && resp.code() == 0 && resp.data() != null && resp.data().ticker() != null,
-                () -> "CoinEx ticker/all error: " + (resp != null ? resp.message() : "null"));
-        return indexByCanonical(resp.data().ticker().entrySet().stream().toList(), Map.Entry::getKey);
+        TickerColumns cols = http.get(Endpoint.tickers(ExchangeType.COINEX), url, cfg.getTimeout(), TICKERS);
+        require("0".equals(cols.meta("code")), () -> "CoinEx ticker/all error: " + cols.meta("message"));
+        return cols;
     }
 
     @Cacheable(cacheNames = "ex-funding-meta", key = "'COINEX'", sync = true)
     public Map<String, CoinexFundingMeta> fundingMeta() {
         String url = cfg.getBaseUrl() + "/v2/futures/funding-rate";
         CoinexResponse<List<CoinexFundingMeta>> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
+                http.get(Endpoint.funding(ExchangeType.COINEX), url, cfg.getTimeout(), new TypeReference<>() {
                 });
         require(resp != null && resp.code() == 0 && resp.data() != null,
                 () -> "CoinEx funding-rate error: " + (resp != null ? resp.message() : "null"));
         return indexByCanonical(resp.data(), CoinexFundingMeta::market);
     }
-}
\ No newline at end of file
+
+    public CoinexDepth depth(String market, int limit) {
+        String url = cfg.getBaseUrl() + "/v2/futures/depth?market=" + market + "&limit=" + limit + "&interval=0";
+        CoinexResponse<CoinexDepth> resp =
+                http.get(Endpoint.depth(ExchangeType.COINEX), url, cfg.getTimeout(), new TypeReference<>() {
+                });
+        require(resp != null && resp.code() == 0 && resp.data() != null && resp.data().depth() != null,
+                () -> "CoinEx depth error for " + market + ": " + (resp != null ? resp.message() : "null"));
+        return resp.data();
+    }
+
+    @CacheEvict(cacheNames = "ex-funding-meta", key = "'COINEX'")
+    public void evictFunding() {
+    }
+}
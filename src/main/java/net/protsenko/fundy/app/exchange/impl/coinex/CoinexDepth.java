@@ -0,0 +1,23 @@
+package net.protsenko.fundy.app.exchange.impl.coinex;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CoinexDepth(
+        String market,
+        Book depth
+) {
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Book(
+            List<List<BigDecimal>> asks,
+            List<List<BigDecimal>> bids,
+            long updatedAt
+    ) {
+    }
+}
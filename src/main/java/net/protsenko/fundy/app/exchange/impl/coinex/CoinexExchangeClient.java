@@ -2,6 +2,7 @@ package net.protsenko.fundy.app.exchange.impl.coinex;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.dto.DepthLevels;
 import net.protsenko.fundy.app.dto.InstrumentType;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
@@ -9,6 +10,7 @@ import net.protsenko.fundy.app.dto.rs.TickerData;
 import net.protsenko.fundy.app.exchange.ExchangeClient;
 import net.protsenko.fundy.app.exchange.ExchangeType;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -34,30 +36,24 @@ public class CoinexExchangeClient implements ExchangeClient, ExchangeMappingSupp
 
     @Override
     public List<TickerData> getTickers(List<InstrumentData> instruments) {
-        Map<String, Map.Entry<String, CoinexTickerItem>> byCanonical = cache.allTickers();
-        return mapTickersByCanonical(instruments, byCanonical,
-                (inst, e) -> {
-                    var t = e.getValue();
-                    return ticker(inst, t.last(), t.buy(), t.sell(), t.high(), t.low(), t.vol());
-                });
+        return mapTickers(instruments, cache.allTickers());
     }
 
     @Override
     public List<FundingRateData> getFundingRates(List<InstrumentData> instruments) {
-        Map<String, Map.Entry<String, CoinexTickerItem>> byCanonical = cache.allTickers();
+        TickerColumns cols = cache.allTickers();
         Map<String, CoinexFundingMeta> metaByCanonical = cache.fundingMeta();
-        return mapFundingByCanonical(instruments, byCanonical, (inst, e) -> {
-            var t = e.getValue();
-            long next = resolveNextFundingTs(inst, t, metaByCanonical);
-            return funding(inst, t.fundingRateLast(), next);
+        return mapRows(instruments, cols, (inst, row) -> {
+            long next = resolveNextFundingTs(inst, cols.longValue(row, TickerColumns.Field.NEXT_FUNDING), metaByCanonical);
+            return funding(inst, cols.decimal(row, TickerColumns.Field.FUNDING_RATE), next);
         });
     }
 
     private long resolveNextFundingTs(InstrumentData inst,
-                                      CoinexTickerItem t,
+                                      long fundingTimeMinutes,
                                       Map<String, CoinexFundingMeta> metaByCanonical) {
         long now = System.currentTimeMillis();
-        long fromTicker = calcNextFundingMs(t.fundingTime());
+        long fromTicker = calcNextFundingMs(fundingTimeMinutes);
         String key = canonicalKey(inst);
         CoinexFundingMeta meta = metaByCanonical.get(key);
         long fromMeta = (meta != null ? meta.nextFundingTime() : 0L);
@@ -94,6 +90,17 @@ public class CoinexExchangeClient implements ExchangeClient, ExchangeMappingSupp
         return ts;
     }
 
+    @Override
+    public void invalidateFunding(List<InstrumentData> instruments) {
+        if (!instruments.isEmpty()) cache.evictFunding();
+    }
+
+    @Override
+    public DepthLevels getDepth(InstrumentData instrument, int levels) {
+        CoinexDepth.Book book = cache.depth(instrument.nativeSymbol(), depthLimit(levels, 5, 10, 20, 50)).depth();
+        return DepthLevels.of(book.bids(), book.asks(), 1);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.COINEX;
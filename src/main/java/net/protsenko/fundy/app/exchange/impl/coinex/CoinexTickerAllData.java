@@ -1,15 +0,0 @@
-package net.protsenko.fundy.app.exchange.impl.coinex;
-
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.databind.PropertyNamingStrategies;
-import com.fasterxml.jackson.databind.annotation.JsonNaming;
-
-import java.util.Map;
-
-@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
-@JsonIgnoreProperties(ignoreUnknown = true)
-public record CoinexTickerAllData(
-        long date,
-        Map<String, CoinexTickerItem> ticker
-) {
-}
@@ -3,19 +3,38 @@ package net.protsenko.fundy.app.exchange.impl.gateio;
 import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
 import net.protsenko.fundy.app.props.GateioConfig;
 import net.protsenko.fundy.app.utils.HttpExecutor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Map;
 
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+
 @Component
 @RequiredArgsConstructor
 public class GateioCache implements ExchangeMappingSupport {
 
+    private static final TickerExtractor TICKERS = TickerExtractor.of(ExchangeType.GATEIO)
+            .symbol("contract")
+            .field("last", LAST)
+            .field("highest_bid", BID)
+            .field("lowest_ask", ASK)
+            .field("high_24h", HIGH)
+            .field("high24h", HIGH)
+            .field("low_24h", LOW)
+            .field("low24h", LOW)
+            .field("volume_24h", VOLUME)
+            .field("volume24h", VOLUME)
+            .build();
+
     private final HttpExecutor http;
     private final GateioConfig cfg;
 
@@ -27,18 +46,26 @@ public class GateioCache implements ExchangeMappingSupport {
     @Cacheable(cacheNames = "ex-instruments", key = "'GATEIO'", sync = true)
     public Map<String, GateioContractItem> contracts() {
         String url = cfg.getBaseUrl() + "/api/v4/futures/" + cfg.getSettle() + "/contracts";
-        List<GateioContractItem> resp = http.get(url, cfg.getTimeout(), new TypeReference<>() {
+        List<GateioContractItem> resp = http.get(Endpoint.instruments(ExchangeType.GATEIO), url, cfg.getTimeout(), new TypeReference<>() {
         });
         require(resp != null, () -> "GateIO contracts: null response");
         return indexByCanonical(resp, GateioContractItem::name);
     }
 
     @Cacheable(cacheNames = "ex-tickers", key = "'GATEIO'", sync = true)
-    public Map<String, GateioTickerItem> tickers() {
+    public TickerColumns tickers() {
         String url = cfg.getBaseUrl() + "/api/v4/futures/" + cfg.getSettle() + "/tickers";
-        List<GateioTickerItem> resp = http.get(url, cfg.getTimeout(), new TypeReference<>() {
-        });
-        require(resp != null, () -> "GateIO tickers: null response");
-        return indexByCanonical(resp, GateioTickerItem::contract);
+        return http.get(Endpoint.tickers(ExchangeType.GATEIO), url, cfg.getTimeout(), TICKERS);
+    }
+
+    public GateioOrderBook orderBook(String contract, int limit) {
+        String url = cfg.getBaseUrl() + "/api/v4/futures/" + cfg.getSettle() + "/order_book?contract=" + contract + "&limit=" + limit;
+        GateioOrderBook resp = http.get(Endpoint.depth(ExchangeType.GATEIO), url, cfg.getTimeout(), GateioOrderBook.class);
+        require(resp != null, () -> "GateIO order_book: null response for " + contract);
+        return resp;
+    }
+
+    @CacheEvict(cacheNames = "ex-instruments", key = "'GATEIO'")
+    public void evictFunding() {
     }
-}
\ No newline at end of file
+}
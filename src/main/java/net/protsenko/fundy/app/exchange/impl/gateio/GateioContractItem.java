@@ -16,6 +16,7 @@ public record GateioContractItem(
         long fundingNextApply,
         int fundingInterval,
         String markPrice,
-        String lastPrice
+        String lastPrice,
+        String quantoMultiplier
 ) {
 }
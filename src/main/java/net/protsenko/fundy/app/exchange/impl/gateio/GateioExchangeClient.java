@@ -3,6 +3,7 @@ package net.protsenko.fundy.app.exchange.impl.gateio;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.dto.DepthLevels;
 import net.protsenko.fundy.app.dto.InstrumentType;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
@@ -10,11 +11,15 @@ import net.protsenko.fundy.app.dto.rs.TickerData;
 import net.protsenko.fundy.app.exchange.ExchangeClient;
 import net.protsenko.fundy.app.exchange.ExchangeType;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.utils.SymbolNormalizer;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
+import static net.protsenko.fundy.app.utils.ExchangeUtils.toBigDecimal;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -38,10 +43,7 @@ public class GateioExchangeClient implements ExchangeClient, ExchangeMappingSupp
 
     @Override
     public List<TickerData> getTickers(List<InstrumentData> instruments) {
-        Map<String, GateioTickerItem> byCanonical = cache.tickers();
-        return mapTickersByCanonical(instruments, byCanonical,
-                (inst, t) -> ticker(inst, t.last(), t.highestBid(), t.lowestAsk(),
-                        t.high24h(), t.low24h(), t.volume24h()));
+        return mapTickers(instruments, cache.tickers());
     }
 
     @Override
@@ -51,6 +53,22 @@ public class GateioExchangeClient implements ExchangeClient, ExchangeMappingSupp
                 (inst, c) -> funding(inst, c.fundingRate(), c.fundingNextApply() * 1000L));
     }
 
+    @Override
+    public void invalidateFunding(List<InstrumentData> instruments) {
+        if (!instruments.isEmpty()) cache.evictFunding();
+    }
+
+    @Override
+    public DepthLevels getDepth(InstrumentData instrument, int levels) {
+        GateioOrderBook book = cache.orderBook(instrument.nativeSymbol(), Math.min(levels, 100));
+        GateioContractItem contract = cache.contracts().get(SymbolNormalizer.canonicalKey(instrument));
+        BigDecimal multiplier = contract == null ? null : toBigDecimal(contract.quantoMultiplier());
+        return DepthLevels.of(
+                book.bids().stream().map(GateioOrderBook.Level::row).toList(),
+                book.asks().stream().map(GateioOrderBook.Level::row).toList(),
+                multiplier == null || multiplier.signum() <= 0 ? 1 : multiplier.doubleValue());
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.GATEIO;
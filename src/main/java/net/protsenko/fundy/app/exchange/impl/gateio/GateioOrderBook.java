@@ -0,0 +1,22 @@
+package net.protsenko.fundy.app.exchange.impl.gateio;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record GateioOrderBook(
+        double current,
+        List<Level> asks,
+        List<Level> bids
+) {
+    public record Level(
+            BigDecimal p,
+            BigDecimal s
+    ) {
+        public List<BigDecimal> row() {
+            return List.of(p, s);
+        }
+    }
+}
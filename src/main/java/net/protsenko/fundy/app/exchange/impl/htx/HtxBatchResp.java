@@ -1,32 +0,0 @@
-package net.protsenko.fundy.app.exchange.impl.htx;
-
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.databind.PropertyNamingStrategies;
-import com.fasterxml.jackson.databind.annotation.JsonNaming;
-
-import java.util.List;
-
-@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
-@JsonIgnoreProperties(ignoreUnknown = true)
-public record HtxBatchResp(
-        String status,
-        List<Tick> ticks
-) {
-
-    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    public record Tick(
-            String contract_code,
-            String close,
-            String high,
-            String low,
-            String vol,
-            double[] ask,
-            double[] bid
-    ) {
-
-        public String contractCode() {
-            return contract_code;
-        }
-    }
-}
@@ -3,19 +3,37 @@ package net.protsenko.fundy.app.exchange.impl.htx;
 import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
 import net.protsenko.fundy.app.props.HtxConfig;
 import net.protsenko.fundy.app.utils.HttpExecutor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Map;
 
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+
 @Component
 @RequiredArgsConstructor
 public class HtxCache implements ExchangeMappingSupport {
 
+    private static final TickerExtractor TICKERS = TickerExtractor.of(ExchangeType.HTX)
+            .path("ticks")
+            .envelope("status")
+            .symbol("contract_code")
+            .field("close", LAST)
+            .firstOf("bid", BID)
+            .firstOf("ask", ASK)
+            .field("high", HIGH)
+            .field("low", LOW)
+            .field("vol", VOLUME)
+            .build();
+
     private final HttpExecutor http;
     private final HtxConfig cfg;
 
@@ -28,7 +46,7 @@ public class HtxCache implements ExchangeMappingSupport {
     public List<HtxContractItem> contracts() {
         String url = cfg.getBaseUrl() + "/linear-swap-api/v1/swap_contract_info";
         HtxResp<List<HtxContractItem>> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
+                http.get(Endpoint.instruments(ExchangeType.HTX), url, cfg.getTimeout(), new TypeReference<>() {
                 });
         require(resp != null && "ok".equalsIgnoreCase(resp.status()) && resp.data() != null,
                 () -> "HTX instruments error: " + (resp != null ? resp.status() : "null"));
@@ -36,22 +54,33 @@ public class HtxCache implements ExchangeMappingSupport {
     }
 
     @Cacheable(cacheNames = "ex-tickers", key = "'HTX'", sync = true)
-    public Map<String, HtxBatchResp.Tick> tickers() {
+    public TickerColumns tickers() {
         String url = cfg.getBaseUrl() + "/linear-swap-ex/market/detail/batch_merged";
-        HtxBatchResp resp = http.get(url, cfg.getTimeout(), HtxBatchResp.class);
-        require(resp != null && "ok".equalsIgnoreCase(resp.status()) && resp.ticks() != null,
-                () -> "HTX batch tickers error: " + (resp != null ? resp.status() : "null"));
-        return indexByCanonical(resp.ticks(), HtxBatchResp.Tick::contractCode);
+        TickerColumns cols = http.get(Endpoint.tickers(ExchangeType.HTX), url, cfg.getTimeout(), TICKERS);
+        require("ok".equalsIgnoreCase(cols.meta("status")), () -> "HTX batch tickers error: " + cols.meta("status"));
+        return cols;
     }
 
     @Cacheable(cacheNames = "ex-funding", key = "'HTX'", sync = true)
     public Map<String, HtxFundingItem> funding() {
         String url = cfg.getBaseUrl() + "/linear-swap-api/v1/swap_batch_funding_rate";
         HtxResp<List<HtxFundingItem>> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
+                http.get(Endpoint.funding(ExchangeType.HTX), url, cfg.getTimeout(), new TypeReference<>() {
                 });
         require(resp != null && "ok".equalsIgnoreCase(resp.status()) && resp.data() != null,
                 () -> "HTX batch funding error: " + (resp != null ? resp.status() : "null"));
         return indexByCanonical(resp.data(), HtxFundingItem::contractCode);
     }
-}
\ No newline at end of file
+
+    public HtxDepthResp.Tick depth(String contractCode) {
+        String url = cfg.getBaseUrl() + "/linear-swap-ex/market/depth?contract_code=" + contractCode + "&type=step0";
+        HtxDepthResp resp = http.get(Endpoint.depth(ExchangeType.HTX), url, cfg.getTimeout(), HtxDepthResp.class);
+        require(resp != null && "ok".equalsIgnoreCase(resp.status()) && resp.tick() != null,
+                () -> "HTX depth error for " + contractCode + ": " + (resp != null ? resp.status() : "null"));
+        return resp.tick();
+    }
+
+    @CacheEvict(cacheNames = "ex-funding", key = "'HTX'")
+    public void evictFunding() {
+    }
+}
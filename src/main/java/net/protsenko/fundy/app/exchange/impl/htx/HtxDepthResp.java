@@ -0,0 +1,20 @@
+package net.protsenko.fundy.app.exchange.impl.htx;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record HtxDepthResp(
+        String status,
+        Tick tick
+) {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Tick(
+            List<List<BigDecimal>> asks,
+            List<List<BigDecimal>> bids,
+            long ts
+    ) {
+    }
+}
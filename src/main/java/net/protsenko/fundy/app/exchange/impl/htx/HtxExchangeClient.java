@@ -2,6 +2,7 @@ package net.protsenko.fundy.app.exchange.impl.htx;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.dto.DepthLevels;
 import net.protsenko.fundy.app.dto.InstrumentType;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
@@ -40,10 +41,7 @@ public class HtxExchangeClient implements ExchangeClient, ExchangeMappingSupport
 
     @Override
     public List<TickerData> getTickers(List<InstrumentData> instruments) {
-        Map<String, HtxBatchResp.Tick> byCanonical = cache.tickers();
-        return mapTickersByCanonical(instruments, byCanonical,
-                (inst, t) -> ticker(inst, String.valueOf(t.close()),
-                        "0", "0", String.valueOf(t.high()), String.valueOf(t.low()), String.valueOf(t.vol())));
+        return mapTickers(instruments, cache.tickers());
     }
 
     @Override
@@ -53,6 +51,22 @@ public class HtxExchangeClient implements ExchangeClient, ExchangeMappingSupport
                 (inst, f) -> funding(inst, f.fundingRate(), toLong(f.fundingTime())));
     }
 
+    @Override
+    public void invalidateFunding(List<InstrumentData> instruments) {
+        if (!instruments.isEmpty()) cache.evictFunding();
+    }
+
+    @Override
+    public DepthLevels getDepth(InstrumentData instrument, int levels) {
+        HtxDepthResp.Tick book = cache.depth(instrument.nativeSymbol());
+        double contractSize = cache.contracts().stream()
+                .filter(c -> instrument.nativeSymbol().equals(c.contractCode()))
+                .mapToDouble(HtxContractItem::contractSize)
+                .filter(v -> v > 0)
+                .findFirst().orElse(1);
+        return DepthLevels.of(book.bids(), book.asks(), contractSize);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.HTX;
@@ -1,9 +0,0 @@
-package net.protsenko.fundy.app.exchange.impl.kucoin;
-
-import java.util.List;
-
-public record KucoinAllTickersResponse(
-        String code,
-        List<KucoinTickerData> data
-) {
-}
\ No newline at end of file
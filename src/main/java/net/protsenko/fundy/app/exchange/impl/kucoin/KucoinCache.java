@@ -2,18 +2,32 @@ package net.protsenko.fundy.app.exchange.impl.kucoin;
 
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
 import net.protsenko.fundy.app.props.KucoinConfig;
 import net.protsenko.fundy.app.utils.HttpExecutor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
 
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+
 @Component
 @RequiredArgsConstructor
 public class KucoinCache implements ExchangeMappingSupport {
 
+    private static final TickerExtractor TICKERS = TickerExtractor.of(ExchangeType.KUCOIN)
+            .path("data")
+            .envelope("code")
+            .field("price", LAST)
+            .field("bestBidPrice", BID)
+            .field("bestAskPrice", ASK)
+            .build();
+
     private final HttpExecutor http;
     private final KucoinConfig cfg;
 
@@ -23,19 +37,30 @@ public class KucoinCache implements ExchangeMappingSupport {
     }
 
     @Cacheable(cacheNames = "ex-tickers", key = "'KUCOIN'", sync = true)
-    public Map<String, KucoinTickerData> tickers() {
+    public TickerColumns tickers() {
         String url = cfg.getBaseUrl() + "/api/v1/allTickers";
-        KucoinAllTickersResponse resp = http.get(url, cfg.getTimeout(), KucoinAllTickersResponse.class);
-        require(resp != null && "200000".equals(resp.code()) && resp.data() != null,
-                () -> "KuCoin allTickers error");
-        return indexByCanonical(resp.data(), KucoinTickerData::symbol);
+        TickerColumns cols = http.get(Endpoint.tickers(ExchangeType.KUCOIN).weight(5), url, cfg.getTimeout(), TICKERS);
+        require("200000".equals(cols.meta("code")), () -> "KuCoin allTickers error");
+        return cols;
     }
 
     @Cacheable(cacheNames = "ex-instruments", key = "'KUCOIN'", sync = true)
     public Map<String, KucoinContractItem> contracts() {
         String url = cfg.getBaseUrl() + "/api/v1/contracts/active";
-        KucoinContractsResponse resp = http.get(url, cfg.getTimeout(), KucoinContractsResponse.class);
+        KucoinContractsResponse resp = http.get(Endpoint.instruments(ExchangeType.KUCOIN).weight(3), url, cfg.getTimeout(), KucoinContractsResponse.class);
         require(resp != null && resp.data() != null, () -> "KuCoin contracts fetch error");
         return indexByCanonical(resp.data(), KucoinContractItem::symbol);
     }
-}
\ No newline at end of file
+
+    public KucoinDepthResponse.Data depth20(String symbol) {
+        String url = cfg.getBaseUrl() + "/api/v1/level2/depth20?symbol=" + symbol;
+        KucoinDepthResponse resp = http.get(Endpoint.depth(ExchangeType.KUCOIN).weight(5), url, cfg.getTimeout(), KucoinDepthResponse.class);
+        require(resp != null && "200000".equals(resp.code()) && resp.data() != null,
+                () -> "KuCoin depth20 error for " + symbol);
+        return resp.data();
+    }
+
+    @CacheEvict(cacheNames = "ex-instruments", key = "'KUCOIN'")
+    public void evictFunding() {
+    }
+}
@@ -15,6 +15,7 @@ public record KucoinContractItem(
         String volumeOf24h,
         String fundingFeeRate,
         String predictedFundingFeeRate,
-        long nextFundingRateDateTime
+        long nextFundingRateDateTime,
+        double multiplier
 ) {
 }
@@ -0,0 +1,17 @@
+package net.protsenko.fundy.app.exchange.impl.kucoin;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record KucoinDepthResponse(
+        String code,
+        Data data
+) {
+    public record Data(
+            String symbol,
+            List<List<BigDecimal>> bids,
+            List<List<BigDecimal>> asks,
+            long ts
+    ) {
+    }
+}
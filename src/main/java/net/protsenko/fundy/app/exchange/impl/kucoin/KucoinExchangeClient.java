@@ -2,6 +2,7 @@ package net.protsenko.fundy.app.exchange.impl.kucoin;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.dto.DepthLevels;
 import net.protsenko.fundy.app.dto.InstrumentType;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
@@ -9,6 +10,7 @@ import net.protsenko.fundy.app.dto.rs.TickerData;
 import net.protsenko.fundy.app.exchange.ExchangeClient;
 import net.protsenko.fundy.app.exchange.ExchangeType;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
 import net.protsenko.fundy.app.utils.SymbolNormalizer;
 import org.springframework.stereotype.Component;
 
@@ -16,6 +18,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+import static net.protsenko.fundy.app.utils.ExchangeUtils.toBigDecimal;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -33,13 +38,13 @@ public class KucoinExchangeClient implements ExchangeClient, ExchangeMappingSupp
 
     @Override
     public List<TickerData> getTickers(List<InstrumentData> instruments) {
-        Map<String, KucoinTickerData> byTickers = cache.tickers();
+        TickerColumns cols = cache.tickers();
         Map<String, KucoinContractItem> byContracts = cache.contracts();
-        return mapTickersByCanonical(instruments, byTickers, (inst, t) -> {
-            String key = SymbolNormalizer.canonicalKey(inst);
-            KucoinContractItem c = byContracts.get(key);
+        return mapRows(instruments, cols, (inst, row) -> {
+            KucoinContractItem c = byContracts.get(SymbolNormalizer.canonicalKey(inst));
             if (c == null) return null;
-            return ticker(inst, t.price(), t.bestBidPrice(), t.bestAskPrice(), c.highPrice(), c.lowPrice(), c.volumeOf24h());
+            return ticker(inst, cols.decimal(row, LAST), cols.decimal(row, BID), cols.decimal(row, ASK),
+                    toBigDecimal(c.highPrice()), toBigDecimal(c.lowPrice()), toBigDecimal(c.volumeOf24h()));
         });
     }
 
@@ -51,6 +56,19 @@ public class KucoinExchangeClient implements ExchangeClient, ExchangeMappingSupp
                 .stream().filter(Objects::nonNull).toList();
     }
 
+    @Override
+    public void invalidateFunding(List<InstrumentData> instruments) {
+        if (!instruments.isEmpty()) cache.evictFunding();
+    }
+
+    @Override
+    public DepthLevels getDepth(InstrumentData instrument, int levels) {
+        KucoinDepthResponse.Data book = cache.depth20(instrument.nativeSymbol());
+        KucoinContractItem contract = cache.contracts().get(SymbolNormalizer.canonicalKey(instrument));
+        double multiplier = contract == null || contract.multiplier() <= 0 ? 1 : contract.multiplier();
+        return DepthLevels.of(book.bids(), book.asks(), multiplier);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.KUCOIN;
@@ -2,19 +2,39 @@ package net.protsenko.fundy.app.exchange.impl.mexc;
 
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
 import net.protsenko.fundy.app.props.MexcConfig;
 import net.protsenko.fundy.app.utils.HttpExecutor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Map;
 
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+
 @Component
 @RequiredArgsConstructor
 public class MexcCache implements ExchangeMappingSupport {
 
+    private static final TickerExtractor TICKERS = TickerExtractor.of(ExchangeType.MEXC)
+            .path("data")
+            .envelope("code", "msg")
+            .field("lastPrice", LAST)
+            .field("bid1", BID)
+            .field("bid1Price", BID)
+            .field("ask1", ASK)
+            .field("ask1Price", ASK)
+            .field("high24Price", HIGH)
+            .field("lower24Price", LOW)
+            .field("low24Price", LOW)
+            .field("volume24", VOLUME)
+            .build();
+
     private final HttpExecutor http;
     private final MexcConfig cfg;
 
@@ -26,27 +46,38 @@ public class MexcCache implements ExchangeMappingSupport {
     @Cacheable(cacheNames = "ex-instruments", key = "'MEXC'", sync = true)
     public List<MexcInstrumentItem> instruments() {
         String url = cfg.getBaseUrl() + "/api/v1/contract/detail";
-        MexcInstrumentsResponse resp = http.get(url, cfg.getTimeout(), MexcInstrumentsResponse.class);
+        MexcInstrumentsResponse resp = http.get(Endpoint.instruments(ExchangeType.MEXC), url, cfg.getTimeout(), MexcInstrumentsResponse.class);
         require(resp != null && resp.code() == 0 && resp.data() != null,
                 () -> "MEXC instruments error: " + (resp != null ? resp.msg() : "null response"));
         return resp.data();
     }
 
     @Cacheable(cacheNames = "ex-tickers", key = "'MEXC'", sync = true)
-    public Map<String, MexcTickerItem> tickers() {
+    public TickerColumns tickers() {
         String url = cfg.getBaseUrl() + "/api/v1/contract/ticker";
-        MexcTickerListWrapper resp = http.get(url, cfg.getTimeout(), MexcTickerListWrapper.class);
-        require(resp != null && resp.code() == 0 && resp.data() != null,
-                () -> "MEXC tickers error: " + (resp != null ? resp.msg() : "null response"));
-        return indexByCanonical(resp.data(), MexcTickerItem::symbol);
+        TickerColumns cols = http.get(Endpoint.tickers(ExchangeType.MEXC), url, cfg.getTimeout(), TICKERS);
+        require("0".equals(cols.meta("code")), () -> "MEXC tickers error: " + cols.meta("msg"));
+        return cols;
     }
 
     @Cacheable(cacheNames = "ex-funding", key = "'MEXC'", sync = true)
     public Map<String, MexcFundingItem> funding() {
         String url = cfg.getBaseUrl() + "/api/v1/contract/funding_rate";
-        MexcFundingListResponse resp = http.get(url, cfg.getTimeout(), MexcFundingListResponse.class);
+        MexcFundingListResponse resp = http.get(Endpoint.funding(ExchangeType.MEXC), url, cfg.getTimeout(), MexcFundingListResponse.class);
         require(resp != null && resp.code() == 0 && resp.data() != null && !resp.data().isEmpty(),
                 () -> "MEXC funding error: " + (resp != null ? resp.msg() : "null response"));
         return indexByCanonical(resp.data(), MexcFundingItem::symbol);
     }
+
+    public MexcDepthResponse.Data depth(String symbol, int limit) {
+        String url = cfg.getBaseUrl() + "/api/v1/contract/depth/" + symbol + "?limit=" + limit;
+        MexcDepthResponse resp = http.get(Endpoint.depth(ExchangeType.MEXC), url, cfg.getTimeout(), MexcDepthResponse.class);
+        require(resp != null && resp.code() == 0 && resp.data() != null,
+                () -> "MEXC depth error for " + symbol + ": " + (resp != null ? resp.msg() : "null response"));
+        return resp.data();
+    }
+
+    @CacheEvict(cacheNames = "ex-funding", key = "'MEXC'")
+    public void evictFunding() {
+    }
 }
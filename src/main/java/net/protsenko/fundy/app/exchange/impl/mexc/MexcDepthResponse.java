@@ -0,0 +1,17 @@
+package net.protsenko.fundy.app.exchange.impl.mexc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record MexcDepthResponse(
+        int code,
+        String msg,
+        Data data
+) {
+    public record Data(
+            List<List<BigDecimal>> asks,
+            List<List<BigDecimal>> bids,
+            long timestamp
+    ) {
+    }
+}
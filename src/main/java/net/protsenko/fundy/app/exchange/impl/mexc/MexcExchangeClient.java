@@ -2,6 +2,7 @@ package net.protsenko.fundy.app.exchange.impl.mexc;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.dto.DepthLevels;
 import net.protsenko.fundy.app.dto.InstrumentType;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
@@ -34,10 +35,7 @@ public class MexcExchangeClient implements ExchangeClient, ExchangeMappingSuppor
 
     @Override
     public List<TickerData> getTickers(List<InstrumentData> instruments) {
-        Map<String, MexcTickerItem> byCanonical = cache.tickers();
-        return mapTickersByCanonical(instruments, byCanonical,
-                (inst, t) -> ticker(inst, t.lastPrice(), t.bid1Price(), t.ask1Price(),
-                        t.high24Price(), t.low24Price(), t.volume24()));
+        return mapTickers(instruments, cache.tickers());
     }
 
     @Override
@@ -47,6 +45,22 @@ public class MexcExchangeClient implements ExchangeClient, ExchangeMappingSuppor
                 (inst, f) -> funding(inst, f.fundingRate(), toLong(f.nextSettleTime())));
     }
 
+    @Override
+    public void invalidateFunding(List<InstrumentData> instruments) {
+        if (!instruments.isEmpty()) cache.evictFunding();
+    }
+
+    @Override
+    public DepthLevels getDepth(InstrumentData instrument, int levels) {
+        MexcDepthResponse.Data book = cache.depth(instrument.nativeSymbol(), levels);
+        double contractSize = cache.instruments().stream()
+                .filter(i -> instrument.nativeSymbol().equals(i.symbol()))
+                .mapToDouble(MexcInstrumentItem::contractSize)
+                .filter(v -> v > 0)
+                .findFirst().orElse(1);
+        return DepthLevels.of(book.bids(), book.asks(), contractSize);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.MEXC;
@@ -4,6 +4,7 @@ public record MexcInstrumentItem(
         String symbol,
         String baseCoin,
         String quoteCoin,
-        int state
+        int state,
+        double contractSize
 ) {
 }
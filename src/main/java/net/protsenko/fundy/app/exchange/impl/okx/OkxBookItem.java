@@ -0,0 +1,11 @@
+package net.protsenko.fundy.app.exchange.impl.okx;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record OkxBookItem(
+        List<List<BigDecimal>> asks,
+        List<List<BigDecimal>> bids,
+        String ts
+) {
+}
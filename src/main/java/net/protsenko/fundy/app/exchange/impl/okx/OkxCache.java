@@ -3,19 +3,36 @@ package net.protsenko.fundy.app.exchange.impl.okx;
 import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
 import net.protsenko.fundy.app.props.OkxConfig;
 import net.protsenko.fundy.app.utils.HttpExecutor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Map;
+
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
 
 @Component
 @RequiredArgsConstructor
 public class OkxCache implements ExchangeMappingSupport {
 
+    private static final TickerExtractor TICKERS = TickerExtractor.of(ExchangeType.OKX)
+            .path("data")
+            .envelope("code", "msg")
+            .symbol("instId")
+            .field("last", LAST)
+            .field("bidPx", BID)
+            .field("askPx", ASK)
+            .field("high24h", HIGH)
+            .field("low24h", LOW)
+            .field("vol24h", VOLUME)
+            .build();
+
     private final HttpExecutor http;
     private final OkxConfig cfg;
 
@@ -28,7 +45,7 @@ public class OkxCache implements ExchangeMappingSupport {
     public List<OkxInstrumentItem> instruments() {
         String url = cfg.getBaseUrl() + "/api/v5/public/instruments?instType=SWAP";
         OkxResponse<OkxInstrumentItem> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
+                http.get(Endpoint.instruments(ExchangeType.OKX), url, cfg.getTimeout(), new TypeReference<>() {
                 });
         require(resp != null && "0".equals(resp.code()) && resp.data() != null,
                 () -> "OKX instruments error: " + (resp != null ? resp.msg() : "null"));
@@ -36,24 +53,35 @@ public class OkxCache implements ExchangeMappingSupport {
     }
 
     @Cacheable(cacheNames = "ex-tickers", key = "'OKX'", sync = true)
-    public Map<String, OkxTickerItem> tickers() {
+    public TickerColumns tickers() {
         String url = cfg.getBaseUrl() + "/api/v5/market/tickers?instType=SWAP";
-        OkxResponse<OkxTickerItem> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
-                });
-        require(resp != null && "0".equals(resp.code()) && resp.data() != null,
-                () -> "OKX all-tickers error: " + (resp != null ? resp.msg() : "null"));
-        return indexByCanonical(resp.data(), OkxTickerItem::instId);
+        TickerColumns cols = http.get(Endpoint.tickers(ExchangeType.OKX), url, cfg.getTimeout(), TICKERS);
+        require("0".equals(cols.meta("code")), () -> "OKX all-tickers error: " + cols.meta("msg"));
+        return cols;
     }
 
     @Cacheable(cacheNames = "ex-funding", key = "'OKX:' + #instId", sync = true)
     public OkxFundingItem fundingSingle(String instId) {
         String url = cfg.getBaseUrl() + "/api/v5/public/funding-rate?instId=" + instId;
         OkxResponse<OkxFundingItem> resp =
-                http.get(url, cfg.getTimeout(), new TypeReference<>() {
+                http.get(Endpoint.funding(ExchangeType.OKX), url, cfg.getTimeout(), new TypeReference<>() {
                 });
         require(resp != null && "0".equals(resp.code()) && resp.data() != null && !resp.data().isEmpty(),
                 () -> "OKX funding error for " + instId + ": " + (resp != null ? resp.msg() : "null"));
         return resp.data().getFirst();
     }
+
+    public OkxBookItem books(String instId, int sz) {
+        String url = cfg.getBaseUrl() + "/api/v5/market/books?instId=" + instId + "&sz=" + sz;
+        OkxResponse<OkxBookItem> resp =
+                http.get(Endpoint.depth(ExchangeType.OKX), url, cfg.getTimeout(), new TypeReference<>() {
+                });
+        require(resp != null && "0".equals(resp.code()) && resp.data() != null && !resp.data().isEmpty(),
+                () -> "OKX books error for " + instId + ": " + (resp != null ? resp.msg() : "null"));
+        return resp.data().getFirst();
+    }
+
+    @CacheEvict(cacheNames = "ex-funding", key = "'OKX:' + #instId")
+    public void evictFunding(String instId) {
+    }
 }
@@ -2,6 +2,7 @@ package net.protsenko.fundy.app.exchange.impl.okx;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.dto.DepthLevels;
 import net.protsenko.fundy.app.dto.InstrumentType;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
@@ -11,14 +12,15 @@ import net.protsenko.fundy.app.exchange.ExchangeType;
 import net.protsenko.fundy.app.exchange.support.ExchangeMappingSupport;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static net.protsenko.fundy.app.utils.ExchangeUtils.toLong;
+import static net.protsenko.fundy.app.utils.ExchangeUtils.toBigDecimal;
 
 @Slf4j
 @Component
@@ -44,9 +46,7 @@ public class OkxExchangeClient implements ExchangeClient, ExchangeMappingSupport
 
     @Override
     public List<TickerData> getTickers(List<InstrumentData> instruments) {
-        Map<String, OkxTickerItem> byCanonical = cache.tickers();
-        return mapTickersByCanonical(instruments, byCanonical,
-                (inst, t) -> ticker(inst, t.last(), t.bidPx(), t.askPx(), t.high24h(), t.low24h(), t.vol24h()));
+        return mapTickers(instruments, cache.tickers());
     }
 
     @Override
@@ -67,6 +67,25 @@ public class OkxExchangeClient implements ExchangeClient, ExchangeMappingSupport
         return futures.stream().map(CompletableFuture::join).filter(Objects::nonNull).toList();
     }
 
+    @Override
+    public void invalidateFunding(List<InstrumentData> instruments) {
+        instruments.forEach(inst -> cache.evictFunding(
+                ensureSymbol(inst, inst.baseAsset() + "-" + inst.quoteAsset() + "-SWAP")));
+    }
+
+    @Override
+    public DepthLevels getDepth(InstrumentData instrument, int levels) {
+        String instId = ensureSymbol(instrument, instrument.baseAsset() + "-" + instrument.quoteAsset() + "-SWAP");
+        OkxBookItem book = cache.books(instId, levels);
+        double ctVal = cache.instruments().stream()
+                .filter(i -> instId.equals(i.instId()))
+                .map(i -> toBigDecimal(i.ctVal()))
+                .filter(Objects::nonNull)
+                .mapToDouble(BigDecimal::doubleValue)
+                .findFirst().orElse(1);
+        return DepthLevels.of(book.bids(), book.asks(), ctVal);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.OKX;
@@ -7,6 +7,7 @@ public record OkxInstrumentItem(
         String baseCcy,
         String quoteCcy,
         String ctType,
-        String settleCcy
+        String settleCcy,
+        String ctVal
 ) {
 }
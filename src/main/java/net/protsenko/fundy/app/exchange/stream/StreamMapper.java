@@ -0,0 +1,30 @@
+package net.protsenko.fundy.app.exchange.stream;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+
+public interface StreamMapper {
+
+    enum Compression {NONE, GZIP, DEFLATE}
+
+    URI uri();
+
+    List<String> subscribe(Collection<String> nativeSymbols);
+
+    List<String> unsubscribe(Collection<String> nativeSymbols);
+
+    void decode(String message, StreamSink sink);
+
+    default Compression compression() {
+        return Compression.NONE;
+    }
+
+    default String ping() {
+        return null;
+    }
+
+    default boolean contiguousSequence() {
+        return false;
+    }
+}
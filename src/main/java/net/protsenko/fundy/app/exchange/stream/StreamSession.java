@@ -0,0 +1,283 @@
+package net.protsenko.fundy.app.exchange.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.StreamProperties;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+@Slf4j
+public final class StreamSession implements WebSocket.Listener {
+
+    private final ExchangeType exchange;
+    private final StreamMapper mapper;
+    private final StreamTable table;
+    private final HttpClient http;
+    private final TaskScheduler scheduler;
+    private final StreamProperties props;
+    private final Runnable resync;
+    private final StreamSink sink = new Sink();
+
+    private final Set<String> wanted = ConcurrentHashMap.newKeySet();
+    private final Set<String> subscribed = new HashSet<>();
+    private final StringBuilder text = new StringBuilder();
+    private final ByteArrayOutputStream binary = new ByteArrayOutputStream();
+    private CompletableFuture<?> sending = CompletableFuture.completedFuture(null);
+    private volatile WebSocket ws;
+    private volatile boolean running;
+    private volatile int attempts;
+    private volatile long resyncedAt;
+    private ScheduledFuture<?> heartbeat;
+
+    public StreamSession(ExchangeType exchange,
+                         StreamMapper mapper,
+                         StreamTable table,
+                         HttpClient http,
+                         TaskScheduler scheduler,
+                         StreamProperties props,
+                         Runnable resync) {
+        this.exchange = exchange;
+        this.mapper = mapper;
+        this.table = table;
+        this.http = http;
+        this.scheduler = scheduler;
+        this.props = props;
+        this.resync = resync;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        heartbeat = scheduler.scheduleWithFixedDelay(this::heartbeat, props.getHeartbeatInterval());
+        connect();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (heartbeat != null) heartbeat.cancel(false);
+        WebSocket w = ws;
+        ws = null;
+        table.connected(false);
+        if (w != null) w.sendClose(WebSocket.NORMAL_CLOSURE, "shutdown");
+    }
+
+    public void sync(Set<String> nativeSymbols) {
+        wanted.retainAll(nativeSymbols);
+        wanted.addAll(nativeSymbols);
+        WebSocket w = ws;
+        if (w != null) resubscribe(w);
+    }
+
+    @Override
+    public void onOpen(WebSocket w) {
+        synchronized (this) {
+            ws = w;
+            subscribed.clear();
+            sending = CompletableFuture.completedFuture(null);
+        }
+        log.info("{} stream connected to {}", exchange, mapper.uri());
+        table.connected(true);
+        table.touch(System.currentTimeMillis());
+        resubscribe(w);
+        resyncedAt = System.currentTimeMillis();
+        resync.run();
+        w.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket w, CharSequence data, boolean last) {
+        text.append(data);
+        if (last) {
+            String message = text.toString();
+            text.setLength(0);
+            handle(message);
+        }
+        w.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onBinary(WebSocket w, ByteBuffer data, boolean last) {
+        byte[] chunk = new byte[data.remaining()];
+        data.get(chunk);
+        binary.write(chunk, 0, chunk.length);
+        if (binary.size() > props.getMaxMessageBytes()) {
+            log.warn("{} stream frame over {} bytes, reconnecting", exchange, props.getMaxMessageBytes());
+            binary.reset();
+            if (drop(w)) {
+                w.abort();
+                reconnectLater();
+            }
+            return null;
+        }
+        if (last) {
+            byte[] raw = binary.toByteArray();
+            binary.reset();
+            try {
+                handle(inflate(raw));
+            } catch (IOException e) {
+                log.debug("{} stream frame not decodable: {}", exchange, e.getMessage());
+            }
+        }
+        w.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onPing(WebSocket w, ByteBuffer message) {
+        table.touch(System.currentTimeMillis());
+        return WebSocket.Listener.super.onPing(w, message);
+    }
+
+    @Override
+    public CompletionStage<?> onPong(WebSocket w, ByteBuffer message) {
+        table.touch(System.currentTimeMillis());
+        return WebSocket.Listener.super.onPong(w, message);
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket w, int statusCode, String reason) {
+        log.info("{} stream closed: {} {}", exchange, statusCode, reason);
+        if (drop(w)) reconnectLater();
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket w, Throwable error) {
+        log.warn("{} stream error: {}", exchange, error.getMessage());
+        if (drop(w)) reconnectLater();
+    }
+
+    private void connect() {
+        if (!running) return;
+        try {
+            http.newWebSocketBuilder()
+                    .connectTimeout(props.getConnectTimeout())
+                    .buildAsync(mapper.uri(), this)
+                    .whenComplete((w, e) -> {
+                        if (e == null) return;
+                        log.warn("{} stream connect failed: {}", exchange, e.getMessage());
+                        reconnectLater();
+                    });
+        } catch (UnsupportedOperationException e) {
+            log.info("{} stream unavailable with this HttpClient, staying on REST", exchange);
+            running = false;
+        }
+    }
+
+    private void reconnectLater() {
+        table.connected(false);
+        text.setLength(0);
+        binary.reset();
+        if (!running) return;
+        long min = props.getReconnectMin().toMillis();
+        long delay = Math.min(props.getReconnectMax().toMillis(), min << Math.min(attempts++, 16));
+        delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        log.info("{} stream reconnecting in {} ms", exchange, delay);
+        scheduler.schedule(this::connect, Instant.now().plusMillis(delay));
+    }
+
+    private synchronized boolean drop(WebSocket w) {
+        if (ws != w) return false;
+        ws = null;
+        return true;
+    }
+
+    private synchronized void resubscribe(WebSocket w) {
+        Set<String> add = new HashSet<>(wanted);
+        add.removeAll(subscribed);
+        Set<String> remove = new HashSet<>(subscribed);
+        remove.removeAll(wanted);
+        if (!remove.isEmpty()) mapper.unsubscribe(remove).forEach(m -> send(w, m));
+        if (!add.isEmpty()) mapper.subscribe(add).forEach(m -> send(w, m));
+        subscribed.removeAll(remove);
+        subscribed.addAll(add);
+    }
+
+    private synchronized void send(WebSocket w, String message) {
+        sending = sending.handle((r, e) -> null).thenCompose(v -> w.sendText(message, true));
+    }
+
+    private void heartbeat() {
+        WebSocket w = ws;
+        if (w == null) return;
+        if (System.currentTimeMillis() - table.lastMessageAt() > props.getIdleTimeout().toMillis()) {
+            log.warn("{} stream idle for {}, reconnecting", exchange, props.getIdleTimeout());
+            if (drop(w)) {
+                w.abort();
+                reconnectLater();
+            }
+            return;
+        }
+        String ping = mapper.ping();
+        if (ping != null) send(w, ping);
+        else w.sendPing(ByteBuffer.allocate(0));
+    }
+
+    private void handle(String message) {
+        table.touch(System.currentTimeMillis());
+        attempts = 0;
+        try {
+            mapper.decode(message, sink);
+        } catch (RuntimeException e) {
+            log.debug("{} stream message skipped: {}", exchange, e.getMessage());
+        }
+    }
+
+    private void requestResync(String reason) {
+        long now = System.currentTimeMillis();
+        if (now - resyncedAt < props.getResyncMinInterval().toMillis()) return;
+        resyncedAt = now;
+        log.info("{} stream resync: {}", exchange, reason);
+        resync.run();
+    }
+
+    private String inflate(byte[] raw) throws IOException {
+        if (mapper.compression() == StreamMapper.Compression.NONE) return new String(raw, StandardCharsets.UTF_8);
+        Inflater inflater = new Inflater(true);
+        try (InputStream in = mapper.compression() == StreamMapper.Compression.GZIP
+                ? new GZIPInputStream(new ByteArrayInputStream(raw))
+                : new InflaterInputStream(new ByteArrayInputStream(raw), inflater)) {
+            return new String(in.readNBytes(props.getMaxMessageBytes()), StandardCharsets.UTF_8);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private final class Sink implements StreamSink {
+        @Override
+        public void ticker(TickerUpdate update) {
+            if (!table.apply(update, mapper.contiguousSequence())) requestResync("sequence gap on " + update.symbol());
+        }
+
+        @Override
+        public void reply(String message) {
+            WebSocket w = ws;
+            if (w != null) send(w, message);
+        }
+
+        @Override
+        public void resync(String reason) {
+            requestResync(reason);
+        }
+    }
+}
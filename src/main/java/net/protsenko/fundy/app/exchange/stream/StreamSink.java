@@ -0,0 +1,10 @@
+package net.protsenko.fundy.app.exchange.stream;
+
+public interface StreamSink {
+
+    void ticker(TickerUpdate update);
+
+    void reply(String message);
+
+    void resync(String reason);
+}
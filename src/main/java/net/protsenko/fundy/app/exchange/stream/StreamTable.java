@@ -0,0 +1,178 @@
+package net.protsenko.fundy.app.exchange.stream;
+
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public final class StreamTable {
+
+    private static final TickerColumns.Field[] FIELDS = TickerColumns.Field.values();
+    private static final int MAX_PENDING = 100_000;
+
+    private final ExchangeType exchange;
+    private final Map<String, Row> rows = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final Object resyncLock = new Object();
+    private volatile boolean connected;
+    private volatile long lastMessageAt;
+    private volatile long seededAt;
+    private volatile List<TickerUpdate> pending;
+    private boolean overflowed;
+
+    public StreamTable(ExchangeType exchange) {
+        this.exchange = exchange;
+    }
+
+    public ExchangeType exchange() {
+        return exchange;
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public Row row(String nativeSymbol) {
+        return nativeSymbol == null ? null : rows.get(nativeSymbol);
+    }
+
+    public boolean live(long staleAfterMs) {
+        return connected && seededAt > 0 && System.currentTimeMillis() - lastMessageAt <= staleAfterMs;
+    }
+
+    public long lastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public boolean apply(TickerUpdate u, boolean contiguous) {
+        if (pending != null) buffer(u);
+        return put(u, contiguous);
+    }
+
+    // deltas received while the REST snapshot is in flight are replayed on top of it
+    public void resync(Supplier<TickerColumns> snapshot) {
+        synchronized (resyncLock) {
+            long startedAt = System.currentTimeMillis();
+            synchronized (this) {
+                pending = new ArrayList<>();
+                overflowed = false;
+            }
+            TickerColumns cols;
+            try {
+                cols = snapshot.get();
+            } catch (RuntimeException e) {
+                pending = null;
+                throw e;
+            }
+            synchronized (this) {
+                seed(cols, overflowed ? startedAt : Long.MAX_VALUE);
+                for (TickerUpdate u : pending) put(u, false);
+                pending = null;
+            }
+        }
+    }
+
+    private synchronized void buffer(TickerUpdate u) {
+        if (pending == null || overflowed) return;
+        if (pending.size() < MAX_PENDING) {
+            pending.add(u);
+        } else {
+            pending.clear();
+            overflowed = true;
+        }
+    }
+
+    private boolean put(TickerUpdate u, boolean contiguous) {
+        long now = System.currentTimeMillis();
+        while (true) {
+            Row old = rows.get(u.symbol());
+            if (old != null && !u.snapshot() && u.seq() > 0 && old.seq > 0) {
+                if (u.seq() <= old.seq) return true;
+                if (contiguous && u.seq() != old.seq + 1) return false;
+            }
+            Row next = (old == null || u.snapshot()) ? Row.EMPTY.merge(u, now) : old.merge(u, now);
+            boolean swapped = old == null ? rows.putIfAbsent(u.symbol(), next) == null : rows.replace(u.symbol(), old, next);
+            if (swapped) break;
+        }
+        version.incrementAndGet();
+        return true;
+    }
+
+    // after an overflow, rows streamed in since the request started are newer than the snapshot
+    private void seed(TickerColumns cols, long keepUpdatedSince) {
+        long now = System.currentTimeMillis();
+        for (int r = 0; r < cols.size(); r++) {
+            Row old = rows.get(cols.symbol(r));
+            if (old != null && old.updatedAt >= keepUpdatedSince) continue;
+            BigDecimal[] values = new BigDecimal[FIELDS.length];
+            for (TickerColumns.Field f : FIELDS) {
+                if (cols.has(r, f)) values[f.ordinal()] = cols.decimal(r, f);
+            }
+            rows.put(cols.symbol(r), new Row(values, 0L, now));
+        }
+        seededAt = now;
+        version.incrementAndGet();
+    }
+
+    void connected(boolean connected) {
+        this.connected = connected;
+        if (!connected) seededAt = 0;
+    }
+
+    void touch(long now) {
+        lastMessageAt = now;
+    }
+
+    public static final class Row {
+        private static final Row EMPTY = new Row(new BigDecimal[FIELDS.length], 0L, 0L);
+
+        private final BigDecimal[] values;
+        private final long seq;
+        private final long updatedAt;
+
+        private Row(BigDecimal[] values, long seq, long updatedAt) {
+            this.values = values;
+            this.seq = seq;
+            this.updatedAt = updatedAt;
+        }
+
+        public boolean has(TickerColumns.Field f) {
+            return values[f.ordinal()] != null;
+        }
+
+        public BigDecimal decimal(TickerColumns.Field f) {
+            BigDecimal v = values[f.ordinal()];
+            return v == null ? BigDecimal.ZERO : v;
+        }
+
+        public long longValue(TickerColumns.Field f) {
+            BigDecimal v = values[f.ordinal()];
+            return v == null ? 0L : v.longValue();
+        }
+
+        public long seq() {
+            return seq;
+        }
+
+        public long updatedAt() {
+            return updatedAt;
+        }
+
+        private Row merge(TickerUpdate u, long now) {
+            BigDecimal[] next = Arrays.copyOf(values, values.length);
+            u.values().forEach((f, v) -> next[f.ordinal()] = v);
+            return new Row(next, u.seq() > 0 ? u.seq() : seq, now);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package net.protsenko.fundy.app.exchange.stream;
+
+import net.protsenko.fundy.app.config.StreamProperties;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class StreamTables {
+
+    private final StreamProperties props;
+    private final Map<ExchangeType, StreamTable> tables = new EnumMap<>(ExchangeType.class);
+
+    public StreamTables(StreamProperties props) {
+        this.props = props;
+        for (ExchangeType ex : ExchangeType.values()) tables.put(ex, new StreamTable(ex));
+    }
+
+    public StreamTable table(ExchangeType ex) {
+        return tables.get(ex);
+    }
+
+    public boolean live(ExchangeType ex) {
+        return props.isEnabled() && tables.get(ex).live(props.getStaleAfter().toMillis());
+    }
+}
@@ -0,0 +1,11 @@
+package net.protsenko.fundy.app.exchange.stream;
+
+import net.protsenko.fundy.app.exchange.ExchangeClient;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+
+public interface StreamingExchangeClient extends ExchangeClient {
+
+    StreamMapper streamMapper();
+
+    TickerColumns streamSnapshot();
+}
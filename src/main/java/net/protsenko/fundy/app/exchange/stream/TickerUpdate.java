@@ -0,0 +1,14 @@
+package net.protsenko.fundy.app.exchange.stream;
+
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record TickerUpdate(
+        String symbol,
+        long seq,
+        boolean snapshot,
+        Map<TickerColumns.Field, BigDecimal> values
+) {
+}
@@ -0,0 +1,26 @@
+package net.protsenko.fundy.app.exchange.support;
+
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+public record Endpoint(ExchangeType exchange, RequestClass requestClass, int weight) {
+
+    public static Endpoint tickers(ExchangeType exchange) {
+        return new Endpoint(exchange, RequestClass.TICKERS, 1);
+    }
+
+    public static Endpoint depth(ExchangeType exchange) {
+        return new Endpoint(exchange, RequestClass.DEPTH, 1);
+    }
+
+    public static Endpoint funding(ExchangeType exchange) {
+        return new Endpoint(exchange, RequestClass.FUNDING, 1);
+    }
+
+    public static Endpoint instruments(ExchangeType exchange) {
+        return new Endpoint(exchange, RequestClass.INSTRUMENTS, 1);
+    }
+
+    public Endpoint weight(int weight) {
+        return new Endpoint(exchange, requestClass, weight);
+    }
+}
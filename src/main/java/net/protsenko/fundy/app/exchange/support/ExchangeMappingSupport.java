@@ -6,9 +6,11 @@ import net.protsenko.fundy.app.dto.rs.InstrumentData;
 import net.protsenko.fundy.app.dto.rs.TickerData;
 import net.protsenko.fundy.app.exception.ExchangeException;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.stream.StreamTable;
 import net.protsenko.fundy.app.utils.SymbolNormalizer;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -74,21 +76,6 @@ public interface ExchangeMappingSupport {
         return m;
     }
 
-    default <S> List<TickerData> mapTickersByCanonical(
-            List<InstrumentData> instruments,
-            Map<String, S> sourceByCanonical,
-            BiFunction<InstrumentData, S, TickerData> mapper
-    ) {
-        return instruments.stream()
-                .map(inst -> {
-                    String key = SymbolNormalizer.canonicalKey(inst);
-                    S s = sourceByCanonical.get(key);
-                    return s != null ? mapper.apply(inst, s) : null;
-                })
-                .filter(Objects::nonNull)
-                .toList();
-    }
-
     default <S> List<FundingRateData> mapFundingByCanonical(
             List<InstrumentData> instruments,
             Map<String, S> sourceByCanonical,
@@ -104,6 +91,49 @@ public interface ExchangeMappingSupport {
                 .toList();
     }
 
+    default List<TickerData> mapTickers(List<InstrumentData> instruments, TickerColumns cols) {
+        return mapRows(instruments, cols, (inst, row) -> ticker(inst,
+                cols.decimal(row, TickerColumns.Field.LAST),
+                cols.decimal(row, TickerColumns.Field.BID),
+                cols.decimal(row, TickerColumns.Field.ASK),
+                cols.decimal(row, TickerColumns.Field.HIGH),
+                cols.decimal(row, TickerColumns.Field.LOW),
+                cols.decimal(row, TickerColumns.Field.VOLUME)));
+    }
+
+    default <T> List<T> mapRows(List<InstrumentData> instruments, TickerColumns cols, TickerColumns.RowMapper<T> mapper) {
+        List<T> out = new ArrayList<>(instruments.size());
+        for (InstrumentData inst : instruments) {
+            int row = cols.row(SymbolNormalizer.canonicalKey(inst));
+            if (row < 0) continue;
+            T v = mapper.map(inst, row);
+            if (v != null) out.add(v);
+        }
+        return out;
+    }
+
+    default List<TickerData> mapTickers(List<InstrumentData> instruments, StreamTable table) {
+        return mapRows(instruments, table, (inst, row) -> ticker(inst,
+                row.decimal(TickerColumns.Field.LAST),
+                row.decimal(TickerColumns.Field.BID),
+                row.decimal(TickerColumns.Field.ASK),
+                row.decimal(TickerColumns.Field.HIGH),
+                row.decimal(TickerColumns.Field.LOW),
+                row.decimal(TickerColumns.Field.VOLUME)));
+    }
+
+    default <T> List<T> mapRows(List<InstrumentData> instruments, StreamTable table,
+                                BiFunction<InstrumentData, StreamTable.Row, T> mapper) {
+        List<T> out = new ArrayList<>(instruments.size());
+        for (InstrumentData inst : instruments) {
+            StreamTable.Row row = table.row(inst.nativeSymbol());
+            if (row == null) continue;
+            T v = mapper.apply(inst, row);
+            if (v != null) out.add(v);
+        }
+        return out;
+    }
+
     default long nextFundingAlignedHours(int hours) {
         require(hours > 0, () -> "hours must be > 0");
         long step = Math.multiplyExact(hours, 3_600_000L);
@@ -111,6 +141,11 @@ public interface ExchangeMappingSupport {
         return ((now / step) + 1) * step;
     }
 
+    default int depthLimit(int levels, int... allowed) {
+        for (int a : allowed) if (a >= levels) return a;
+        return allowed[allowed.length - 1];
+    }
+
     default void require(boolean ok, Supplier<String> err) {
         if (!ok) throw new ExchangeException("[" + getExchangeType() + "] " + err.get());
     }
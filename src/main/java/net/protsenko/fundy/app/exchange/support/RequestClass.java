@@ -0,0 +1,8 @@
+package net.protsenko.fundy.app.exchange.support;
+
+public enum RequestClass {
+    TICKERS,
+    DEPTH,
+    FUNDING,
+    INSTRUMENTS
+}
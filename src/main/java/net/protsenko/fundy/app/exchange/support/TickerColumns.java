@@ -0,0 +1,170 @@
+package net.protsenko.fundy.app.exchange.support;
+
+import net.protsenko.fundy.app.dto.rs.InstrumentData;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+public final class TickerColumns {
+
+    public enum Field {LAST, BID, ASK, HIGH, LOW, VOLUME, FUNDING_RATE, NEXT_FUNDING}
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(InstrumentData instrument, int row);
+    }
+
+    private static final byte MISSING = Byte.MIN_VALUE;
+    private static final byte OVERFLOW = Byte.MIN_VALUE + 1;
+    private static final int FIELDS = Field.values().length;
+
+    private final Map<String, String> meta = new HashMap<>(4);
+    private String[] symbols;
+    private final long[][] unscaled = new long[FIELDS][];
+    private final byte[][] scales = new byte[FIELDS][];
+    private Map<Long, BigDecimal> overflow = Map.of();
+    private Map<String, Integer> byCanonical = Map.of();
+    private int size;
+
+    TickerColumns(int capacity) {
+        symbols = new String[capacity];
+        for (int f = 0; f < FIELDS; f++) {
+            unscaled[f] = new long[capacity];
+            scales[f] = new byte[capacity];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String meta(String name) {
+        return meta.get(name);
+    }
+
+    public int row(String canonicalKey) {
+        Integer row = byCanonical.get(canonicalKey);
+        return row == null ? -1 : row;
+    }
+
+    public String symbol(int row) {
+        return symbols[row];
+    }
+
+    public boolean has(int row, Field field) {
+        return scales[field.ordinal()][row] != MISSING;
+    }
+
+    public BigDecimal decimal(int row, Field field) {
+        int f = field.ordinal();
+        byte scale = scales[f][row];
+        if (scale == MISSING) return BigDecimal.ZERO;
+        if (scale == OVERFLOW) return overflow.get(overflowKey(row, f));
+        return BigDecimal.valueOf(unscaled[f][row], scale);
+    }
+
+    public long longValue(int row, Field field) {
+        int f = field.ordinal();
+        byte scale = scales[f][row];
+        if (scale == 0) return unscaled[f][row];
+        if (scale == MISSING) return 0L;
+        return decimal(row, field).longValue();
+    }
+
+    int addRow(String symbol) {
+        if (size == symbols.length) grow();
+        symbols[size] = symbol;
+        for (int f = 0; f < FIELDS; f++) scales[f][size] = MISSING;
+        return size++;
+    }
+
+    void addSymbol(int row, String symbol) {
+        symbols[row] = symbol;
+    }
+
+    void dropLastRow() {
+        symbols[--size] = null;
+    }
+
+    void meta(String name, String value) {
+        meta.put(name, value);
+    }
+
+    void set(int row, Field field, char[] buf, int off, int len) {
+        int f = field.ordinal();
+        int i = off, end = off + len;
+        if (i < end && (buf[i] == '-' || buf[i] == '+')) i++;
+        boolean negative = i > off && buf[off] == '-';
+
+        long m = 0;
+        int scale = 0, digits = 0;
+        boolean dot = false;
+        for (; i < end; i++) {
+            char c = buf[i];
+            if (c >= '0' && c <= '9') {
+                if (m > (Long.MAX_VALUE - 9) / 10) {
+                    setSlow(row, f, buf, off, len);
+                    return;
+                }
+                m = m * 10 + (c - '0');
+                digits++;
+                if (dot) scale++;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else if ((c == 'e' || c == 'E') && digits > 0) {
+                setSlow(row, f, buf, off, len);
+                return;
+            } else {
+                scales[f][row] = MISSING;
+                return;
+            }
+        }
+        if (digits == 0) {
+            scales[f][row] = MISSING;
+            return;
+        }
+        unscaled[f][row] = negative ? -m : m;
+        scales[f][row] = (byte) scale;
+    }
+
+    private void setSlow(int row, int f, char[] buf, int off, int len) {
+        try {
+            BigDecimal v = new BigDecimal(buf, off, len);
+            if (v.scale() > Byte.MAX_VALUE || v.scale() <= OVERFLOW || v.unscaledValue().bitLength() >= 64) {
+                if (overflow.isEmpty()) overflow = new HashMap<>();
+                overflow.put(overflowKey(row, f), v);
+                scales[f][row] = OVERFLOW;
+            } else {
+                unscaled[f][row] = v.unscaledValue().longValue();
+                scales[f][row] = (byte) v.scale();
+            }
+        } catch (NumberFormatException e) {
+            scales[f][row] = MISSING;
+        }
+    }
+
+    TickerColumns index(Function<String, String> canonicalKey) {
+        Map<String, Integer> index = HashMap.newHashMap(size);
+        for (int row = 0; row < size; row++) {
+            index.putIfAbsent(canonicalKey.apply(symbols[row]), row);
+        }
+        byCanonical = index;
+        return this;
+    }
+
+    private void grow() {
+        int cap = symbols.length * 2;
+        symbols = Arrays.copyOf(symbols, cap);
+        for (int f = 0; f < FIELDS; f++) {
+            unscaled[f] = Arrays.copyOf(unscaled[f], cap);
+            scales[f] = Arrays.copyOf(scales[f], cap);
+        }
+    }
+
+    private static long overflowKey(int row, int field) {
+        return ((long) row << 8) | field;
+    }
+}
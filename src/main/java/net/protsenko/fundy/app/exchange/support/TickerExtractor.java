@@ -0,0 +1,193 @@
+package net.protsenko.fundy.app.exchange.support;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.SymbolNormalizer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class TickerExtractor {
+
+    private static final int MAX_CACHED_KEYS = 20_000;
+
+    private final ExchangeType exchange;
+    private final String[] path;
+    private final boolean keyedBySymbol;
+    private final String symbolField;
+    private final Map<String, TickerColumns.Field> fields;
+    private final Set<String> firstOfArray;
+    private final Set<String> envelope;
+    private final Map<String, String> canonicalKeys = new ConcurrentHashMap<>();
+    private volatile int sizeHint = 256;
+
+    private TickerExtractor(Builder b) {
+        this.exchange = b.exchange;
+        this.path = b.path;
+        this.keyedBySymbol = b.keyedBySymbol;
+        this.symbolField = b.symbolField;
+        this.fields = Map.copyOf(b.fields);
+        this.firstOfArray = Set.copyOf(b.firstOfArray);
+        this.envelope = Set.copyOf(b.envelope);
+    }
+
+    public static Builder of(ExchangeType exchange) {
+        return new Builder(exchange);
+    }
+
+    public ExchangeType exchange() {
+        return exchange;
+    }
+
+    public TickerColumns extract(JsonParser p) throws IOException {
+        TickerColumns out = new TickerColumns(sizeHint);
+        if (p.nextToken() != null) descend(p, 0, out);
+        sizeHint = out.size() + 32;
+        if (canonicalKeys.size() > MAX_CACHED_KEYS) canonicalKeys.clear();
+        return out.index(this::canonicalKey);
+    }
+
+    private String canonicalKey(String nativeSymbol) {
+        String key = canonicalKeys.get(nativeSymbol);
+        if (key == null) {
+            key = SymbolNormalizer.canonicalKey(exchange, nativeSymbol);
+            canonicalKeys.put(nativeSymbol, key);
+        }
+        return key;
+    }
+
+    private void descend(JsonParser p, int depth, TickerColumns out) throws IOException {
+        if (depth == path.length) {
+            if (keyedBySymbol) rowsByKey(p, out);
+            else rowsInArray(p, out);
+            return;
+        }
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return;
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken t = p.nextToken();
+            if (name.equals(path[depth]) && (t == JsonToken.START_OBJECT || t == JsonToken.START_ARRAY)) {
+                descend(p, depth + 1, out);
+            } else if (t.isScalarValue()) {
+                if (depth == 0 && envelope.contains(name)) out.meta(name, p.getText());
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    private void rowsInArray(JsonParser p, TickerColumns out) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) throw unexpected(p, "array");
+        JsonToken t;
+        while ((t = p.nextToken()) != JsonToken.END_ARRAY && t != null) {
+            if (t == JsonToken.START_OBJECT) row(p, null, out);
+            else p.skipChildren();
+        }
+    }
+
+    private void rowsByKey(JsonParser p, TickerColumns out) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) throw unexpected(p, "object");
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String symbol = p.currentName();
+            if (p.nextToken() == JsonToken.START_OBJECT) row(p, symbol, out);
+            else p.skipChildren();
+        }
+    }
+
+    private JsonParseException unexpected(JsonParser p, String expected) {
+        return new JsonParseException(p, exchange + " tickers: expected " + expected + " of rows, got " + p.currentToken());
+    }
+
+    private void row(JsonParser p, String symbol, TickerColumns out) throws IOException {
+        int row = out.addRow(symbol);
+        boolean hasSymbol = symbol != null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken t = p.nextToken();
+            if (!hasSymbol && name.equals(symbolField)) {
+                if (t == JsonToken.VALUE_STRING) {
+                    out.addSymbol(row, p.getText());
+                    hasSymbol = true;
+                }
+                continue;
+            }
+            TickerColumns.Field field = fields.get(name);
+            if (field == null) {
+                p.skipChildren();
+            } else if (t == JsonToken.START_ARRAY && firstOfArray.contains(name)) {
+                if (p.nextToken().isScalarValue()) set(p, row, field, out);
+                p.skipChildren();
+                while (p.currentToken() != JsonToken.END_ARRAY) {
+                    p.nextToken();
+                    p.skipChildren();
+                }
+            } else if (t == JsonToken.VALUE_STRING || t.isNumeric()) {
+                set(p, row, field, out);
+            } else {
+                p.skipChildren();
+            }
+        }
+        if (!hasSymbol) out.dropLastRow();
+    }
+
+    private static void set(JsonParser p, int row, TickerColumns.Field field, TickerColumns out) throws IOException {
+        out.set(row, field, p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+    }
+
+    public static final class Builder {
+        private final ExchangeType exchange;
+        private String[] path = new String[0];
+        private boolean keyedBySymbol;
+        private String symbolField = "symbol";
+        private final Map<String, TickerColumns.Field> fields = new HashMap<>();
+        private final Set<String> firstOfArray = new HashSet<>();
+        private final Set<String> envelope = new HashSet<>();
+
+        private Builder(ExchangeType exchange) {
+            this.exchange = exchange;
+        }
+
+        public Builder path(String... path) {
+            this.path = path;
+            return this;
+        }
+
+        public Builder keyedBySymbol() {
+            this.keyedBySymbol = true;
+            return this;
+        }
+
+        public Builder symbol(String name) {
+            this.symbolField = name;
+            return this;
+        }
+
+        public Builder field(String name, TickerColumns.Field field) {
+            fields.put(name, field);
+            return this;
+        }
+
+        public Builder firstOf(String name, TickerColumns.Field field) {
+            firstOfArray.add(name);
+            return field(name, field);
+        }
+
+        public Builder envelope(String... names) {
+            envelope.addAll(Set.of(names));
+            return this;
+        }
+
+        public TickerExtractor build() {
+            return new TickerExtractor(this);
+        }
+    }
+}
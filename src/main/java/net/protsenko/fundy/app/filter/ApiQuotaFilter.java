@@ -0,0 +1,67 @@
+package net.protsenko.fundy.app.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.protsenko.fundy.app.config.ApiQuotaProperties;
+import net.protsenko.fundy.app.dto.rs.ErrorResponse;
+import net.protsenko.fundy.app.utils.IpQuotaLimiter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ApiQuotaFilter extends OncePerRequestFilter {
+
+    private final ApiQuotaProperties props;
+    private final IpQuotaLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public ApiQuotaFilter(ApiQuotaProperties props, IpQuotaLimiter limiter, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.props = props;
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.rejected = registry.counter("fundy.api.quota.rejected");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!props.isEnabled()) return true;
+        String path = request.getRequestURI();
+        for (String p : props.getPaths()) {
+            if (path.startsWith(p)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = request.getRemoteAddr();
+        long wait = limiter.exempt(client) ? 0 : limiter.tryAcquire(client, limiter.cost(request.getRequestURI()));
+        if (wait == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        rejected.increment();
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("rate_limited", "Too many requests, retry in " + seconds + "s"));
+    }
+}
@@ -15,6 +15,7 @@ public class BybitConfig implements ExchangeConfig {
     private String apiKey;
     private String secretKey;
     private String baseUrl = "https://api.bybit.com";
+    private String streamUrl = "wss://stream.bybit.com/v5/public/linear";
     private int timeout = 10;
     private boolean enabled = true;
 
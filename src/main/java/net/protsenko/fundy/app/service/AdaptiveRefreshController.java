@@ -0,0 +1,160 @@
+package net.protsenko.fundy.app.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.AdaptiveRefreshProperties;
+import net.protsenko.fundy.app.config.SnapshotProperties;
+import net.protsenko.fundy.app.dto.MarketDataRefresh;
+import net.protsenko.fundy.app.dto.rs.ChangeEntry;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+@Service
+public class AdaptiveRefreshController {
+
+    private final MarketSnapshotService snapshots;
+    private final AlertEngine alerts;
+    private final SnapshotFeed feed;
+    private final Executor executor;
+    private final TaskScheduler scheduler;
+    private final AdaptiveRefreshProperties props;
+    private final SnapshotProperties snapshotProps;
+
+    private final Map<ExchangeType, Volatility> volatility = new EnumMap<>(ExchangeType.class);
+    private final AtomicLongArray intervals = new AtomicLongArray(ExchangeType.values().length);
+
+    public AdaptiveRefreshController(MarketSnapshotService snapshots,
+                                     AlertEngine alerts,
+                                     SnapshotFeed feed,
+                                     @Qualifier("exchangeExecutor") Executor executor,
+                                     TaskScheduler scheduler,
+                                     AdaptiveRefreshProperties props,
+                                     SnapshotProperties snapshotProps,
+                                     MeterRegistry registry) {
+        this.snapshots = snapshots;
+        this.alerts = alerts;
+        this.feed = feed;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.props = props;
+        this.snapshotProps = snapshotProps;
+        for (ExchangeType ex : ExchangeType.values()) {
+            volatility.put(ex, new Volatility());
+            Gauge.builder("fundy.refresh.interval", intervals, a -> a.get(ex.ordinal()))
+                    .tag("exchange", ex.name()).baseUnit("milliseconds").register(registry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (ExchangeType ex : ExchangeType.values()) schedule(ex);
+    }
+
+    @EventListener
+    public void onRefresh(MarketDataRefresh refresh) {
+        volatility.get(refresh.exchange()).update(refresh);
+    }
+
+    public Duration interval(ExchangeType ex) {
+        if (!props.isEnabled()) return snapshotProps.getRefreshInterval();
+        long now = System.currentTimeMillis();
+        boolean interested = interested(ex, now);
+        double near = now - alerts.nearThresholdAt(ex) <= props.getNearThresholdTtl().toMillis() ? 1 : 0;
+        double vol = volatility.get(ex).score(now);
+
+        double score = interested ? 0.5 + 0.5 * Math.max(vol, near) : 0.5 * vol;
+        double min = props.getMinInterval().toMillis(), max = props.getMaxInterval().toMillis();
+        return Duration.ofMillis(Math.round(max * Math.pow(min / max, score)));
+    }
+
+    private boolean interested(ExchangeType ex, long now) {
+        return now - snapshots.lastReadAt(ex) <= props.getInterestTtl().toMillis()
+                || alerts.watches(ex)
+                || feed.subscribers() > 0;
+    }
+
+    private void schedule(ExchangeType ex) {
+        Duration next = interval(ex);
+        intervals.set(ex.ordinal(), next.toMillis());
+        scheduler.schedule(() -> dispatch(ex), Instant.now().plus(next));
+    }
+
+    private void dispatch(ExchangeType ex) {
+        try {
+            executor.execute(() -> run(ex));
+        } catch (RejectedExecutionException e) {
+            log.warn("Snapshot refresh {} rejected, rescheduling: {}", ex, e.getMessage());
+            schedule(ex);
+        }
+    }
+
+    private void run(ExchangeType ex) {
+        try {
+            snapshots.refreshQuietly(ex);
+        } finally {
+            schedule(ex);
+        }
+    }
+
+    private final class Volatility {
+        private final Map<String, Double> prices = new HashMap<>();
+        private long updatedAt;
+        private double variance;
+
+        synchronized void update(MarketDataRefresh refresh) {
+            long at = refresh.snapshot().updatedAt();
+            double dt = updatedAt == 0 ? 0 : (at - updatedAt) / 1000.0;
+            updatedAt = at;
+
+            double[] moves = new double[refresh.changes().size()];
+            int n = 0;
+            for (ChangeEntry c : refresh.changes()) {
+                if (c.kind() == ChangeEntry.Kind.REMOVED) {
+                    prices.remove(c.symbol());
+                    continue;
+                }
+                if (c.lastPrice() == null || c.lastPrice().signum() <= 0) continue;
+                double p = c.lastPrice().doubleValue();
+                if (!prices.containsKey(c.symbol()) && prices.size() >= props.getMaxTrackedSymbols()) continue;
+                Double prev = prices.put(c.symbol(), p);
+                if (prev != null) {
+                    double r = Math.log(p / prev);
+                    moves[n++] = r * r;
+                }
+            }
+            if (dt <= 0) return;
+
+            Arrays.sort(moves, 0, n);
+            int k = Math.min(props.getTopMovers(), n);
+            double sum = 0;
+            for (int i = n - k; i < n; i++) sum += moves[i];
+            double sample = k == 0 ? 0 : sum / k / dt;
+            double alpha = 1 - Math.pow(0.5, dt / halfLifeSeconds());
+            variance += alpha * (sample - variance);
+        }
+
+        synchronized double score(long now) {
+            if (updatedAt == 0) return 0;
+            double idle = Math.max(0, now - updatedAt) / 1000.0;
+            double decayed = variance * Math.pow(0.5, idle / halfLifeSeconds());
+            return Math.min(1, Math.sqrt(decayed) / props.getHotVolatility());
+        }
+
+        private double halfLifeSeconds() {
+            return Math.max(1, props.getVolatilityHalfLife().toMillis()) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package net.protsenko.fundy.app.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.AlertProperties;
+import net.protsenko.fundy.app.dto.AlertRule;
+import net.protsenko.fundy.app.dto.ExchangeSnapshot;
+import net.protsenko.fundy.app.dto.MarketDataRefresh;
+import net.protsenko.fundy.app.dto.rq.AlertRuleRequest;
+import net.protsenko.fundy.app.dto.rs.ChangeEntry;
+import net.protsenko.fundy.app.dto.rs.FundingRateData;
+import net.protsenko.fundy.app.dto.rs.TickerData;
+import net.protsenko.fundy.app.exception.LimitReachedException;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.FeedbackTelegramSender;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class AlertEngine {
+
+    private final MarketSnapshotService snapshots;
+    private final FeedbackTelegramSender telegram;
+    private final AlertProperties props;
+    private final ObjectMapper objectMapper;
+    private final ClusterLeadership leadership;
+
+    private volatile Index index = Index.of(List.of());
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    private final AtomicLongArray nearThresholdAt = new AtomicLongArray(ExchangeType.values().length);
+    private Object loaded;
+
+    public AlertEngine(MarketSnapshotService snapshots, FeedbackTelegramSender telegram,
+                       AlertProperties props, ObjectMapper objectMapper, ClusterLeadership leadership) {
+        this.snapshots = snapshots;
+        this.telegram = telegram;
+        this.props = props;
+        this.objectMapper = objectMapper;
+        this.leadership = leadership;
+    }
+
+    @PostConstruct
+    public void restore() {
+        sync();
+        if (!index.rules().isEmpty()) log.info("Restored {} alert rules", index.rules().size());
+    }
+
+    public AlertRule add(AlertRuleRequest rq) {
+        return locked(() -> {
+            if (index.rules().size() >= props.getMaxRules()) {
+                throw new LimitReachedException("Alert rule limit reached: " + props.getMaxRules());
+            }
+            AlertRule rule = new AlertRule(
+                    UUID.randomUUID().toString(),
+                    rq.type(),
+                    rq.canonicalSymbol(),
+                    rq.exchanges() == null || rq.exchanges().isEmpty() ? null : EnumSet.copyOf(rq.exchanges()),
+                    rq.threshold(),
+                    props.getChatId()
+            );
+            List<AlertRule> next = new ArrayList<>(index.rules().values());
+            next.add(rule);
+            persist(next);
+            return rule;
+        });
+    }
+
+    public boolean remove(String id) {
+        return locked(() -> {
+            if (!index.rules().containsKey(id)) return false;
+            List<AlertRule> next = new ArrayList<>(index.rules().values());
+            next.removeIf(r -> r.id().equals(id));
+            persist(next);
+            return true;
+        });
+    }
+
+    private synchronized <T> T locked(Supplier<T> change) {
+        Path file = Path.of(props.getStoreFile());
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel ch = FileChannel.open(lockFile(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = ch.lock()) {
+                sync();
+                return change.get();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Alert rules store unavailable", e);
+        }
+    }
+
+    private void persist(List<AlertRule> next) {
+        Path file = Path.of(props.getStoreFile());
+        try {
+            Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), "alert-rules", ".tmp");
+            try {
+                objectMapper.writeValue(tmp.toFile(), next);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Alert rules persist failed", e);
+        }
+        sync();
+    }
+
+    private synchronized void sync() {
+        Path file = Path.of(props.getStoreFile());
+        Object key;
+        try {
+            BasicFileAttributes a = Files.readAttributes(file, BasicFileAttributes.class);
+            key = Arrays.asList(a.fileKey(), a.lastModifiedTime(), a.size());
+        } catch (NoSuchFileException e) {
+            key = null;
+        } catch (IOException e) {
+            log.warn("Alert rules check failed: {}", e.getMessage());
+            return;
+        }
+        if (Objects.equals(key, loaded)) return;
+        List<AlertRule> stored = List.of();
+        if (key != null) {
+            try {
+                stored = objectMapper.readValue(file.toFile(), new TypeReference<>() {
+                });
+            } catch (IOException e) {
+                log.warn("Alert rules load failed: {}", e.getMessage());
+                return;
+            }
+        }
+        List<AlertRule> bound = new ArrayList<>(stored.size());
+        for (AlertRule r : stored) {
+            bound.add(new AlertRule(r.id(), r.type(), r.symbol(), r.exchanges(), r.threshold(), props.getChatId()));
+        }
+        Index next = Index.of(bound);
+        index = next;
+        states.keySet().removeIf(k -> !next.rules().containsKey(k.substring(0, k.indexOf('|'))));
+        loaded = key;
+    }
+
+    private static Path lockFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".lock");
+    }
+
+    public List<AlertRule> list() {
+        sync();
+        return List.copyOf(index.rules().values());
+    }
+
+    public boolean watches(ExchangeType ex) {
+        for (AlertRule rule : index.rules().values()) {
+            if (ex.in(rule.mask())) return true;
+        }
+        return false;
+    }
+
+    public long nearThresholdAt(ExchangeType ex) {
+        return nearThresholdAt.get(ex.ordinal());
+    }
+
+    @EventListener
+    public void onRefresh(MarketDataRefresh refresh) {
+        if (refresh.restored() || !leadership.isLeader()) return;
+        sync();
+        Index idx = index;
+        if (idx.rules().isEmpty()) return;
+        Set<String> touched = new HashSet<>();
+        if (refresh.resync()) {
+            touched.addAll(refresh.snapshot().tickers().keySet());
+            touched.addAll(refresh.snapshot().funding().keySet());
+        }
+        for (ChangeEntry c : refresh.changes()) {
+            if (c.kind() != ChangeEntry.Kind.UPDATED || c.lastPrice() != null || c.fundingRate() != null) {
+                touched.add(c.symbol());
+            }
+        }
+        for (String symbol : touched) {
+            for (AlertRule rule : idx.bySymbol().getOrDefault(symbol, List.of())) evaluate(rule, symbol, refresh.exchange());
+            for (AlertRule rule : idx.anySymbol()) evaluate(rule, symbol, refresh.exchange());
+        }
+    }
+
+    private void evaluate(AlertRule rule, String symbol, ExchangeType changedOn) {
+        if (!changedOn.in(rule.mask())) return;
+        String id = rule.id();
+
+        Reading reading = switch (rule.type()) {
+            case FUNDING_ABOVE -> maxFunding(rule, symbol);
+            case ARBITRAGE_SCORE_ABOVE -> arbitrageScore(rule, symbol);
+        };
+        if (reading == null) return;
+
+        long now = System.currentTimeMillis();
+        if (reading.value().compareTo(rule.threshold().multiply(props.getNearRatio())) >= 0) {
+            for (ExchangeType ex : ExchangeType.values()) {
+                if (ex.in(reading.mask())) nearThresholdAt.set(ex.ordinal(), now);
+            }
+        }
+
+        State state = states.computeIfAbsent(id + "|" + symbol, k -> new State());
+        BigDecimal rearmBelow = rule.threshold().multiply(BigDecimal.ONE.subtract(props.getHysteresis()));
+        String text;
+        synchronized (state) {
+            if (reading.value().compareTo(rearmBelow) < 0) {
+                state.armed = true;
+                return;
+            }
+            if (!state.armed || reading.value().compareTo(rule.threshold()) < 0) return;
+            if (now - state.lastSentAt < props.getCooldown().toMillis()) return;
+            state.armed = false;
+            state.lastSentAt = now;
+            text = render(rule, symbol, reading);
+        }
+        telegram.send(rule.chatId(), text);
+    }
+
+    private Reading maxFunding(AlertRule rule, String symbol) {
+        Reading best = null;
+        for (ExchangeType ex : ExchangeType.values()) {
+            if (!ex.in(rule.mask())) continue;
+            FundingRateData fr = snapshots.current(ex).funding().get(symbol);
+            if (fr == null || fr.fundingRate() == null) continue;
+            BigDecimal v = fr.fundingRate().abs();
+            if (best == null || v.compareTo(best.value()) > 0) best = new Reading(v, ex.name(), ex.bit());
+        }
+        return best;
+    }
+
+    private Reading arbitrageScore(AlertRule rule, String symbol) {
+        Iterator<ExchangeType> it = rule.exchanges().iterator();
+        ExchangeType a = it.next(), b = it.next();
+        Reading ab = score(a, b, symbol), ba = score(b, a, symbol);
+        if (ab == null) return ba;
+        if (ba == null) return ab;
+        return ab.value().compareTo(ba.value()) >= 0 ? ab : ba;
+    }
+
+    private Reading score(ExchangeType longEx, ExchangeType shortEx, String symbol) {
+        ExchangeSnapshot l = snapshots.current(longEx), s = snapshots.current(shortEx);
+        TickerData lt = l.tickers().get(symbol), st = s.tickers().get(symbol);
+        FundingRateData lf = l.funding().get(symbol), sf = s.funding().get(symbol);
+        if (lt == null || st == null || lf == null || sf == null) return null;
+        if (lt.lastPrice().signum() <= 0 || lt.lastPrice().compareTo(st.lastPrice()) >= 0) return null;
+        BigDecimal score = ArbitrageScannerService.pairScore(lt.lastPrice(), lf.fundingRate(), st.lastPrice(), sf.fundingRate());
+        return new Reading(score, "long " + longEx + " / short " + shortEx, longEx.bit() | shortEx.bit());
+    }
+
+    private static String render(AlertRule rule, String symbol, Reading r) {
+        String what = rule.type() == AlertRule.Type.FUNDING_ABOVE ? "Funding" : "Arbitrage score";
+        return """
+                <b>🔔 %s %s</b>
+                %s: <b>%s</b> ≥ %s
+                """.formatted(what, symbol, r.where(), pct(r.value()), pct(rule.threshold()));
+    }
+
+    private static String pct(BigDecimal v) {
+        return v.movePointRight(2).setScale(4, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString() + "%";
+    }
+
+    private record Reading(BigDecimal value, String where, int mask) {
+    }
+
+    private record Index(Map<String, AlertRule> rules, Map<String, List<AlertRule>> bySymbol, List<AlertRule> anySymbol) {
+        static Index of(List<AlertRule> rules) {
+            Map<String, AlertRule> byId = new LinkedHashMap<>();
+            Map<String, List<AlertRule>> bySymbol = new HashMap<>();
+            List<AlertRule> any = new ArrayList<>();
+            for (AlertRule r : rules) {
+                byId.put(r.id(), r);
+                if (r.anySymbol()) any.add(r);
+                else bySymbol.computeIfAbsent(r.symbol(), k -> new ArrayList<>()).add(r);
+            }
+            return new Index(byId, bySymbol, any);
+        }
+    }
+
+    private static final class State {
+        private boolean armed = true;
+        private long lastSentAt;
+    }
+}
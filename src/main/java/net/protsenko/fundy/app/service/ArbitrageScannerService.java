@@ -1,28 +1,32 @@
 package net.protsenko.fundy.app.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
 import net.protsenko.fundy.app.dto.BucketEntry;
 import net.protsenko.fundy.app.dto.CanonicalInstrument;
-import net.protsenko.fundy.app.dto.InstrumentType;
+import net.protsenko.fundy.app.dto.ExchangeSnapshot;
+import net.protsenko.fundy.app.dto.OrderBook;
+import net.protsenko.fundy.app.dto.PerpUniverse;
 import net.protsenko.fundy.app.dto.rq.ArbitrageFilterRequest;
 import net.protsenko.fundy.app.dto.rs.ArbitrageData;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
-import net.protsenko.fundy.app.dto.rs.InstrumentData;
+import net.protsenko.fundy.app.dto.rs.JsonRows;
 import net.protsenko.fundy.app.dto.rs.TickerData;
+import net.protsenko.fundy.app.exception.ExchangeException;
 import net.protsenko.fundy.app.exchange.ExchangeClient;
 import net.protsenko.fundy.app.exchange.ExchangeClientFactory;
 import net.protsenko.fundy.app.exchange.ExchangeType;
 import net.protsenko.fundy.app.utils.ExchangeLinkResolver;
-import net.protsenko.fundy.app.utils.SymbolNormalizer;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -30,79 +34,143 @@ import java.util.stream.Stream;
 @Service
 public class ArbitrageScannerService extends BaseExchangeService {
     private static final MathContext MC = new MathContext(8, RoundingMode.HALF_UP);
+    private static final int MAX_CACHED_VIEWS = 64;
 
+    private final MarketSnapshotService snapshots;
+    private final DepthService depth;
     private final UniverseService universeService;
-
-    public ArbitrageScannerService(ExchangeClientFactory factory, UniverseService universeService) {
+    private final ObjectWriter writer;
+    private final Map<Integer, Views> views = new ConcurrentHashMap<>();
+    private final Map<Integer, CompletableFuture<Views>> building = new ConcurrentHashMap<>();
+
+    public ArbitrageScannerService(ExchangeClientFactory factory,
+                                   MarketSnapshotService snapshots,
+                                   DepthService depth,
+                                   UniverseService universeService,
+                                   ObjectMapper objectMapper) {
         super(factory);
+        this.snapshots = snapshots;
+        this.depth = depth;
         this.universeService = universeService;
+        this.writer = objectMapper.writerFor(ArbitrageData.class);
     }
 
-    public List<ArbitrageData> getArbitrageOpportunities(ArbitrageFilterRequest f) {
+    public JsonRows getArbitrageOpportunities(ArbitrageFilterRequest f) {
         BigDecimal minFr = f.minFr();
         BigDecimal minPr = f.minPr();
 
-        Map<String, Map<ExchangeType, String>> uni = universeService.perpUniverse(f.effectiveExchanges());
+        if (f.notional() != null) {
+            List<ArbitrageData> result = scan(load(f.effectiveExchanges()), f.notional()).stream()
+                    .filter(a -> a.fundingSpread().compareTo(minFr) >= 0 && passesPrice(a, f.notional(), minPr))
+                    .toList();
+            depth.markHot(result);
+            return JsonRows.of(result.stream().map(a -> JsonRows.encode(writer, a)).toList());
+        }
 
-        Map<String, List<BucketEntry>> bySymbol = across(f.effectiveExchanges(),
-                c -> loadExchangeData(c, uni))
-                .collect(Collectors.groupingByConcurrent(BucketEntry::symbol));
+        return filter(views(f.effectiveExchanges()), minFr, minPr);
+    }
 
-        return bySymbol.entrySet().parallelStream()
-                .map(this::buildView)
-                .filter(Objects::nonNull)
-                .filter(a -> a.fundingSpread().compareTo(minFr) >= 0
-                        && a.priceSpread().compareTo(minPr) >= 0)
-                .sorted(Comparator.comparing(ArbitrageData::fundingSpread).reversed())
-                .toList();
+    public JsonRows lastOpportunities(ArbitrageFilterRequest f) {
+        if (f.notional() != null) return null;
+        Views cached = views.get(ExchangeType.mask(f.effectiveExchanges()));
+        return cached == null ? null : filter(cached, f.minFr(), f.minPr());
+    }
+
+    public List<ArbitrageData> opportunities(Map<ExchangeType, ExchangeSnapshot> data) {
+        return views(ExchangeType.mask(data.keySet()), data).rows().stream().map(Row::data).toList();
+    }
+
+    private static JsonRows filter(Views views, BigDecimal minFr, BigDecimal minPr) {
+        List<byte[]> out = new ArrayList<>();
+        for (Row r : views.rows()) {
+            if (r.data().fundingSpread().compareTo(minFr) < 0) break;
+            if (passesPrice(r.data(), null, minPr)) out.add(r.json());
+        }
+        return JsonRows.of(out);
+    }
+
+    private static boolean passesPrice(ArbitrageData a, BigDecimal notional, BigDecimal minPr) {
+        BigDecimal spread = notional == null ? a.priceSpread() : a.executableSpread();
+        return spread != null && spread.compareTo(minPr) >= 0;
     }
 
-    private InstrumentData makeInstr(String canonicalKey, String nativeSymbol, ExchangeType ex) {
-        String[] p = canonicalKey.split("/");
-        String base = p.length > 0 ? p[0] : "";
-        String quote = p.length > 1 ? p[1] : "USDT";
-        return new InstrumentData(base, quote, InstrumentType.PERPETUAL, nativeSymbol, ex);
+    private Views views(Set<ExchangeType> exchanges) {
+        return views(ExchangeType.mask(exchanges), load(exchanges));
     }
 
-    private Stream<BucketEntry> loadExchangeData(ExchangeClient client, Map<String, Map<ExchangeType, String>> uni) {
+    private Views views(int mask, Map<ExchangeType, ExchangeSnapshot> data) {
+        long[] stamp = new long[ExchangeType.values().length];
+        data.forEach((ex, s) -> stamp[ex.ordinal()] = s.version() + 1);
+
+        Views cached = views.get(mask);
+        if (cached != null && Arrays.equals(cached.stamp(), stamp)) return cached;
+
+        CompletableFuture<Views> mine = new CompletableFuture<>();
+        CompletableFuture<Views> running = building.putIfAbsent(mask, mine);
+        if (running == null) {
+            try {
+                Views built = new Views(stamp, scan(data, null).stream().map(a -> new Row(a, JsonRows.encode(writer, a))).toList());
+                if (views.size() > MAX_CACHED_VIEWS) views.clear();
+                views.put(mask, built);
+                mine.complete(built);
+                return built;
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                building.remove(mask, mine);
+            }
+        }
         try {
-            ExchangeType ex = client.getExchangeType();
-
-            List<InstrumentData> instruments = uni.entrySet().stream()
-                    .map(e -> {
-                        String nativeSymbol = e.getValue().get(ex);
-                        return nativeSymbol == null ? null : makeInstr(e.getKey(), nativeSymbol, ex);
-                    })
-                    .filter(Objects::nonNull)
-                    .toList();
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExchangeException("Request cancelled", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new ExchangeException("Scan failed", e.getCause());
+        }
+    }
 
-            if (instruments.isEmpty()) return Stream.empty();
-
-            Map<String, FundingRateData> fundBySymbol = client.getFundingRates(instruments).stream()
-                    .collect(Collectors.toMap(
-                            FundingRateData::canonicalKey,
-                            fr -> fr,
-                            (a, b) -> a
-                    ));
-
-            List<TickerData> tickers = client.getTickers(instruments);
-
-            return tickers.stream()
-                    .map(tk -> {
-                        String symbol = SymbolNormalizer.canonicalKey(tk.instrument());
-                        FundingRateData fr = fundBySymbol.get(symbol);
-                        BigDecimal frValue = (fr == null) ? null : fr.fundingRate();
-                        long nextFundingTs = (fr == null) ? 0L : fr.nextFundingTs();
-                        return new BucketEntry(symbol, client.getExchangeType(), tk.lastPrice(), frValue, nextFundingTs);
-                    })
-                    .filter(be -> be.price().compareTo(BigDecimal.ZERO) > 0);
+    private Map<ExchangeType, ExchangeSnapshot> load(Set<ExchangeType> exchanges) {
+        return across(exchanges, this::loadSnapshot)
+                .collect(Collectors.toMap(ExchangeSnapshot::exchange, s -> s, (a, b) -> a,
+                        () -> new EnumMap<>(ExchangeType.class)));
+    }
+
+    private Stream<ExchangeSnapshot> loadSnapshot(ExchangeClient client) {
+        try {
+            return Stream.of(snapshots.snapshot(client.getExchangeType()));
         } catch (Exception e) {
             log.warn("Не удалось получить данные с биржи {}", client.getExchangeType(), e);
             return Stream.empty();
         }
     }
 
-    private ArbitrageData buildView(Map.Entry<String, List<BucketEntry>> e) {
+    private List<ArbitrageData> scan(Map<ExchangeType, ExchangeSnapshot> data, BigDecimal notional) {
+        PerpUniverse universe = universeService.current();
+        Map<String, List<BucketEntry>> bySymbol = data.values().parallelStream()
+                .flatMap(ArbitrageScannerService::entries)
+                .collect(Collectors.groupingByConcurrent(BucketEntry::symbol));
+
+        return bySymbol.entrySet().parallelStream()
+                .map(e -> buildView(e, notional, universe))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(ArbitrageData::fundingSpread).reversed())
+                .toList();
+    }
+
+    private static Stream<BucketEntry> entries(ExchangeSnapshot snapshot) {
+        return snapshot.tickers().entrySet().stream()
+                .map(e -> {
+                    FundingRateData fr = snapshot.funding().get(e.getKey());
+                    BigDecimal frValue = (fr == null) ? null : fr.fundingRate();
+                    long nextFundingTs = (fr == null) ? 0L : fr.nextFundingTs();
+                    return new BucketEntry(e.getKey(), snapshot.exchange(), e.getValue().lastPrice(), frValue, nextFundingTs);
+                })
+                .filter(be -> be.price().compareTo(BigDecimal.ZERO) > 0);
+    }
+
+    private ArbitrageData buildView(Map.Entry<String, List<BucketEntry>> e, BigDecimal notional, PerpUniverse universe) {
         String symbol = e.getKey();
         List<BucketEntry> list = e.getValue();
 
@@ -132,42 +200,63 @@ public class ArbitrageScannerService extends BaseExchangeService {
         ArbitrageData.Decision decision = pickBestPair(list);
         if (decision == null) return null;
 
-        Map<ExchangeType, BigDecimal> priceMap = list.stream()
-                .collect(Collectors.toMap(BucketEntry::ex, BucketEntry::price, (a, b) -> a));
-        Map<ExchangeType, BigDecimal> frMap = list.stream()
-                .filter(it -> it.funding() != null)
-                .collect(Collectors.toMap(BucketEntry::ex, BucketEntry::funding, BigDecimal::max));
-        Map<ExchangeType, Long> nextFundingMap = list.stream()
-                .collect(Collectors.toMap(BucketEntry::ex, BucketEntry::nextFundingTs, Math::min));
-
-        Map<ExchangeType, String> linkMap = list.stream()
-                .map(BucketEntry::ex)
-                .distinct()
-                .collect(Collectors.toMap(
-                        ex -> ex,
-                        ex -> ExchangeLinkResolver.link(
-                                ex,
-                                new InstrumentData(
-                                        instr.base(), instr.quote(),
-                                        InstrumentType.PERPETUAL,
-                                        instr.base() + instr.quote(),
-                                        ex
-                                )
-                        )
-                ));
+        PerpUniverse.Entry entry = universe.get(symbol);
+        Map<ExchangeType, BigDecimal> priceMap = new EnumMap<>(ExchangeType.class);
+        Map<ExchangeType, BigDecimal> frMap = new EnumMap<>(ExchangeType.class);
+        Map<ExchangeType, Long> nextFundingMap = new EnumMap<>(ExchangeType.class);
+        Map<ExchangeType, String> linkMap = new EnumMap<>(ExchangeType.class);
+        for (BucketEntry b : list) {
+            priceMap.putIfAbsent(b.ex(), b.price());
+            if (b.funding() != null) frMap.merge(b.ex(), b.funding(), BigDecimal::max);
+            nextFundingMap.merge(b.ex(), b.nextFundingTs(), Math::min);
+            linkMap.computeIfAbsent(b.ex(), ex -> entry != null
+                    ? entry.link(ex)
+                    : ExchangeLinkResolver.link(ex, instr.base(), instr.quote()));
+        }
 
         return new ArbitrageData(
                 instr,
-                Map.copyOf(priceMap),
-                Map.copyOf(frMap),
-                Map.copyOf(nextFundingMap),
+                Collections.unmodifiableMap(priceMap),
+                Collections.unmodifiableMap(frMap),
+                Collections.unmodifiableMap(nextFundingMap),
                 priceSpread,
+                executableSpread(symbol, decision, notional),
                 fundingSpread,
                 decision,
-                Map.copyOf(linkMap)
+                Collections.unmodifiableMap(linkMap)
         );
     }
 
+    private BigDecimal executableSpread(String symbol, ArbitrageData.Decision d, BigDecimal notional) {
+        double buy = entryPrice(symbol, d.longEx(), true, notional);
+        double sell = entryPrice(symbol, d.shortEx(), false, notional);
+        if (buy <= 0 || sell <= 0) return null;
+        return new BigDecimal((sell - buy) / buy, MC);
+    }
+
+    private double entryPrice(String symbol, ExchangeType ex, boolean buy, BigDecimal notional) {
+        OrderBook book = depth.book(ex, symbol);
+        if (book != null && notional != null) {
+            OrderBook.Fill fill = buy ? book.buy(notional.doubleValue()) : book.sell(notional.doubleValue());
+            return fill.complete() ? fill.avgPrice() : 0;
+        }
+        if (book != null) return buy ? book.bestAsk() : book.bestBid();
+
+        TickerData t = snapshots.current(ex).tickers().get(symbol);
+        if (t == null) return 0;
+        BigDecimal top = buy ? t.ask() : t.bid();
+        if (top == null || top.signum() <= 0) top = t.lastPrice();
+        return top == null ? 0 : top.doubleValue();
+    }
+
+    static BigDecimal pairScore(BigDecimal longPrice, BigDecimal longFunding,
+                                BigDecimal shortPrice, BigDecimal shortFunding) {
+        BigDecimal fundingProfit = shortFunding.subtract(longFunding, MC);
+        BigDecimal priceProfit = shortPrice.subtract(longPrice, MC)
+                .divide(longPrice, MC);
+        return fundingProfit.add(priceProfit, MC);
+    }
+
     private ArbitrageData.Decision pickBestPair(List<BucketEntry> list) {
         BigDecimal bestScore = null;
         ExchangeType bestLong = null, bestShort = null;
@@ -182,10 +271,7 @@ public class ArbitrageScannerService extends BaseExchangeService {
                 if (L.funding() == null || S.funding() == null) continue;
                 if (L.price().compareTo(S.price()) >= 0) continue;
 
-                BigDecimal fundingProfit = S.funding().subtract(L.funding(), MC);
-                BigDecimal priceProfit = S.price().subtract(L.price(), MC)
-                        .divide(L.price(), MC);
-                BigDecimal score = fundingProfit.add(priceProfit, MC);
+                BigDecimal score = pairScore(L.price(), L.funding(), S.price(), S.funding());
 
                 if (bestScore == null || score.compareTo(bestScore) > 0) {
                     bestScore = score;
@@ -196,4 +282,10 @@ public class ArbitrageScannerService extends BaseExchangeService {
         }
         return bestLong == null ? null : new ArbitrageData.Decision(bestLong, bestShort);
     }
+
+    private record Views(long[] stamp, List<Row> rows) {
+    }
+
+    private record Row(ArbitrageData data, byte[] json) {
+    }
 }
@@ -6,7 +6,13 @@ import net.protsenko.fundy.app.exchange.ExchangeClient;
 import net.protsenko.fundy.app.exchange.ExchangeClientFactory;
 import net.protsenko.fundy.app.exchange.ExchangeType;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -31,14 +37,30 @@ abstract class BaseExchangeService {
 
     protected <T> Stream<T> across(Set<ExchangeType> exchanges,
                                    Function<ExchangeClient, Stream<T>> fn) {
-        return exchanges.parallelStream()
-                .flatMap(ex -> {
-                    try {
-                        return safe(fn.apply(client(ex)));
-                    } catch (Exception e) {
-                        log.warn("Skip {}: {}", ex, e.getMessage());
-                        return Stream.empty();
-                    }
-                });
+        if (exchanges.size() == 1) return call(exchanges.iterator().next(), fn).stream();
+        try (ExecutorService fanout = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<T>>> parts = new ArrayList<>(exchanges.size());
+            for (ExchangeType ex : exchanges) parts.add(fanout.submit(() -> call(ex, fn)));
+            List<T> out = new ArrayList<>();
+            try {
+                for (Future<List<T>> part : parts) out.addAll(part.get());
+            } catch (InterruptedException e) {
+                fanout.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new ExchangeException("Request cancelled", e);
+            } catch (ExecutionException e) {
+                throw new ExchangeException("Fan-out failed", e.getCause());
+            }
+            return out.stream();
+        }
+    }
+
+    private <T> List<T> call(ExchangeType ex, Function<ExchangeClient, Stream<T>> fn) {
+        try {
+            return safe(fn.apply(client(ex))).toList();
+        } catch (Exception e) {
+            log.warn("Skip {}: {}", ex, e.getMessage());
+            return List.of();
+        }
     }
 }
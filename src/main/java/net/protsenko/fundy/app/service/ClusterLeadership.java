@@ -0,0 +1,130 @@
+package net.protsenko.fundy.app.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.ClusterProperties;
+import net.protsenko.fundy.app.dto.LeadershipGranted;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+
+@Slf4j
+@Service
+public class ClusterLeadership {
+
+    private final ClusterProperties props;
+    private final TaskScheduler scheduler;
+    private final ApplicationEventPublisher events;
+
+    private volatile boolean leader;
+    private FileChannel channel;
+    private FileLock lock;
+    private ScheduledFuture<?> retry;
+
+    public ClusterLeadership(ClusterProperties props, TaskScheduler scheduler, ApplicationEventPublisher events) {
+        this.props = props;
+        this.scheduler = scheduler;
+        this.events = events;
+    }
+
+    public boolean enabled() {
+        return props.isEnabled();
+    }
+
+    public boolean isLeader() {
+        return !props.isEnabled() || leader;
+    }
+
+    public String address() {
+        return advertiseHost() + ":" + props.getFeedPort();
+    }
+
+    public String leaderAddress() {
+        try {
+            String s = Files.readString(Path.of(props.getLeaseFile()), StandardCharsets.UTF_8).trim();
+            return s.isEmpty() ? null : s;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!props.isEnabled()) return;
+        log.info("Cluster lease is a file lock on {}: replicas must share one host and volume", props.getLeaseFile());
+        tryAcquire();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void watchLease() {
+        if (!props.isEnabled() || leader) return;
+        retry = scheduler.scheduleWithFixedDelay(() -> {
+            if (tryAcquire()) {
+                retry.cancel(false);
+                events.publishEvent(new LeadershipGranted(address()));
+            }
+        }, Instant.now().plus(props.getLeaseCheckInterval()), props.getLeaseCheckInterval());
+    }
+
+    @PreDestroy
+    public void release() {
+        try {
+            if (lock != null) {
+                channel.truncate(0);
+                lock.release();
+            }
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            log.warn("Leader lease release failed: {}", e.getMessage());
+        }
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (leader) return true;
+        try {
+            Path file = Path.of(props.getLeaseFile());
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            if (channel == null) {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            lock = channel.tryLock();
+            if (lock == null) return false;
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(address().getBytes(StandardCharsets.UTF_8)), 0);
+            channel.force(true);
+            leader = true;
+            log.info("Cluster leader lease acquired, feed at {}", address());
+            return true;
+        } catch (OverlappingFileLockException e) {
+            return false;
+        } catch (IOException e) {
+            log.warn("Leader lease check failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private String advertiseHost() {
+        if (props.getAdvertiseHost() != null && !props.getAdvertiseHost().isBlank()) return props.getAdvertiseHost();
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "localhost";
+        }
+    }
+}
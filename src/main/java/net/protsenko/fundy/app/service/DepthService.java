@@ -0,0 +1,108 @@
+package net.protsenko.fundy.app.service;
+
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.DepthProperties;
+import net.protsenko.fundy.app.dto.DepthLevels;
+import net.protsenko.fundy.app.dto.OrderBook;
+import net.protsenko.fundy.app.dto.PerpUniverse;
+import net.protsenko.fundy.app.dto.rs.ArbitrageData;
+import net.protsenko.fundy.app.exchange.ExchangeClientFactory;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+@Slf4j
+@Service
+public class DepthService extends BaseExchangeService {
+
+    private final UniverseService universeService;
+    private final Executor executor;
+    private final TaskScheduler scheduler;
+    private final DepthProperties props;
+
+    private final Map<BookKey, Long> hot = new ConcurrentHashMap<>();
+    private final Map<BookKey, OrderBook> books = new ConcurrentHashMap<>();
+    private final Set<BookKey> inFlight = ConcurrentHashMap.newKeySet();
+
+    public DepthService(ExchangeClientFactory factory,
+                        UniverseService universeService,
+                        @Qualifier("exchangeExecutor") Executor executor,
+                        TaskScheduler scheduler,
+                        DepthProperties props) {
+        super(factory);
+        this.universeService = universeService;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.props = props;
+    }
+
+    public OrderBook book(ExchangeType ex, String symbol) {
+        OrderBook b = books.get(new BookKey(ex, symbol));
+        if (b == null || System.currentTimeMillis() - b.updatedAt() > props.getMaxAge().toMillis()) return null;
+        return b;
+    }
+
+    public void markHot(List<ArbitrageData> ranked) {
+        long now = System.currentTimeMillis();
+        int limit = Math.min(ranked.size(), props.getMaxHotSymbols());
+        for (int i = 0; i < limit; i++) {
+            ArbitrageData a = ranked.get(i);
+            String symbol = a.instrument().canonicalKey();
+            mark(new BookKey(a.decision().longEx(), symbol), now);
+            mark(new BookKey(a.decision().shortEx(), symbol), now);
+        }
+    }
+
+    public int hotBooks() {
+        return hot.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleRefresh() {
+        scheduler.scheduleWithFixedDelay(this::refreshHot,
+                Instant.now().plus(props.getRefreshInterval()), props.getRefreshInterval());
+    }
+
+    private void mark(BookKey key, long now) {
+        if (hot.size() >= props.getMaxHotSymbols() * 2 && !hot.containsKey(key)) return;
+        if (hot.put(key, now) == null) fetchAsync(key);
+    }
+
+    private void refreshHot() {
+        long cutoff = System.currentTimeMillis() - props.getHotTtl().toMillis();
+        hot.entrySet().removeIf(e -> e.getValue() < cutoff);
+        books.keySet().retainAll(hot.keySet());
+        hot.keySet().forEach(this::fetchAsync);
+    }
+
+    private void fetchAsync(BookKey key) {
+        if (!inFlight.add(key)) return;
+        CompletableFuture.runAsync(() -> fetch(key), executor).whenComplete((r, e) -> inFlight.remove(key));
+    }
+
+    private void fetch(BookKey key) {
+        try {
+            PerpUniverse.Entry entry = universeService.universe().get(key.symbol());
+            if (entry == null || !entry.has(key.exchange())) return;
+            DepthLevels levels = client(key.exchange()).getDepth(entry.instrument(key.exchange()), props.getLevels());
+            if (levels == null) return;
+            books.computeIfAbsent(key, k -> new OrderBook(props.getLevels())).replace(levels);
+        } catch (Exception e) {
+            log.warn("Depth refresh skip {} {}: {}", key.exchange(), key.symbol(), e.getMessage());
+        }
+    }
+
+    private record BookKey(ExchangeType exchange, String symbol) {
+    }
+}
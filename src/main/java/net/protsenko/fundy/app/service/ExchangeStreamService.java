@@ -0,0 +1,136 @@
+package net.protsenko.fundy.app.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.StreamProperties;
+import net.protsenko.fundy.app.dto.LeadershipGranted;
+import net.protsenko.fundy.app.dto.UniverseChange;
+import net.protsenko.fundy.app.exchange.ExchangeClient;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.stream.StreamSession;
+import net.protsenko.fundy.app.exchange.stream.StreamTable;
+import net.protsenko.fundy.app.exchange.stream.StreamTables;
+import net.protsenko.fundy.app.exchange.stream.StreamingExchangeClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.net.http.HttpClient;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+@Slf4j
+@Service
+public class ExchangeStreamService {
+
+    private final List<StreamingExchangeClient> clients;
+    private final StreamTables tables;
+    private final UniverseService universeService;
+    private final MarketSnapshotService snapshots;
+    private final ClusterLeadership leadership;
+    private final HttpClient http;
+    private final Executor executor;
+    private final TaskScheduler scheduler;
+    private final StreamProperties props;
+
+    private final Map<ExchangeType, StreamSession> sessions = new ConcurrentHashMap<>();
+    private final Map<ExchangeType, Long> published = new ConcurrentHashMap<>();
+    private final Set<ExchangeType> publishing = ConcurrentHashMap.newKeySet();
+
+    public ExchangeStreamService(List<ExchangeClient> clients,
+                                 StreamTables tables,
+                                 UniverseService universeService,
+                                 MarketSnapshotService snapshots,
+                                 ClusterLeadership leadership,
+                                 HttpClient http,
+                                 @Qualifier("exchangeExecutor") Executor executor,
+                                 TaskScheduler scheduler,
+                                 StreamProperties props) {
+        this.clients = clients.stream()
+                .filter(StreamingExchangeClient.class::isInstance)
+                .map(StreamingExchangeClient.class::cast)
+                .toList();
+        this.tables = tables;
+        this.universeService = universeService;
+        this.snapshots = snapshots;
+        this.leadership = leadership;
+        this.http = http;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.props = props;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!props.isEnabled() || clients.isEmpty()) return;
+        if (leadership.isLeader()) open();
+        scheduler.scheduleWithFixedDelay(this::publish, props.getPublishInterval());
+    }
+
+    @EventListener
+    public void onLeadership(LeadershipGranted granted) {
+        if (props.isEnabled()) open();
+    }
+
+    @EventListener
+    public void onUniverseChange(UniverseChange change) {
+        StreamSession session = sessions.get(change.exchange());
+        if (session != null && !change.isEmpty()) session.sync(nativeSymbols(change.exchange()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        sessions.values().forEach(StreamSession::stop);
+    }
+
+    public Set<ExchangeType> streaming() {
+        Set<ExchangeType> out = EnumSet.noneOf(ExchangeType.class);
+        for (ExchangeType ex : sessions.keySet()) if (tables.live(ex)) out.add(ex);
+        return out;
+    }
+
+    private synchronized void open() {
+        for (StreamingExchangeClient client : clients) {
+            if (!Boolean.TRUE.equals(client.isEnabled())) continue;
+            ExchangeType ex = client.getExchangeType();
+            sessions.computeIfAbsent(ex, k -> {
+                StreamSession session = new StreamSession(ex, client.streamMapper(), tables.table(ex),
+                        http, scheduler, props, () -> executor.execute(() -> resync(client)));
+                session.sync(nativeSymbols(ex));
+                session.start();
+                return session;
+            });
+        }
+    }
+
+    private Set<String> nativeSymbols(ExchangeType ex) {
+        return new HashSet<>(universeService.nativeSymbols(ex).values());
+    }
+
+    private void resync(StreamingExchangeClient client) {
+        try {
+            tables.table(client.getExchangeType()).resync(client::streamSnapshot);
+        } catch (Exception e) {
+            log.warn("{} stream resync failed: {}", client.getExchangeType(), e.getMessage());
+        }
+    }
+
+    private void publish() {
+        for (ExchangeType ex : sessions.keySet()) {
+            StreamTable table = tables.table(ex);
+            long version = table.version();
+            if (!tables.live(ex) || published.getOrDefault(ex, -1L) == version || !publishing.add(ex)) continue;
+            executor.execute(() -> {
+                try {
+                    published.put(ex, version);
+                    snapshots.refreshQuietly(ex);
+                } finally {
+                    publishing.remove(ex);
+                }
+            });
+        }
+    }
+}
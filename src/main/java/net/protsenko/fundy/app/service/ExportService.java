@@ -0,0 +1,119 @@
+package net.protsenko.fundy.app.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.dto.ExchangeSnapshot;
+import net.protsenko.fundy.app.dto.rs.ArbitrageData;
+import net.protsenko.fundy.app.dto.rs.FundingRateData;
+import net.protsenko.fundy.app.dto.rs.TickerData;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.ExportWriter;
+import net.protsenko.fundy.app.utils.ExportWriter.Format;
+import net.protsenko.fundy.app.utils.RollupStore.Resolution;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+@Slf4j
+@Service
+public class ExportService {
+
+    private static final String[] ARBITRAGE = {"token", "longExchange", "shortExchange", "fundingSpread", "priceSpread",
+            "longPrice", "shortPrice", "longFundingRate", "shortFundingRate", "nextFundingTs"};
+    private static final String[] FUNDING = {"exchange", "symbol", "base", "quote", "fundingRate", "nextFundingTs"};
+    private static final String[] TICKERS = {"exchange", "symbol", "base", "quote", "lastPrice", "bid", "ask",
+            "high24h", "low24h", "volume24h"};
+    private static final String[] HISTORY = {"exchange", "symbol", "resolution", "ts", "min", "max", "avg", "count"};
+
+    private final ArbitrageScannerService arbitrage;
+    private final MarketSnapshotService snapshots;
+    private final FundingHistoryService history;
+    private final JsonFactory json;
+
+    public ExportService(ArbitrageScannerService arbitrage,
+                         MarketSnapshotService snapshots,
+                         FundingHistoryService history,
+                         ObjectMapper objectMapper) {
+        this.arbitrage = arbitrage;
+        this.snapshots = snapshots;
+        this.history = history;
+        this.json = objectMapper.getFactory();
+    }
+
+    public Pinned pin(Set<ExchangeType> exchanges) {
+        exchanges.forEach(this::snapshot);
+        Map<ExchangeType, ExchangeSnapshot> data = new EnumMap<>(ExchangeType.class);
+        for (ExchangeType ex : exchanges) data.put(ex, snapshots.current(ex));
+        return new Pinned(data.values().stream().mapToLong(ExchangeSnapshot::version).max().orElse(0), data);
+    }
+
+    public long arbitrage(Pinned data, Format format, long offset, OutputStream out) throws IOException {
+        List<ArbitrageData> rows = arbitrage.opportunities(data.snapshots()).stream()
+                .sorted(Comparator.comparing(ArbitrageData::token)
+                        .thenComparing(a -> a.decision().longEx())
+                        .thenComparing(a -> a.decision().shortEx()))
+                .toList();
+        try (ExportWriter w = new ExportWriter(out, format, json, offset, ARBITRAGE)) {
+            for (ArbitrageData a : rows) {
+                ExchangeType longEx = a.decision().longEx(), shortEx = a.decision().shortEx();
+                Long next = a.nextFundingTs().values().stream().filter(ts -> ts > 0).min(Long::compare).orElse(null);
+                w.row(a.token(), longEx, shortEx, a.fundingSpread(), a.priceSpread(),
+                        a.prices().get(longEx), a.prices().get(shortEx),
+                        a.fundingRates().get(longEx), a.fundingRates().get(shortEx), next);
+            }
+            return w.written();
+        }
+    }
+
+    public long funding(Pinned data, Format format, long offset, OutputStream out) throws IOException {
+        try (ExportWriter w = new ExportWriter(out, format, json, offset, FUNDING)) {
+            for (ExchangeSnapshot s : data.snapshots().values()) {
+                for (FundingRateData fr : sorted(s.funding())) {
+                    w.row(s.exchange(), fr.symbol(), fr.instrument().baseAsset(), fr.instrument().quoteAsset(),
+                            fr.fundingRate(), fr.nextFundingTs());
+                }
+            }
+            return w.written();
+        }
+    }
+
+    public long tickers(Pinned data, Format format, long offset, OutputStream out) throws IOException {
+        try (ExportWriter w = new ExportWriter(out, format, json, offset, TICKERS)) {
+            for (ExchangeSnapshot s : data.snapshots().values()) {
+                for (TickerData t : sorted(s.tickers())) {
+                    w.row(s.exchange(), t.instrument().nativeSymbol(), t.instrument().baseAsset(), t.instrument().quoteAsset(),
+                            t.lastPrice(), t.bid(), t.ask(), t.high24h(), t.low24h(), t.volume24h());
+                }
+            }
+            return w.written();
+        }
+    }
+
+    public long history(Set<ExchangeType> exchanges, Resolution resolution, long from, long to,
+                        Format format, long offset, OutputStream out) throws IOException {
+        Resolution res = resolution != null ? resolution : history.resolutionFor(from, to);
+        try (ExportWriter w = new ExportWriter(out, format, json, offset, HISTORY)) {
+            history.export(exchanges, res, from, to, (ex, symbol, b) ->
+                    w.row(ex, symbol, res.label(), b.start(), b.min(), b.max(), b.sum() / b.count(), b.count()));
+            return w.written();
+        }
+    }
+
+    private static <T> Iterable<T> sorted(Map<String, T> rows) {
+        return rows.keySet().stream().sorted().map(rows::get)::iterator;
+    }
+
+    private void snapshot(ExchangeType ex) {
+        try {
+            snapshots.snapshot(ex);
+        } catch (Exception e) {
+            log.warn("Export refresh skip {}: {}", ex, e.getMessage());
+        }
+    }
+
+    public record Pinned(long version, Map<ExchangeType, ExchangeSnapshot> snapshots) {
+    }
+}
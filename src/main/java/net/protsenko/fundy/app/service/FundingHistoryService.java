@@ -0,0 +1,279 @@
+package net.protsenko.fundy.app.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.FundingHistoryProperties;
+import net.protsenko.fundy.app.dto.MarketDataRefresh;
+import net.protsenko.fundy.app.dto.rq.FundingHistoryRequest;
+import net.protsenko.fundy.app.dto.rs.ChangeEntry;
+import net.protsenko.fundy.app.dto.rs.FundingHistoryResponse;
+import net.protsenko.fundy.app.dto.rs.FundingRateData;
+import net.protsenko.fundy.app.dto.rs.FundingRollup;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.RollupStore;
+import net.protsenko.fundy.app.utils.RollupStore.Bucket;
+import net.protsenko.fundy.app.utils.RollupStore.Resolution;
+import net.protsenko.fundy.app.utils.UniverseNormalizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Service
+public class FundingHistoryService {
+
+    private static final Resolution[] RESOLUTIONS = Resolution.values();
+
+    private final FundingHistoryProperties props;
+    private final TaskScheduler scheduler;
+    private final ClusterLeadership leadership;
+    private final RollupStore store;
+    private final Map<Series, Open> open = new ConcurrentHashMap<>();
+    private final Queue<Closed> closed = new ConcurrentLinkedQueue<>();
+    private final ReadWriteLock flushing = new ReentrantReadWriteLock();
+
+    public FundingHistoryService(FundingHistoryProperties props, TaskScheduler scheduler, ClusterLeadership leadership) {
+        this.props = props;
+        this.scheduler = scheduler;
+        this.leadership = leadership;
+        this.store = new RollupStore(Path.of(props.getDir()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleFlush() {
+        if (!props.isEnabled()) return;
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, props.getFlushInterval());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!props.isEnabled()) return;
+        open.values().forEach(o -> o.closeAll(closed));
+        flushQuietly();
+    }
+
+    @EventListener
+    public void onRefresh(MarketDataRefresh refresh) {
+        if (!props.isEnabled() || refresh.restored() || !leadership.isLeader()) return;
+        long now = System.currentTimeMillis();
+        Map<String, FundingRateData> funding = refresh.snapshot().funding();
+        Set<String> observed = refresh.resync() ? funding.keySet() : new HashSet<>();
+        for (ChangeEntry c : refresh.changes()) {
+            if (c.kind() == ChangeEntry.Kind.REMOVED) {
+                Open o = open.remove(new Series(refresh.exchange(), c.symbol()));
+                if (o != null) o.closeAll(closed);
+            } else if (c.fundingRate() != null && !refresh.resync()) {
+                observed.add(c.symbol());
+            }
+        }
+        for (String symbol : observed) {
+            FundingRateData fr = funding.get(symbol);
+            if (fr == null || fr.fundingRate() == null) continue;
+            open.computeIfAbsent(new Series(refresh.exchange(), symbol), Open::new)
+                    .observe(fr.fundingRate().doubleValue(), now, closed);
+        }
+    }
+
+    public List<FundingHistoryResponse> history(FundingHistoryRequest req) {
+        String key = key(req.symbol());
+        long from = req.effectiveFrom(), to = req.effectiveTo();
+        Resolution res = req.resolution() != null ? Resolution.of(req.resolution()) : resolutionFor(from, to);
+        from = Math.max(clampFrom(res, from), to - props.getMaxPoints() * res.millis());
+        if (key == null || from >= to) return List.of();
+
+        List<FundingHistoryResponse> out = new ArrayList<>();
+        for (ExchangeType ex : req.effectiveExchanges()) {
+            Series series = new Series(ex, key);
+            Bucket total = new Bucket(from, 0, 0, 0, 0);
+            for (Bucket b : decompose(series, from, to)) total = total.merge(b);
+            if (total.count() == 0) continue;
+            List<FundingRollup> buckets = buckets(series, res, res.floor(from), to).stream().map(FundingRollup::of).toList();
+            out.add(new FundingHistoryResponse(key, ex, res.label(), from, to, FundingRollup.of(total), buckets));
+        }
+        return out;
+    }
+
+    public void export(Set<ExchangeType> exchanges, Resolution res, long from, long to, BucketSink sink) throws IOException {
+        from = clampFrom(res, from);
+        to = Math.min(to, System.currentTimeMillis());
+        if (from >= to) return;
+        for (ExchangeType ex : exchanges) {
+            SortedSet<String> keys = store.keys(res, ex, from, to);
+            open.keySet().stream().filter(s -> s.exchange() == ex).forEach(s -> keys.add(s.key()));
+            for (String key : keys) {
+                for (Bucket b : buckets(new Series(ex, key), res, res.floor(from), to)) sink.accept(ex, key, b);
+            }
+        }
+    }
+
+    public Resolution resolutionFor(long from, long to) {
+        long minuteFloor = minuteFloor();
+        for (Resolution r : RESOLUTIONS) {
+            if (r == Resolution.MINUTE && from < minuteFloor) continue;
+            if ((to - from) / r.millis() <= props.getMaxPoints()) return r;
+        }
+        return Resolution.DAY;
+    }
+
+    private long clampFrom(Resolution res, long from) {
+        return res == Resolution.MINUTE ? Math.max(from, minuteFloor()) : from;
+    }
+
+    private long minuteFloor() {
+        return System.currentTimeMillis() - props.getMinuteRetention().toMillis();
+    }
+
+    private List<Bucket> decompose(Series series, long from, long to) {
+        List<Bucket> out = new ArrayList<>();
+        long d0 = Resolution.DAY.ceil(from), d1 = Resolution.DAY.floor(to);
+        if (d0 < d1) {
+            hours(series, from, d0, out);
+            out.addAll(buckets(series, Resolution.DAY, d0, d1));
+            hours(series, d1, to, out);
+        } else {
+            hours(series, from, to, out);
+        }
+        return out;
+    }
+
+    private void hours(Series series, long from, long to, List<Bucket> out) {
+        if (from >= to) return;
+        long h0 = Resolution.HOUR.ceil(from), h1 = Resolution.HOUR.floor(to);
+        boolean minutes = from >= minuteFloor();
+        if (h0 < h1 && minutes) {
+            out.addAll(buckets(series, Resolution.MINUTE, Resolution.MINUTE.floor(from), h0));
+            out.addAll(buckets(series, Resolution.HOUR, h0, h1));
+            out.addAll(buckets(series, Resolution.MINUTE, h1, to));
+        } else if (minutes) {
+            out.addAll(buckets(series, Resolution.MINUTE, Resolution.MINUTE.floor(from), to));
+        } else {
+            out.addAll(buckets(series, Resolution.HOUR, Resolution.HOUR.floor(from), to));
+        }
+    }
+
+    private List<Bucket> buckets(Series series, Resolution r, long from, long to) {
+        if (from >= to) return List.of();
+        TreeMap<Long, Bucket> merged = new TreeMap<>();
+        flushing.readLock().lock();
+        try {
+            try {
+                for (Bucket b : store.read(r, series.exchange(), series.key(), from, to)) merged.put(b.start(), b);
+            } catch (IOException e) {
+                log.warn("Funding history read {} {} {} failed: {}", r.label(), series.exchange(), series.key(), e.getMessage());
+            }
+            for (Closed c : closed) {
+                if (c.resolution() == r && c.series().equals(series) && c.bucket().start() >= from && c.bucket().start() < to) {
+                    merged.merge(c.bucket().start(), c.bucket(), Bucket::merge);
+                }
+            }
+        } finally {
+            flushing.readLock().unlock();
+        }
+        Open o = open.get(series);
+        Bucket current = o == null ? null : o.current(r);
+        if (current != null && current.start() >= from && current.start() < to) {
+            merged.merge(current.start(), current, Bucket::merge);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    private void flushQuietly() {
+        long now = System.currentTimeMillis();
+        if (leadership.isLeader()) {
+            open.values().forEach(o -> o.tick(now, closed));
+        } else {
+            open.values().forEach(o -> o.closeAll(closed));
+            open.clear();
+        }
+
+        Closed c;
+        int written = 0;
+        while ((c = closed.peek()) != null) {
+            // the bucket leaves the queue under the same lock that makes it visible on disk, so readers never count it twice
+            flushing.writeLock().lock();
+            try {
+                store.write(c.resolution(), c.series().exchange(), c.series().key(), c.bucket());
+                closed.poll();
+                written++;
+            } catch (IOException e) {
+                log.warn("Funding history write failed, {} buckets pending: {}", closed.size(), e.getMessage());
+                return;
+            } finally {
+                flushing.writeLock().unlock();
+            }
+        }
+        try {
+            store.purgeMinutes(minuteFloor());
+        } catch (IOException e) {
+            log.warn("Funding history purge failed: {}", e.getMessage());
+        }
+        if (written > 0) log.debug("Funding history flushed {} buckets for {} series", written, open.size());
+    }
+
+    private static String key(String symbol) {
+        String s = symbol.trim().toUpperCase(Locale.ROOT);
+        return UniverseNormalizer.normalizeKey(s.contains("/") ? s : s + "/USDT");
+    }
+
+    @FunctionalInterface
+    public interface BucketSink {
+        void accept(ExchangeType exchange, String symbol, Bucket bucket) throws IOException;
+    }
+
+    private record Series(ExchangeType exchange, String key) {
+    }
+
+    private record Closed(Resolution resolution, Series series, Bucket bucket) {
+    }
+
+    private static final class Open {
+        private final Series series;
+        private final Bucket[] buckets = new Bucket[RESOLUTIONS.length];
+        private double last;
+        private long lastAt;
+
+        Open(Series series) {
+            this.series = series;
+        }
+
+        synchronized void observe(double value, long now, Queue<Closed> closed) {
+            for (Resolution r : RESOLUTIONS) {
+                long start = r.floor(now);
+                Bucket b = buckets[r.ordinal()];
+                if (b != null && b.start() != start) {
+                    closed.add(new Closed(r, series, b));
+                    b = null;
+                }
+                buckets[r.ordinal()] = b == null ? Bucket.of(start, value) : b.add(value);
+            }
+            last = value;
+            lastAt = now;
+        }
+
+        synchronized void tick(long now, Queue<Closed> closed) {
+            if (lastAt == 0) return;
+            if (Resolution.MINUTE.floor(lastAt) < Resolution.MINUTE.floor(now)) observe(last, now, closed);
+        }
+
+        synchronized Bucket current(Resolution r) {
+            return buckets[r.ordinal()];
+        }
+
+        synchronized void closeAll(Queue<Closed> closed) {
+            for (Resolution r : RESOLUTIONS) {
+                Bucket b = buckets[r.ordinal()];
+                if (b != null) closed.add(new Closed(r, series, b));
+                buckets[r.ordinal()] = null;
+            }
+        }
+    }
+}
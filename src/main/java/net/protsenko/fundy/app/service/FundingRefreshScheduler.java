@@ -0,0 +1,131 @@
+package net.protsenko.fundy.app.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.FundingScheduleProperties;
+import net.protsenko.fundy.app.dto.MarketDataRefresh;
+import net.protsenko.fundy.app.dto.UniverseChange;
+import net.protsenko.fundy.app.dto.rs.FundingRateData;
+import net.protsenko.fundy.app.dto.rs.InstrumentData;
+import net.protsenko.fundy.app.exchange.ExchangeClientFactory;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.HashedTimingWheel;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+public class FundingRefreshScheduler extends BaseExchangeService {
+
+    private final FundingScheduleProperties props;
+    private HashedTimingWheel<Slot> wheel;
+    private final Map<String, HashedTimingWheel.Timeout<Slot>> planned = new ConcurrentHashMap<>();
+    private final Map<String, Long> settlements = new ConcurrentHashMap<>();
+    private final Map<ExchangeType, Pending> pendingByExchange = new EnumMap<>(ExchangeType.class);
+
+    public FundingRefreshScheduler(ExchangeClientFactory factory, FundingScheduleProperties props) {
+        super(factory);
+        this.props = props;
+    }
+
+    @PostConstruct
+    public void start() {
+        wheel = new HashedTimingWheel<>("funding-wheel", props.getTick(), props.getWheelSize(), this::onDue);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+    }
+
+    public int pending() {
+        return wheel.pending();
+    }
+
+    @EventListener
+    public void onRefresh(MarketDataRefresh refresh) {
+        long now = System.currentTimeMillis();
+        for (FundingRateData fr : refresh.snapshot().funding().values()) {
+            String key = refresh.exchange() + ":" + fr.canonicalKey();
+            Long prev = settlements.put(key, fr.nextFundingTs());
+            if (planned.containsKey(key) && prev != null && prev == fr.nextFundingTs()) continue;
+            plan(new Slot(key, fr.instrument()), now);
+        }
+    }
+
+    @EventListener
+    public void onUniverseChange(UniverseChange change) {
+        Set<String> stale = new HashSet<>(change.delisted());
+        stale.addAll(change.renamed());
+        for (String symbol : stale) {
+            String key = change.exchange() + ":" + symbol;
+            settlements.remove(key);
+            HashedTimingWheel.Timeout<Slot> t = planned.remove(key);
+            if (t != null) t.cancel();
+        }
+    }
+
+    long nextRefreshAt(long settlement, long now) {
+        long dense = props.getDenseInterval().toMillis();
+        long sparse = props.getSparseInterval().toMillis();
+        if (settlement <= 0) return now + sparse;
+
+        long windowStart = settlement - props.getWindowBefore().toMillis();
+        long windowEnd = settlement + props.getWindowAfter().toMillis();
+        if (inWindow(settlement, now)) return now + dense;
+        if (now > windowEnd) return now + sparse;
+        return Math.min(now + sparse, windowStart);
+    }
+
+    boolean inWindow(long settlement, long now) {
+        return settlement > 0
+                && now >= settlement - props.getWindowBefore().toMillis()
+                && now <= settlement + props.getWindowAfter().toMillis();
+    }
+
+    private void plan(Slot slot, long now) {
+        long at = nextRefreshAt(settlements.getOrDefault(slot.key(), 0L), now);
+        HashedTimingWheel.Timeout<Slot> prev = planned.put(slot.key(), wheel.schedule(slot, at));
+        if (prev != null) prev.cancel();
+    }
+
+    private void onDue(List<Slot> due) {
+        long now = System.currentTimeMillis();
+        for (Slot slot : due) {
+            HashedTimingWheel.Timeout<Slot> current = planned.get(slot.key());
+            if (current == null || current.payload() != slot) continue;
+            Pending p = pendingByExchange.computeIfAbsent(slot.instrument().exchangeType(), ex -> new Pending());
+            p.instruments.put(slot.key(), slot.instrument());
+            p.dense |= inWindow(settlements.getOrDefault(slot.key(), 0L), now);
+            plan(slot, now);
+        }
+
+        pendingByExchange.forEach((ex, p) -> {
+            if (p.instruments.isEmpty()) return;
+            long every = (p.dense ? props.getDenseInterval() : props.getSparseInterval()).toMillis();
+            if (now - p.flushedAt < every) return;
+            List<InstrumentData> instruments = List.copyOf(p.instruments.values());
+            p.instruments.clear();
+            p.dense = false;
+            p.flushedAt = now;
+            try {
+                client(ex).invalidateFunding(instruments);
+            } catch (Exception e) {
+                log.warn("Funding invalidation skip {}: {}", ex, e.getMessage());
+            }
+        });
+    }
+
+    private record Slot(String key, InstrumentData instrument) {
+    }
+
+    private static final class Pending {
+        private final Map<String, InstrumentData> instruments = new LinkedHashMap<>();
+        private boolean dense;
+        private long flushedAt;
+    }
+}
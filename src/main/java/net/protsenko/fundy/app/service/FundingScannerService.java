@@ -1,14 +1,18 @@
 package net.protsenko.fundy.app.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.extern.slf4j.Slf4j;
-import net.protsenko.fundy.app.dto.InstrumentType;
+import net.protsenko.fundy.app.dto.ExchangeSnapshot;
+import net.protsenko.fundy.app.dto.PerpUniverse;
 import net.protsenko.fundy.app.dto.rq.FundingFilterRequest;
 import net.protsenko.fundy.app.dto.rs.FundingRateData;
 import net.protsenko.fundy.app.dto.rs.FundingRateView;
-import net.protsenko.fundy.app.dto.rs.InstrumentData;
+import net.protsenko.fundy.app.dto.rs.JsonRows;
 import net.protsenko.fundy.app.exchange.ExchangeClient;
 import net.protsenko.fundy.app.exchange.ExchangeClientFactory;
 import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.ExchangeLinkResolver;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -16,56 +20,93 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class FundingScannerService extends BaseExchangeService {
 
+    private static final Comparator<Row> BY_ABS_RATE = Comparator.comparing(Row::absRate).reversed();
+
+    private final MarketSnapshotService snapshots;
     private final UniverseService universeService;
+    private final ObjectWriter writer;
+    private final Map<ExchangeType, Rows> rows = new ConcurrentHashMap<>();
 
-    public FundingScannerService(ExchangeClientFactory factory, UniverseService universeService) {
+    public FundingScannerService(ExchangeClientFactory factory,
+                                 MarketSnapshotService snapshots,
+                                 UniverseService universeService,
+                                 ObjectMapper objectMapper) {
         super(factory);
+        this.snapshots = snapshots;
         this.universeService = universeService;
+        this.writer = objectMapper.writerFor(FundingRateView.class);
     }
 
-    public List<FundingRateView> getFundingOpportunities(FundingFilterRequest req) {
+    public JsonRows getFundingOpportunities(FundingFilterRequest req) {
         BigDecimal minFr = req.minFr();
 
-        Map<String, Map<ExchangeType, String>> uni = universeService.perpUniverse(req.effectiveExchanges());
-
-        return across(req.effectiveExchanges(), c -> loadExchangeData(c, minFr, uni))
-                .sorted(Comparator.comparing((FundingRateData r) -> r.fundingRate().abs()).reversed())
-                .map(FundingRateView::of)
-                .toList();
+        return JsonRows.of(across(req.effectiveExchanges(), c -> loadExchangeData(c, minFr))
+                .sorted(BY_ABS_RATE)
+                .map(Row::json)
+                .toList());
     }
 
-    private InstrumentData makeInstr(String canonicalKey, String nativeSymbol, ExchangeType ex) {
-        String[] p = canonicalKey.split("/");
-        String base = p.length > 0 ? p[0] : "";
-        String quote = p.length > 1 ? p[1] : "USDT";
-        return new InstrumentData(base, quote, InstrumentType.PERPETUAL, nativeSymbol, ex);
+    public JsonRows lastFundingOpportunities(FundingFilterRequest req) {
+        BigDecimal minFr = req.minFr();
+        if (req.effectiveExchanges().stream().noneMatch(rows::containsKey)) return null;
+
+        return JsonRows.of(req.effectiveExchanges().stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .flatMap(r -> above(r.rows(), minFr))
+                .sorted(BY_ABS_RATE)
+                .map(Row::json)
+                .toList());
     }
 
-    private Stream<FundingRateData> loadExchangeData(ExchangeClient client,
-                                                     BigDecimal minFr,
-                                                     Map<String, Map<ExchangeType, String>> uni) {
+    private Stream<Row> loadExchangeData(ExchangeClient client, BigDecimal minFr) {
         try {
-            ExchangeType ex = client.getExchangeType();
-
-            List<InstrumentData> instruments = uni.entrySet().stream()
-                    .map(e -> {
-                        String nativeSymbol = e.getValue().get(ex);
-                        return nativeSymbol == null ? null : makeInstr(e.getKey(), nativeSymbol, ex);
-                    })
-                    .filter(Objects::nonNull)
-                    .toList();
-
-            return client.getFundingRates(instruments).stream()
-                    .filter(fr -> fr.fundingRate().abs().compareTo(minFr) >= 0);
+            return above(rows(snapshots.snapshot(client.getExchangeType())), minFr);
         } catch (Exception e) {
             log.warn("Skip {}: {}", client.getExchangeType(), e.getMessage());
             return Stream.empty();
         }
     }
+
+    private static Stream<Row> above(List<Row> sorted, BigDecimal minFr) {
+        int lo = 0, hi = sorted.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted.get(mid).absRate().compareTo(minFr) >= 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return sorted.subList(0, lo).stream();
+    }
+
+    private List<Row> rows(ExchangeSnapshot s) {
+        Rows cached = rows.get(s.exchange());
+        if (cached != null && cached.version() == s.version()) return cached.rows();
+        return rows.compute(s.exchange(), (ex, cur) ->
+                cur != null && cur.version() == s.version() ? cur : new Rows(s.version(), build(s))).rows();
+    }
+
+    private List<Row> build(ExchangeSnapshot s) {
+        PerpUniverse universe = universeService.current();
+        return s.funding().values().stream()
+                .map(fr -> {
+                    PerpUniverse.Entry entry = universe.get(fr.canonicalKey());
+                    String link = entry != null ? entry.link(fr.exchange()) : ExchangeLinkResolver.link(fr.exchange(), fr.instrument());
+                    return new Row(fr.fundingRate().abs(), JsonRows.encode(writer, FundingRateView.of(fr, link)));
+                })
+                .sorted(BY_ABS_RATE)
+                .toList();
+    }
+
+    private record Rows(long version, List<Row> rows) {
+    }
+
+    private record Row(BigDecimal absRate, byte[] json) {
+    }
 }
@@ -0,0 +1,264 @@
+package net.protsenko.fundy.app.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.SnapshotProperties;
+import net.protsenko.fundy.app.dto.ExchangeSnapshot;
+import net.protsenko.fundy.app.dto.MarketDataRefresh;
+import net.protsenko.fundy.app.dto.rs.ChangeEntry;
+import net.protsenko.fundy.app.dto.rs.ChangesResponse;
+import net.protsenko.fundy.app.dto.rs.FundingRateData;
+import net.protsenko.fundy.app.dto.rs.InstrumentData;
+import net.protsenko.fundy.app.dto.rs.TickerData;
+import net.protsenko.fundy.app.exception.ExchangeException;
+import net.protsenko.fundy.app.exchange.ExchangeClient;
+import net.protsenko.fundy.app.exchange.ExchangeClientFactory;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.ChangeLog;
+import net.protsenko.fundy.app.utils.SymbolNormalizer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+@Service
+public class MarketSnapshotService extends BaseExchangeService {
+
+    private final UniverseService universeService;
+    private final ApplicationEventPublisher events;
+    private final SnapshotProperties props;
+    private final ClusterLeadership leadership;
+
+    private final Map<ExchangeType, ExchangeSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<ExchangeType, Object> refreshLocks = new EnumMap<>(ExchangeType.class);
+    private final Map<ExchangeType, CompletableFuture<ExchangeSnapshot>> inflight = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newVirtualThreadPerTaskExecutor();
+    private final ChangeLog<ChangeEntry> changeLog;
+    private final Object versionLock = new Object();
+    private final AtomicLongArray readAt = new AtomicLongArray(ExchangeType.values().length);
+    private final Set<ExchangeType> restored = EnumSet.noneOf(ExchangeType.class);
+    private volatile long version;
+    private boolean producing;
+
+    public MarketSnapshotService(ExchangeClientFactory factory,
+                                 UniverseService universeService,
+                                 ApplicationEventPublisher events,
+                                 SnapshotProperties props,
+                                 ClusterLeadership leadership) {
+        super(factory);
+        this.universeService = universeService;
+        this.events = events;
+        this.props = props;
+        this.leadership = leadership;
+        this.changeLog = new ChangeLog<>(props.getChangeLogCapacity());
+        for (ExchangeType ex : ExchangeType.values()) refreshLocks.put(ex, new Object());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public ExchangeSnapshot current(ExchangeType ex) {
+        return snapshots.getOrDefault(ex, ExchangeSnapshot.empty(ex));
+    }
+
+    public Map<ExchangeType, ExchangeSnapshot> currentAll() {
+        synchronized (versionLock) {
+            return new EnumMap<>(snapshots);
+        }
+    }
+
+    public long lastReadAt(ExchangeType ex) {
+        return readAt.get(ex.ordinal());
+    }
+
+    public ExchangeSnapshot snapshot(ExchangeType ex) {
+        long now = System.currentTimeMillis();
+        if (now - readAt.get(ex.ordinal()) >= 1_000) readAt.set(ex.ordinal(), now);
+        ExchangeSnapshot s = snapshots.get(ex);
+        if (s != null && now - s.updatedAt() <= props.getMaxAge().toMillis()) return s;
+        if (!leadership.isLeader()) return current(ex);
+        return coalesced(ex, s);
+    }
+
+    private ExchangeSnapshot coalesced(ExchangeType ex, ExchangeSnapshot stale) {
+        CompletableFuture<ExchangeSnapshot> mine = new CompletableFuture<>();
+        CompletableFuture<ExchangeSnapshot> running = inflight.putIfAbsent(ex, mine);
+        if (running == null) {
+            running = mine;
+            refresher.execute(() -> {
+                try {
+                    mine.complete(refresh(ex));
+                } catch (Throwable e) {
+                    if (stale != null) log.warn("Snapshot refresh skip {}: {}", ex, e.getMessage());
+                    mine.completeExceptionally(e);
+                } finally {
+                    inflight.remove(ex, mine);
+                }
+            });
+        }
+        if (stale != null) return stale;
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExchangeException("Request cancelled", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new ExchangeException("Refresh failed", e.getCause());
+        }
+    }
+
+    public ChangesResponse changesSince(long since) {
+        long current = version;
+        if (since <= 0 || since > current) return ChangesResponse.resync(since, current);
+
+        List<ChangeEntry> raw = changeLog.since(since);
+        if (raw == null) return ChangesResponse.resync(since, current);
+
+        Map<String, ChangeEntry> merged = new LinkedHashMap<>();
+        for (ChangeEntry e : raw) {
+            merged.merge(e.exchange() + ":" + e.symbol(), e, ChangeEntry::merge);
+        }
+        return new ChangesResponse(since, current, false, List.copyOf(merged.values()));
+    }
+
+    void refreshQuietly(ExchangeType ex) {
+        if (!leadership.isLeader()) return;
+        try {
+            refresh(ex);
+        } catch (Exception e) {
+            log.warn("Snapshot refresh skip {}: {}", ex, e.getMessage());
+        }
+    }
+
+    public ExchangeSnapshot refresh(ExchangeType ex) {
+        synchronized (refreshLocks.get(ex)) {
+            ExchangeClient c = client(ex);
+            List<InstrumentData> instruments = universeService.universe().instruments(ex);
+
+            Map<String, TickerData> tickers = new HashMap<>();
+            Map<String, FundingRateData> funding = new HashMap<>();
+            if (!instruments.isEmpty()) {
+                c.getTickers(instruments).forEach(t -> tickers.putIfAbsent(SymbolNormalizer.canonicalKey(t.instrument()), t));
+                c.getFundingRates(instruments).forEach(f -> funding.putIfAbsent(f.canonicalKey(), f));
+            }
+
+            return swap(ex, tickers, funding, System.currentTimeMillis(), 0L, Source.LIVE);
+        }
+    }
+
+    public ExchangeSnapshot apply(ExchangeSnapshot remote) {
+        synchronized (refreshLocks.get(remote.exchange())) {
+            return swap(remote.exchange(), remote.tickers(), remote.funding(), remote.updatedAt(), remote.version(), Source.REMOTE);
+        }
+    }
+
+    public ExchangeSnapshot seed(ExchangeSnapshot saved) {
+        synchronized (refreshLocks.get(saved.exchange())) {
+            return swap(saved.exchange(), saved.tickers(), saved.funding(), saved.updatedAt(), saved.version(), Source.RESTORED);
+        }
+    }
+
+    private ExchangeSnapshot swap(ExchangeType ex,
+                                  Map<String, TickerData> tickers,
+                                  Map<String, FundingRateData> funding,
+                                  long updatedAt,
+                                  long upstreamVersion,
+                                  Source source) {
+        ExchangeSnapshot prev = snapshots.getOrDefault(ex, ExchangeSnapshot.empty(ex));
+        List<ChangeEntry> changes = diff(ex, prev, tickers, funding);
+
+        ExchangeSnapshot next;
+        boolean resync = false;
+        synchronized (versionLock) {
+            // local numbering starts at the wall clock in microseconds so it never reuses an earlier process's versions
+            if (source == Source.LIVE && !producing) {
+                version = Math.max(version, System.currentTimeMillis() * 1_000);
+                changeLog.raiseFloor(version);
+                producing = true;
+            }
+            long v = changes.isEmpty() ? prev.version() : Math.max(version + 1, upstreamVersion);
+            next = new ExchangeSnapshot(ex, v, updatedAt, Map.copyOf(tickers), Map.copyOf(funding));
+            if (!changes.isEmpty()) {
+                changeLog.append(v, changes);
+                version = v;
+            }
+            // cursors from before a restore, or from before the first diff against restored data, must resync
+            if (source == Source.RESTORED) {
+                restored.add(ex);
+                changeLog.raiseFloor(version);
+            } else if (restored.remove(ex)) {
+                resync = true;
+                if (source == Source.REMOTE) changeLog.raiseFloor(version);
+            }
+            snapshots.put(ex, next);
+        }
+        if (!changes.isEmpty() || resync) {
+            events.publishEvent(new MarketDataRefresh(ex, next.version(), next, changes, source == Source.RESTORED, resync));
+        }
+        return next;
+    }
+
+    private List<ChangeEntry> diff(ExchangeType ex,
+                                   ExchangeSnapshot prev,
+                                   Map<String, TickerData> tickers,
+                                   Map<String, FundingRateData> funding) {
+        List<ChangeEntry> out = new ArrayList<>();
+        Set<String> keys = new HashSet<>(tickers.keySet());
+        keys.addAll(funding.keySet());
+
+        for (String key : keys) {
+            TickerData t = tickers.get(key), pt = prev.tickers().get(key);
+            FundingRateData f = funding.get(key), pf = prev.funding().get(key);
+            if (t == null && pt != null) {
+                out.add(ChangeEntry.removed(key, ex));
+                continue;
+            }
+
+            boolean added = pt == null && pf == null;
+            BigDecimal last = changed(pt == null ? null : pt.lastPrice(), t == null ? null : t.lastPrice(), added);
+            BigDecimal bid = changed(pt == null ? null : pt.bid(), t == null ? null : t.bid(), added);
+            BigDecimal ask = changed(pt == null ? null : pt.ask(), t == null ? null : t.ask(), added);
+            BigDecimal rate = changed(pf == null ? null : pf.fundingRate(), f == null ? null : f.fundingRate(), added);
+            Long next = (f != null && (added || pf == null || pf.nextFundingTs() != f.nextFundingTs()))
+                    ? f.nextFundingTs() : null;
+
+            if (added || last != null || bid != null || ask != null || rate != null || next != null) {
+                out.add(new ChangeEntry(key, ex, added ? ChangeEntry.Kind.ADDED : ChangeEntry.Kind.UPDATED,
+                        last, bid, ask, rate, next));
+            }
+        }
+        for (String key : prev.tickers().keySet()) {
+            if (!keys.contains(key)) out.add(ChangeEntry.removed(key, ex));
+        }
+        for (String key : prev.funding().keySet()) {
+            if (!keys.contains(key) && !prev.tickers().containsKey(key)) out.add(ChangeEntry.removed(key, ex));
+        }
+        return out;
+    }
+
+    private static BigDecimal changed(BigDecimal before, BigDecimal after, boolean always) {
+        if (after == null) return null;
+        if (always || before == null || before.compareTo(after) != 0) return after;
+        return null;
+    }
+
+    private enum Source {
+        LIVE,
+        REMOTE,
+        RESTORED
+    }
+}
@@ -0,0 +1,120 @@
+package net.protsenko.fundy.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import net.protsenko.fundy.app.dto.MarketDataRefresh;
+import net.protsenko.fundy.app.dto.PerpUniverse;
+import net.protsenko.fundy.app.dto.rq.SettlingSoonRequest;
+import net.protsenko.fundy.app.dto.rs.ChangeEntry;
+import net.protsenko.fundy.app.dto.rs.FundingRateData;
+import net.protsenko.fundy.app.dto.rs.FundingRateView;
+import net.protsenko.fundy.app.dto.rs.JsonRows;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.ExchangeLinkResolver;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Service
+public class SettlementIndex {
+
+    private static final long BUCKET_MS = 60_000;
+    // within a minute bucket the largest |rate| comes first, so a scan can leave the bucket at the first rate below minFr
+    private static final Comparator<Slot> BY_BUCKET_RATE = Comparator.comparingLong(Slot::bucket)
+            .thenComparing(Slot::absRate, Comparator.nullsFirst(Comparator.reverseOrder()))
+            .thenComparing(Slot::symbol);
+    private static final Comparator<Indexed> BY_ABS_RATE = Comparator.comparing(Indexed::absRate).reversed();
+
+    private final UniverseService universeService;
+    private final ObjectWriter writer;
+    private final Map<ExchangeType, ConcurrentSkipListMap<Slot, Indexed>> byTime = new EnumMap<>(ExchangeType.class);
+    private final Map<ExchangeType, Map<String, Slot>> slots = new EnumMap<>(ExchangeType.class);
+
+    public SettlementIndex(UniverseService universeService, ObjectMapper objectMapper) {
+        this.universeService = universeService;
+        this.writer = objectMapper.writerFor(FundingRateView.class);
+        for (ExchangeType ex : ExchangeType.values()) {
+            byTime.put(ex, new ConcurrentSkipListMap<>(BY_BUCKET_RATE));
+            slots.put(ex, new ConcurrentHashMap<>());
+        }
+    }
+
+    @EventListener
+    public void onRefresh(MarketDataRefresh refresh) {
+        Map<String, FundingRateData> funding = refresh.snapshot().funding();
+        PerpUniverse universe = null;
+        for (ChangeEntry c : refresh.changes()) {
+            FundingRateData fr = c.kind() == ChangeEntry.Kind.REMOVED ? null : funding.get(c.symbol());
+            if (fr == null || fr.nextFundingTs() <= 0) {
+                remove(refresh.exchange(), c.symbol());
+                continue;
+            }
+            if (c.kind() == ChangeEntry.Kind.UPDATED && c.fundingRate() == null && c.nextFundingTs() == null
+                    && slots.get(refresh.exchange()).containsKey(c.symbol())) continue;
+            if (universe == null) universe = universeService.current();
+            put(refresh.exchange(), c.symbol(), fr, universe);
+        }
+    }
+
+    public JsonRows settlingSoon(SettlingSoonRequest req) {
+        long now = System.currentTimeMillis();
+        long until = now + req.window().toMillis();
+        long last = bucket(until);
+        BigDecimal minFr = req.minFr();
+
+        List<Indexed> hits = new ArrayList<>();
+        for (ExchangeType ex : req.effectiveExchanges()) {
+            ConcurrentSkipListMap<Slot, Indexed> index = byTime.get(ex);
+            Map.Entry<Slot, Indexed> e = index.ceilingEntry(Slot.first(bucket(now)));
+            while (e != null && e.getKey().bucket() <= last) {
+                Slot slot = e.getKey();
+                if (slot.absRate().compareTo(minFr) < 0) {
+                    e = index.ceilingEntry(Slot.first(slot.bucket() + 1));
+                    continue;
+                }
+                Indexed i = e.getValue();
+                if (i.nextFundingTs() >= now && i.nextFundingTs() <= until) hits.add(i);
+                e = index.higherEntry(slot);
+            }
+        }
+        hits.sort(BY_ABS_RATE);
+        return JsonRows.of(hits.stream().map(Indexed::json).toList());
+    }
+
+    public int size() {
+        return byTime.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private void put(ExchangeType ex, String key, FundingRateData fr, PerpUniverse universe) {
+        PerpUniverse.Entry entry = universe.get(key);
+        String link = entry != null ? entry.link(ex) : ExchangeLinkResolver.link(ex, fr.instrument());
+        BigDecimal absRate = fr.fundingRate().abs();
+        Slot slot = new Slot(bucket(fr.nextFundingTs()), absRate, key);
+        ConcurrentSkipListMap<Slot, Indexed> index = byTime.get(ex);
+        index.put(slot, new Indexed(absRate, fr.nextFundingTs(), JsonRows.encode(writer, FundingRateView.of(fr, link))));
+        Slot prev = slots.get(ex).put(key, slot);
+        if (prev != null && BY_BUCKET_RATE.compare(prev, slot) != 0) index.remove(prev);
+    }
+
+    private void remove(ExchangeType ex, String key) {
+        Slot prev = slots.get(ex).remove(key);
+        if (prev != null) byTime.get(ex).remove(prev);
+    }
+
+    private static long bucket(long ts) {
+        return Math.floorDiv(ts, BUCKET_MS);
+    }
+
+    private record Slot(long bucket, BigDecimal absRate, String symbol) {
+        static Slot first(long bucket) {
+            return new Slot(bucket, null, "");
+        }
+    }
+
+    private record Indexed(BigDecimal absRate, long nextFundingTs, byte[] json) {
+    }
+}
@@ -0,0 +1,298 @@
+package net.protsenko.fundy.app.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.ClusterProperties;
+import net.protsenko.fundy.app.dto.ExchangeSnapshot;
+import net.protsenko.fundy.app.dto.LeadershipGranted;
+import net.protsenko.fundy.app.dto.MarketDataRefresh;
+import net.protsenko.fundy.app.dto.UniverseChange;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.SnapshotCodec;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class SnapshotFeed {
+
+    private static final int NONCE_BYTES = 16;
+    private static final int MAC_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ClusterProperties props;
+    private final ClusterLeadership leadership;
+    private final UniverseService universeService;
+    private final MarketSnapshotService snapshots;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile ServerSocket server;
+    private volatile Thread follower;
+    private volatile Socket upstream;
+
+    public SnapshotFeed(ClusterProperties props,
+                        ClusterLeadership leadership,
+                        UniverseService universeService,
+                        MarketSnapshotService snapshots) {
+        this.props = props;
+        this.leadership = leadership;
+        this.universeService = universeService;
+        this.snapshots = snapshots;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!leadership.enabled()) return;
+        if (leadership.isLeader()) serve();
+        else follower = Thread.ofVirtual().name("snapshot-feed-follower").start(this::follow);
+    }
+
+    @EventListener
+    public void onLeadership(LeadershipGranted granted) {
+        stopFollowing();
+        serve();
+    }
+
+    @EventListener
+    public void onRefresh(MarketDataRefresh refresh) {
+        if (server != null && !refresh.restored()) broadcast(SnapshotCodec.encodeSnapshot(refresh.snapshot()));
+    }
+
+    @EventListener
+    public void onUniverseChange(UniverseChange change) {
+        if (server != null) {
+            broadcast(SnapshotCodec.encodeUniverse(change.exchange(), universeService.nativeSymbols(change.exchange())));
+        }
+    }
+
+    public int subscribers() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopFollowing();
+        closeQuietly(server);
+        server = null;
+        subscribers.forEach(Subscriber::close);
+    }
+
+    private synchronized void serve() {
+        if (server != null) return;
+        if (secret() == null) {
+            log.error("Snapshot feed disabled: fundy.cluster.feed-secret is not set");
+            return;
+        }
+        try {
+            ServerSocket ss = new ServerSocket();
+            ss.setReuseAddress(true);
+            ss.bind(new InetSocketAddress(props.getFeedBindAddress(), props.getFeedPort()));
+            server = ss;
+            Thread.ofVirtual().name("snapshot-feed-accept").start(() -> accept(ss));
+            log.info("Snapshot feed serving on {}:{}", props.getFeedBindAddress(), props.getFeedPort());
+        } catch (IOException e) {
+            log.error("Snapshot feed bind failed on {}:{}: {}", props.getFeedBindAddress(), props.getFeedPort(), e.getMessage());
+        }
+    }
+
+    private void accept(ServerSocket ss) {
+        while (!ss.isClosed()) {
+            try {
+                Socket s = ss.accept();
+                Thread.ofVirtual().name("snapshot-feed-" + s.getRemoteSocketAddress()).start(() -> admit(s));
+            } catch (IOException e) {
+                if (!ss.isClosed()) log.warn("Snapshot feed accept failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void admit(Socket s) {
+        try {
+            s.setTcpNoDelay(true);
+            s.setKeepAlive(true);
+            s.setSoTimeout((int) props.getHandshakeTimeout().toMillis());
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(s.getOutputStream());
+            byte[] challenge = nonce();
+            out.write(challenge);
+            out.flush();
+            byte[] answer = new byte[MAC_BYTES], theirs = new byte[NONCE_BYTES];
+            in.readFully(answer);
+            in.readFully(theirs);
+            if (!MessageDigest.isEqual(answer, mac(challenge))) throw new IOException("bad feed secret");
+            out.write(mac(theirs));
+            out.flush();
+            s.setSoTimeout(0);
+        } catch (IOException e) {
+            log.warn("Snapshot feed follower {} rejected: {}", s.getRemoteSocketAddress(), e.getMessage());
+            closeQuietly(s);
+            return;
+        }
+
+        Subscriber sub = new Subscriber(s, new ArrayBlockingQueue<>(props.getFollowerQueue()));
+        synchronized (subscribers) {
+            for (ExchangeType ex : ExchangeType.values()) {
+                sub.queue.offer(SnapshotCodec.encodeUniverse(ex, universeService.nativeSymbols(ex)));
+                ExchangeSnapshot snap = snapshots.current(ex);
+                if (snap.version() > 0) sub.queue.offer(SnapshotCodec.encodeSnapshot(snap));
+            }
+            subscribers.add(sub);
+        }
+        log.info("Snapshot feed follower connected: {}", s.getRemoteSocketAddress());
+        sub.pump();
+    }
+
+    private void broadcast(byte[] frame) {
+        synchronized (subscribers) {
+            for (Subscriber sub : subscribers) {
+                if (!sub.queue.offer(frame)) {
+                    log.warn("Snapshot feed follower {} too slow, disconnecting", sub.socket.getRemoteSocketAddress());
+                    sub.close();
+                }
+            }
+        }
+    }
+
+    private void follow() {
+        while (!leadership.isLeader() && !Thread.currentThread().isInterrupted()) {
+            String address = leadership.leaderAddress();
+            if (address != null && !address.equals(leadership.address())) {
+                int colon = address.lastIndexOf(':');
+                try (Socket s = new Socket()) {
+                    s.connect(new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1))),
+                            (int) props.getHandshakeTimeout().toMillis());
+                    s.setKeepAlive(true);
+                    upstream = s;
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                    handshake(s, in, new DataOutputStream(s.getOutputStream()));
+                    log.info("Snapshot feed following leader at {}", address);
+                    read(in);
+                } catch (IOException | RuntimeException e) {
+                    if (!Thread.currentThread().isInterrupted()) {
+                        log.warn("Snapshot feed from {} lost: {}", address, e.getMessage());
+                    }
+                } finally {
+                    upstream = null;
+                }
+            }
+            try {
+                Thread.sleep(props.getReconnectDelay());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void handshake(Socket s, DataInputStream in, DataOutputStream out) throws IOException {
+        if (secret() == null) throw new IOException("fundy.cluster.feed-secret is not set");
+        s.setSoTimeout((int) props.getHandshakeTimeout().toMillis());
+        byte[] challenge = new byte[NONCE_BYTES];
+        in.readFully(challenge);
+        byte[] mine = nonce();
+        out.write(mac(challenge));
+        out.write(mine);
+        out.flush();
+        byte[] answer = new byte[MAC_BYTES];
+        in.readFully(answer);
+        if (!MessageDigest.isEqual(answer, mac(mine))) throw new IOException("leader failed feed authentication");
+        s.setSoTimeout(0);
+    }
+
+    private void read(DataInputStream in) throws IOException {
+        while (true) {
+            int length = in.readInt();
+            if (length < 0 || length > props.getMaxFrameBytes()) {
+                throw new IOException("frame of " + length + " bytes exceeds limit " + props.getMaxFrameBytes());
+            }
+            byte[] frame = new byte[length];
+            in.readFully(frame);
+            switch (SnapshotCodec.decode(frame)) {
+                case SnapshotCodec.UniverseFrame u -> universeService.apply(u.exchange(), u.nativeByKey());
+                case SnapshotCodec.SnapshotFrame s -> snapshots.apply(s.snapshot());
+            }
+        }
+    }
+
+    private byte[] secret() {
+        String secret = props.getFeedSecret();
+        return secret == null || secret.isBlank() ? null : secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] nonce() {
+        byte[] n = new byte[NONCE_BYTES];
+        RANDOM.nextBytes(n);
+        return n;
+    }
+
+    private byte[] mac(byte[] challenge) throws IOException {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret(), "HmacSHA256"));
+            return mac.doFinal(challenge);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("feed authentication unavailable", e);
+        }
+    }
+
+    private void stopFollowing() {
+        Thread t = follower;
+        follower = null;
+        if (t != null) t.interrupt();
+        closeQuietly(upstream);
+    }
+
+    private static void closeQuietly(Closeable c) {
+        try {
+            if (c != null) c.close();
+        } catch (IOException ignore) {
+        }
+    }
+
+    private final class Subscriber {
+        private final Socket socket;
+        private final BlockingQueue<byte[]> queue;
+
+        private Subscriber(Socket socket, BlockingQueue<byte[]> queue) {
+            this.socket = socket;
+            this.queue = queue;
+        }
+
+        private void pump() {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+                while (!socket.isClosed()) {
+                    byte[] frame = queue.poll(1, TimeUnit.SECONDS);
+                    if (frame == null) continue;
+                    out.writeInt(frame.length);
+                    out.write(frame);
+                    if (queue.isEmpty()) out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                log.info("Snapshot feed follower {} gone: {}", socket.getRemoteSocketAddress(), e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        private void close() {
+            subscribers.remove(this);
+            closeQuietly(socket);
+        }
+    }
+}
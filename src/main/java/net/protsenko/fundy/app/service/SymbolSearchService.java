@@ -0,0 +1,54 @@
+package net.protsenko.fundy.app.service;
+
+import lombok.RequiredArgsConstructor;
+import net.protsenko.fundy.app.dto.PerpUniverse;
+import net.protsenko.fundy.app.dto.UniverseChange;
+import net.protsenko.fundy.app.dto.rs.UniverseEntry;
+import net.protsenko.fundy.app.utils.SymbolIndex;
+import net.protsenko.fundy.app.utils.SymbolNormalizer;
+import net.protsenko.fundy.app.utils.UniverseNormalizer;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class SymbolSearchService {
+
+    private static final Map<String, String> EXCHANGE_ALIASES = Map.of(
+            "XBT", "BTC"
+    );
+
+    private final UniverseService universeService;
+    private volatile SymbolIndex index = SymbolIndex.EMPTY;
+
+    @EventListener
+    public void onUniverseChange(UniverseChange change) {
+        index();
+    }
+
+    public List<UniverseEntry> search(String query, int limit) {
+        return index().search(query, limit);
+    }
+
+    private SymbolIndex index() {
+        PerpUniverse universe = universeService.current();
+        SymbolIndex current = index;
+        if (current.universe() == universe) return current;
+        synchronized (this) {
+            universe = universeService.current();
+            if (index.universe() != universe) index = SymbolIndex.build(universe, aliases());
+            return index;
+        }
+    }
+
+    private static Map<String, String> aliases() {
+        Map<String, String> out = new HashMap<>(EXCHANGE_ALIASES);
+        out.putAll(SymbolNormalizer.baseAliases());
+        out.putAll(UniverseNormalizer.baseAliases());
+        return out;
+    }
+}
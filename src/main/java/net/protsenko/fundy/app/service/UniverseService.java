@@ -1,46 +1,172 @@
 package net.protsenko.fundy.app.service;
 
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.UniverseProperties;
 import net.protsenko.fundy.app.dto.InstrumentType;
+import net.protsenko.fundy.app.dto.PerpUniverse;
+import net.protsenko.fundy.app.dto.UniverseChange;
 import net.protsenko.fundy.app.dto.rs.InstrumentData;
-import net.protsenko.fundy.app.exchange.ExchangeClient;
 import net.protsenko.fundy.app.exchange.ExchangeClientFactory;
 import net.protsenko.fundy.app.exchange.ExchangeType;
 import net.protsenko.fundy.app.utils.SymbolNormalizer;
 import net.protsenko.fundy.app.utils.UniverseNormalizer;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
+@Slf4j
 @Service
 public class UniverseService extends BaseExchangeService {
 
-    public UniverseService(ExchangeClientFactory factory) {
+    private final Executor executor;
+    private final TaskScheduler scheduler;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher events;
+    private final UniverseProperties props;
+    private final ClusterLeadership leadership;
+
+    private final Object applyLock = new Object();
+    private volatile PerpUniverse universe = PerpUniverse.EMPTY;
+
+    public UniverseService(ExchangeClientFactory factory,
+                           @Qualifier("exchangeExecutor") Executor executor,
+                           TaskScheduler scheduler,
+                           CacheManager cacheManager,
+                           ApplicationEventPublisher events,
+                           UniverseProperties props,
+                           ClusterLeadership leadership) {
         super(factory);
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.cacheManager = cacheManager;
+        this.events = events;
+        this.props = props;
+        this.leadership = leadership;
     }
 
-    @Cacheable(cacheNames = "universe-perp-24h", key = "#exchanges == null ? 'ALL' : #exchanges", sync = true)
     public Map<String, Map<ExchangeType, String>> perpUniverse(Set<ExchangeType> exchanges) {
-        Set<ExchangeType> scope = (exchanges == null || exchanges.isEmpty())
-                ? EnumSet.allOf(ExchangeType.class) : EnumSet.copyOf(exchanges);
-
-        Stream<InstrumentData> stream = scope.stream().flatMap(ex -> {
-            try {
-                ExchangeClient c = client(ex);
-                return c.getInstruments().stream();
-            } catch (Exception e) {
-                return Stream.empty();
+        return universe().project(exchanges);
+    }
+
+    public PerpUniverse universe() {
+        PerpUniverse u = universe;
+        if (!u.isEmpty() || !leadership.isLeader()) return u;
+        synchronized (this) {
+            if (universe.isEmpty()) bootstrap();
+            return universe;
+        }
+    }
+
+    public PerpUniverse current() {
+        return universe;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleRefresh() {
+        for (ExchangeType ex : ExchangeType.values()) {
+            Duration every = props.refreshInterval(ex);
+            long jitter = ThreadLocalRandom.current().nextLong(Math.max(1, every.toMillis() / 4));
+            schedule(ex, every.plusMillis(jitter));
+        }
+    }
+
+    private void schedule(ExchangeType ex, Duration delay) {
+        scheduler.schedule(() -> dispatch(ex), Instant.now().plus(delay));
+    }
+
+    private void dispatch(ExchangeType ex) {
+        if (!leadership.isLeader()) {
+            schedule(ex, props.refreshInterval(ex));
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh(ex, true);
+                } finally {
+                    schedule(ex, props.refreshInterval(ex));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Universe refresh {} rejected, rescheduling: {}", ex, e.getMessage());
+            schedule(ex, props.refreshInterval(ex));
+        }
+    }
+
+    public UniverseChange refresh(ExchangeType ex, boolean evict) {
+        try {
+            if (evict) {
+                Cache cache = cacheManager.getCache("ex-instruments");
+                if (cache != null) cache.evict(ex.name());
             }
-        });
+            Map<String, String> fresh = fetch(ex);
+            if (fresh.isEmpty() && !universe.instruments(ex).isEmpty()) {
+                log.warn("Universe refresh {}: empty instrument list, keeping previous", ex);
+                return new UniverseChange(ex, Set.of(), Set.of(), Set.of());
+            }
+            return apply(ex, fresh);
+        } catch (Exception e) {
+            log.warn("Universe refresh skip {}: {}", ex, e.getMessage());
+            return new UniverseChange(ex, Set.of(), Set.of(), Set.of());
+        }
+    }
+
+    public UniverseChange apply(ExchangeType ex, Map<String, String> nativeByKey) {
+        UniverseChange diff;
+        synchronized (applyLock) {
+            PerpUniverse.Change change = universe.withExchange(ex, nativeByKey);
+            universe = change.universe();
+            diff = change.diff();
+        }
+        if (!diff.isEmpty()) {
+            log.info("Universe {}: +{} -{} ~{} (listed {}, delisted {}, renamed {})", ex,
+                    diff.listed().size(), diff.delisted().size(), diff.renamed().size(),
+                    diff.listed(), diff.delisted(), diff.renamed());
+            events.publishEvent(diff);
+        }
+        return diff;
+    }
 
+    public Map<String, String> nativeSymbols(ExchangeType ex) {
+        Map<String, String> out = new HashMap<>();
+        for (InstrumentData i : universe.instruments(ex)) out.put(i.baseAsset() + "/" + i.quoteAsset(), i.nativeSymbol());
+        return out;
+    }
+
+    private void bootstrap() {
+        List<CompletableFuture<UniverseChange>> futures = Arrays.stream(ExchangeType.values())
+                .map(ex -> CompletableFuture.supplyAsync(() -> refresh(ex, false), executor))
+                .toList();
+        futures.forEach(CompletableFuture::join);
+        log.info("Universe built: {} symbols", universe.size());
+    }
+
+    private Map<String, String> fetch(ExchangeType ex) {
         Map<String, Map<ExchangeType, String>> raw = new TreeMap<>();
-        stream.filter(i -> i.type() == InstrumentType.PERPETUAL).forEach(i -> {
-            String key = SymbolNormalizer.canonicalKey(i);
-            raw.computeIfAbsent(key, k -> new EnumMap<>(ExchangeType.class))
-                    .put(i.exchangeType(), i.nativeSymbol());
-        });
+        for (InstrumentData i : client(ex).getInstruments()) {
+            if (i.type() != InstrumentType.PERPETUAL) continue;
+            raw.computeIfAbsent(SymbolNormalizer.canonicalKey(i), k -> new EnumMap<>(ExchangeType.class))
+                    .put(ex, i.nativeSymbol());
+        }
 
-        return UniverseNormalizer.normalize(raw);
+        Map<String, String> out = new HashMap<>();
+        UniverseNormalizer.normalize(raw).forEach((key, natives) -> {
+            String sym = natives.get(ex);
+            if (sym != null) out.put(key, sym);
+        });
+        return out;
     }
 }
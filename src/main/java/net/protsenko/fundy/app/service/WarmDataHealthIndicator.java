@@ -0,0 +1,22 @@
+package net.protsenko.fundy.app.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class WarmDataHealthIndicator implements HealthIndicator {
+
+    private final WarmStartService warmStart;
+
+    @Override
+    public Health health() {
+        Health.Builder b = warmStart.ready() ? Health.up() : Health.outOfService();
+        return b.withDetail("warmedUp", warmStart.warmedUp())
+                .withDetail("fresh", warmStart.freshExchanges())
+                .withDetail("enabled", warmStart.enabledExchanges().size())
+                .build();
+    }
+}
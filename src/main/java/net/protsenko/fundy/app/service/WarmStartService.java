@@ -0,0 +1,197 @@
+package net.protsenko.fundy.app.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.WarmStartProperties;
+import net.protsenko.fundy.app.dto.ExchangeSnapshot;
+import net.protsenko.fundy.app.exchange.ExchangeClientFactory;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.SnapshotCodec;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+@Slf4j
+@Service
+public class WarmStartService implements SmartInitializingSingleton {
+
+    private static final int MAGIC = 0x46574d31;
+
+    private final ExchangeClientFactory factory;
+    private final UniverseService universeService;
+    private final MarketSnapshotService snapshots;
+    private final ClusterLeadership leadership;
+    private final Executor executor;
+    private final TaskScheduler scheduler;
+    private final WarmStartProperties props;
+
+    private volatile boolean warmedUp;
+
+    public WarmStartService(ExchangeClientFactory factory,
+                            UniverseService universeService,
+                            MarketSnapshotService snapshots,
+                            ClusterLeadership leadership,
+                            @Qualifier("exchangeExecutor") Executor executor,
+                            TaskScheduler scheduler,
+                            WarmStartProperties props) {
+        this.factory = factory;
+        this.universeService = universeService;
+        this.snapshots = snapshots;
+        this.leadership = leadership;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.props = props;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (props.isEnabled()) restore();
+        if (leadership.isLeader()) warmUp();
+        else warmedUp = true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void schedulePersist() {
+        if (!props.isEnabled()) return;
+        scheduler.scheduleWithFixedDelay(this::persistQuietly,
+                Instant.now().plus(props.getPersistInterval()), props.getPersistInterval());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (props.isEnabled()) persistQuietly();
+    }
+
+    public boolean warmedUp() {
+        return warmedUp;
+    }
+
+    public List<ExchangeType> enabledExchanges() {
+        return Arrays.stream(ExchangeType.values())
+                .filter(ex -> factory.getClient(ex).isEnabled())
+                .toList();
+    }
+
+    public List<ExchangeType> freshExchanges() {
+        long cutoff = System.currentTimeMillis() - props.getReadyMaxAge().toMillis();
+        return enabledExchanges().stream()
+                .filter(ex -> {
+                    ExchangeSnapshot s = snapshots.current(ex);
+                    return !s.tickers().isEmpty() && s.updatedAt() >= cutoff;
+                })
+                .toList();
+    }
+
+    public boolean ready() {
+        int required = Math.min(props.getReadyMinExchanges(), enabledExchanges().size());
+        return !universeService.current().isEmpty() && freshExchanges().size() >= required;
+    }
+
+    private void warmUp() {
+        long started = System.nanoTime();
+        CompletableFuture<?>[] tasks = enabledExchanges().stream()
+                .map(ex -> CompletableFuture.runAsync(() -> {
+                    universeService.refresh(ex, false);
+                    if (!universeService.current().instruments(ex).isEmpty()) snapshots.refresh(ex);
+                }, executor).exceptionally(e -> {
+                    log.warn("Warm-up skip {}: {}", ex, e.getMessage());
+                    return null;
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(tasks).whenComplete((r, e) -> {
+            warmedUp = true;
+            log.info("Warm-up done in {} ms: {} symbols, fresh {}",
+                    (System.nanoTime() - started) / 1_000_000, universeService.current().size(), freshExchanges());
+        });
+    }
+
+    private void restore() {
+        Path file = Path.of(props.getFile());
+        if (!Files.isRegularFile(file)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                log.warn("Warm start file {} has unknown format, ignoring", file);
+                return;
+            }
+            long savedAt = in.readLong();
+            if (System.currentTimeMillis() - savedAt > props.getMaxFileAge().toMillis()) {
+                log.info("Warm start file {} is older than {}, ignoring", file, props.getMaxFileAge());
+                return;
+            }
+            int frames = in.readInt();
+            long size = Files.size(file);
+            List<ExchangeSnapshot> saved = new ArrayList<>();
+            for (int i = 0; i < frames; i++) {
+                int length = in.readInt();
+                if (length < 0 || length > size) throw new IOException("frame of " + length + " bytes exceeds file size");
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+                switch (SnapshotCodec.decode(frame)) {
+                    case SnapshotCodec.UniverseFrame u -> universeService.apply(u.exchange(), u.nativeByKey());
+                    case SnapshotCodec.SnapshotFrame s -> saved.add(s.snapshot());
+                }
+            }
+            saved.sort(Comparator.comparingLong(ExchangeSnapshot::version));
+            saved.forEach(snapshots::seed);
+            log.info("Warm start restored {} symbols and {} snapshots saved {} s ago",
+                    universeService.current().size(), saved.size(), (System.currentTimeMillis() - savedAt) / 1000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Warm start restore from {} failed: {}", file, e.getMessage());
+        }
+    }
+
+    private void persistQuietly() {
+        try {
+            persist();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Warm start persist failed: {}", e.getMessage());
+        }
+    }
+
+    private void persist() throws IOException {
+        List<byte[]> frames = new ArrayList<>();
+        for (ExchangeType ex : ExchangeType.values()) {
+            Map<String, String> natives = universeService.nativeSymbols(ex);
+            if (!natives.isEmpty()) frames.add(SnapshotCodec.encodeUniverse(ex, natives));
+        }
+        for (ExchangeSnapshot s : snapshots.currentAll().values()) {
+            if (s.version() > 0) frames.add(SnapshotCodec.encodeSnapshot(s));
+        }
+        if (frames.isEmpty()) return;
+
+        Path file = Path.of(props.getFile()).toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(frames.size());
+                for (byte[] f : frames) {
+                    out.writeInt(f.length);
+                    out.write(f);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        log.debug("Warm start persisted {} frames to {}", frames.size(), file);
+    }
+}
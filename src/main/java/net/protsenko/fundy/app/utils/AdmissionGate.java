@@ -0,0 +1,165 @@
+package net.protsenko.fundy.app.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import net.protsenko.fundy.app.config.AdmissionProperties;
+import net.protsenko.fundy.app.exception.OverloadedException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+public class AdmissionGate {
+
+    public static final String STALE_HEADER = "X-Fundy-Stale";
+
+    private final AdmissionProperties props;
+    private final MeterRegistry registry;
+    private final Map<String, Limiter> limiters = new ConcurrentHashMap<>();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter cancelled;
+
+    public AdmissionGate(AdmissionProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.registry = registry;
+        this.cancelled = registry.counter("fundy.admission.cancelled");
+    }
+
+    public <T> DeferredResult<ResponseEntity<T>> respondAsync(String scope, Supplier<T> work, Supplier<T> stale) {
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(props.getRequestTimeout().toMillis());
+        Future<?> task = workers.submit(() -> {
+            try {
+                result.setResult(respond(scope, work, stale));
+            } catch (Throwable e) {
+                result.setErrorResult(e);
+            }
+        });
+        result.onTimeout(() -> {
+            if (task.cancel(true)) cancelled.increment();
+            result.setErrorResult(new OverloadedException("Timed out waiting for " + scope + " scan", props.getRetryAfter()));
+        });
+        result.onError(e -> {
+            if (task.cancel(true)) cancelled.increment();
+        });
+        result.onCompletion(() -> task.cancel(true));
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public <T> ResponseEntity<T> respond(String scope, Supplier<T> work, Supplier<T> stale) {
+        if (!props.isEnabled()) return ResponseEntity.ok(work.get());
+        Limiter limiter = limiters.computeIfAbsent(scope, Limiter::new);
+        if (limiter.acquire(System.nanoTime() + props.getQueueTimeout().toNanos())) {
+            long start = System.nanoTime();
+            try {
+                return ResponseEntity.ok(work.get());
+            } finally {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+        T last = stale.get();
+        if (last != null) {
+            limiter.stale.increment();
+            return ResponseEntity.ok().header(STALE_HEADER, "true").body(last);
+        }
+        limiter.shed.increment();
+        throw new OverloadedException("Too many concurrent " + scope + " scans", props.getRetryAfter());
+    }
+
+    private final class Limiter {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition released = lock.newCondition();
+        private final Counter stale;
+        private final Counter shed;
+
+        private volatile double limit = props.getInitialLimit();
+        private volatile int inflight;
+        private volatile int waiting;
+        private double longRtt;
+        private long samples;
+
+        Limiter(String scope) {
+            this.stale = registry.counter("fundy.admission.stale", "scope", scope);
+            this.shed = registry.counter("fundy.admission.shed", "scope", scope);
+            Gauge.builder("fundy.admission.limit", this, l -> l.limit).tag("scope", scope).register(registry);
+            Gauge.builder("fundy.admission.inflight", this, l -> l.inflight).tag("scope", scope).register(registry);
+            Gauge.builder("fundy.admission.queued", this, l -> l.waiting).tag("scope", scope).register(registry);
+        }
+
+        boolean acquire(long deadline) {
+            lock.lock();
+            try {
+                if (waiting == 0 && inflight < (int) limit) {
+                    inflight++;
+                    return true;
+                }
+                if (waiting >= props.getMaxQueue() || System.nanoTime() + expectedWait() > deadline) return false;
+                waiting++;
+                try {
+                    while (inflight >= (int) limit) {
+                        long left = deadline - System.nanoTime();
+                        if (left <= 0) return false;
+                        released.awaitNanos(left);
+                    }
+                    inflight++;
+                    return true;
+                } finally {
+                    waiting--;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(long rtt) {
+            lock.lock();
+            try {
+                int before = (int) limit;
+                update(rtt);
+                inflight--;
+                if ((int) limit > before) released.signalAll();
+                else released.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void update(long rtt) {
+            rtt = Math.max(rtt, 1);
+            samples++;
+            double window = Math.min(samples, Math.max(1, props.getLongWindow()));
+            longRtt += (rtt - longRtt) / window;
+            if (samples < 10) return;
+
+            boolean appLimited = inflight < limit / 2;
+            double gradient = Math.max(0.5, Math.min(1.0, props.getRttTolerance() * longRtt / rtt));
+            double target = limit * gradient + (appLimited ? 0 : Math.sqrt(limit));
+            if (appLimited && target > limit) return;
+            double next = limit * (1 - props.getSmoothing()) + target * props.getSmoothing();
+            limit = Math.max(props.getMinLimit(), Math.min(props.getMaxLimit(), next));
+            if (longRtt / rtt > 2) longRtt = rtt * 2;
+        }
+
+        private long expectedWait() {
+            return (long) ((waiting + 1) * longRtt / Math.max(1, limit));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package net.protsenko.fundy.app.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ChangeLog<T> {
+
+    private final long[] versions;
+    private final Object[] items;
+    private int head;
+    private int size;
+    private long floor;
+
+    public ChangeLog(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.versions = new long[capacity];
+        this.items = new Object[capacity];
+    }
+
+    public synchronized void append(long version, List<T> batch) {
+        int cap = items.length;
+        int from = Math.max(0, batch.size() - cap);
+        if (from > 0) floor = Math.max(floor, version);
+        for (int i = from; i < batch.size(); i++) {
+            if (size == cap) {
+                floor = Math.max(floor, versions[head]);
+            } else {
+                size++;
+            }
+            versions[head] = version;
+            items[head] = batch.get(i);
+            head = (head + 1) % cap;
+        }
+    }
+
+    public synchronized void raiseFloor(long version) {
+        floor = Math.max(floor, version);
+    }
+
+    // null when part of the requested range has already been overwritten
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> since(long since) {
+        if (since < floor) return null;
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (versions[physical(mid)] <= since) lo = mid + 1;
+            else hi = mid;
+        }
+        List<T> out = new ArrayList<>(size - lo);
+        for (int i = lo; i < size; i++) out.add((T) items[physical(i)]);
+        return out;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int physical(int logical) {
+        int cap = items.length;
+        return (head - size + logical + cap) % cap;
+    }
+}
@@ -21,9 +21,11 @@ public final class ExchangeLinkResolver {
     }
 
     public static String link(ExchangeType ex, InstrumentData inst) {
-        String base = safeUpper(inst.baseAsset());
-        String quote = defaultQuote(safeUpper(inst.quoteAsset()));
-        return buildUrl(ex, base, quote);
+        return link(ex, inst.baseAsset(), inst.quoteAsset());
+    }
+
+    public static String link(ExchangeType ex, String base, String quote) {
+        return buildUrl(ex, safeUpper(base), defaultQuote(safeUpper(quote)));
     }
 
     private static String buildUrl(ExchangeType ex, String base, String quote) {
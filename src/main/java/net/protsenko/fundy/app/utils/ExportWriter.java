@@ -0,0 +1,125 @@
+package net.protsenko.fundy.app.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+public final class ExportWriter implements Closeable {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private static final int FLUSH_EVERY = 512;
+
+    private final Format format;
+    private final String[] columns;
+    private final long skip;
+    private final Writer csv;
+    private final JsonGenerator json;
+    private long seen;
+    private long written;
+
+    public ExportWriter(OutputStream out, Format format, JsonFactory factory, long skip, String... columns) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.skip = Math.max(0, skip);
+        if (format == Format.CSV) {
+            this.csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.json = null;
+            if (this.skip == 0) header();
+        } else {
+            this.csv = null;
+            this.json = factory.createGenerator(new BufferedOutputStream(out, 64 * 1024));
+            this.json.setRootValueSeparator(new SerializedString("\n"));
+        }
+    }
+
+    public void row(Object... values) throws IOException {
+        if (seen++ < skip) return;
+        if (format == Format.CSV) csvRow(values);
+        else jsonRow(values);
+        if (++written % FLUSH_EVERY == 0) flush();
+    }
+
+    public long written() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (format == Format.CSV) csv.close();
+        else {
+            json.writeRaw('\n');
+            json.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (format == Format.CSV) csv.flush();
+        else json.flush();
+    }
+
+    private void header() throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) csv.write(',');
+            csv.write(columns[i]);
+        }
+        csv.write('\n');
+    }
+
+    private void csvRow(Object[] values) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) csv.write(',');
+            Object v = i < values.length ? values[i] : null;
+            if (v == null) continue;
+            String s = v instanceof BigDecimal d ? d.toPlainString() : v.toString();
+            if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0) {
+                csv.write('"');
+                csv.write(s.replace("\"", "\"\""));
+                csv.write('"');
+            } else {
+                csv.write(s);
+            }
+        }
+        csv.write('\n');
+    }
+
+    private void jsonRow(Object[] values) throws IOException {
+        json.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            Object v = i < values.length ? values[i] : null;
+            json.writeFieldName(columns[i]);
+            switch (v) {
+                case null -> json.writeNull();
+                case BigDecimal d -> json.writeNumber(d);
+                case Long l -> json.writeNumber(l);
+                case Integer n -> json.writeNumber(n);
+                case Double d -> json.writeNumber(d);
+                default -> json.writeString(v.toString());
+            }
+        }
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,138 @@
+package net.protsenko.fundy.app.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+@Slf4j
+public final class HashedTimingWheel<T> implements AutoCloseable {
+
+    private final long tickMs;
+    private final int mask;
+    private final List<List<Timeout<T>>> buckets;
+    private final Queue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Consumer<List<T>> onExpire;
+    private final Thread worker;
+    private final long startMs;
+    private volatile boolean running = true;
+    private long tick;
+
+    public HashedTimingWheel(String name, Duration tick, int wheelSize, Consumer<List<T>> onExpire) {
+        if (tick.toMillis() <= 0) throw new IllegalArgumentException("tick must be >= 1ms");
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1) << 1);
+        this.tickMs = tick.toMillis();
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) buckets.add(new ArrayList<>());
+        this.onExpire = onExpire;
+        this.startMs = System.currentTimeMillis();
+        this.worker = Thread.ofPlatform().name(name).daemon().unstarted(this::run);
+        this.worker.start();
+    }
+
+    public Timeout<T> schedule(T payload, long deadlineMs) {
+        Timeout<T> t = new Timeout<>(payload, deadlineMs);
+        pending.incrementAndGet();
+        incoming.add(t);
+        return t;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long wakeAt = startMs + (tick + 1) * tickMs;
+            long sleep = wakeAt - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running) return;
+                }
+            }
+            transferIncoming();
+            List<T> expired = expire(buckets.get((int) (tick & mask)));
+            tick++;
+            if (!expired.isEmpty()) {
+                try {
+                    onExpire.accept(expired);
+                } catch (Exception e) {
+                    log.warn("Timing wheel callback failed: {}", e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout<T> t;
+        while ((t = incoming.poll()) != null) {
+            if (t.cancelled) {
+                pending.decrementAndGet();
+                continue;
+            }
+            long calculated = Math.max(0, (t.deadlineMs - startMs + tickMs - 1) / tickMs);
+            t.rounds = (calculated - tick) / buckets.size();
+            long ticks = Math.max(calculated, tick);
+            buckets.get((int) (ticks & mask)).add(t);
+        }
+    }
+
+    private List<T> expire(List<Timeout<T>> bucket) {
+        List<T> out = new ArrayList<>();
+        Iterator<Timeout<T>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout<T> t = it.next();
+            if (t.cancelled) {
+                it.remove();
+                pending.decrementAndGet();
+            } else if (t.rounds <= 0) {
+                it.remove();
+                pending.decrementAndGet();
+                out.add(t.payload);
+            } else {
+                t.rounds--;
+            }
+        }
+        return out;
+    }
+
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineMs;
+        private long rounds;
+        private volatile boolean cancelled;
+
+        private Timeout(T payload, long deadlineMs) {
+            this.payload = payload;
+            this.deadlineMs = deadlineMs;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public long deadlineMs() {
+            return deadlineMs;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package net.protsenko.fundy.app.utils;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.protsenko.fundy.app.exception.ExchangeException;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
@@ -14,6 +17,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Map;
 
@@ -24,53 +28,73 @@ public class HttpExecutor {
 
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final HttpTapeRecorder recorder;
+    private final RequestScheduler scheduler;
 
-    public <T> T get(String url, int timeoutSec, Class<T> type) {
+    public <T> T get(Endpoint endpoint, String url, int timeoutSec, Class<T> type) {
         HttpRequest req = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .timeout(Duration.ofSeconds(timeoutSec))
                 .GET()
                 .build();
-        HttpResponse<String> resp = send(req);
+        HttpResponse<byte[]> resp = send(endpoint, req);
         return parseBody(resp, type);
     }
 
-    public <T> T get(String url, int timeoutSec, TypeReference<T> typeRef) {
+    public <T> T get(Endpoint endpoint, String url, int timeoutSec, TypeReference<T> typeRef) {
         HttpRequest req = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .timeout(Duration.ofSeconds(timeoutSec))
                 .GET()
                 .build();
-        HttpResponse<String> resp = send(req);
+        HttpResponse<byte[]> resp = send(endpoint, req);
         return parseBody(resp, typeRef);
     }
 
-    public <T> T get(String url, int timeoutSec, Map<String, String> headers, TypeReference<T> typeRef) {
+    public <T> T get(Endpoint endpoint, String url, int timeoutSec, Map<String, String> headers, TypeReference<T> typeRef) {
         HttpRequest.Builder b = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .timeout(Duration.ofSeconds(timeoutSec))
                 .GET();
         if (headers != null) headers.forEach(b::header);
-        HttpResponse<String> resp = send(b.build());
+        HttpResponse<byte[]> resp = send(endpoint, b.build());
         return parseBody(resp, typeRef);
     }
 
-    public <T> T get(String url, int timeoutSec, Map<String, String> headers, Class<T> type) {
+    public <T> T get(Endpoint endpoint, String url, int timeoutSec, Map<String, String> headers, Class<T> type) {
         HttpRequest.Builder b = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .timeout(Duration.ofSeconds(timeoutSec))
                 .GET();
         if (headers != null) headers.forEach(b::header);
-        HttpResponse<String> resp = send(b.build());
+        HttpResponse<byte[]> resp = send(endpoint, b.build());
         return parseBody(resp, type);
     }
 
-    private HttpResponse<String> send(HttpRequest request) {
+    public TickerColumns get(Endpoint endpoint, String url, int timeoutSec, TickerExtractor extractor) {
+        HttpRequest req = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofSeconds(timeoutSec))
+                .GET()
+                .build();
+        HttpResponse<byte[]> resp = send(endpoint, req);
+        try (JsonParser p = objectMapper.getFactory().createParser(resp.body())) {
+            return extractor.extract(p);
+        } catch (IOException e) {
+            log.error("JSON extract failed ({} tickers): {}", extractor.exchange(), text(resp));
+            throw new ExchangeException("JSON parse failed", e);
+        }
+    }
+
+    private HttpResponse<byte[]> send(Endpoint endpoint, HttpRequest request) {
+        scheduler.acquire(endpoint);
         try {
-            HttpResponse<String> resp = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long started = System.nanoTime();
+            HttpResponse<byte[]> resp = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            recorder.record(request, resp, (System.nanoTime() - started) / 1_000_000);
+            scheduler.onResponse(endpoint, resp);
             if (resp.statusCode() >= 400) {
-                String body = resp.body() == null ? "" : resp.body();
-                log.error("HTTP {} {} -> {} {}", request.method(), request.uri(), resp.statusCode(), body);
+                log.error("HTTP {} {} -> {} {}", request.method(), request.uri(), resp.statusCode(), text(resp));
             }
             validateStatus(resp);
             return resp;
@@ -87,29 +111,31 @@ public class HttpExecutor {
         }
     }
 
-    private void validateStatus(HttpResponse<?> response) {
+    private void validateStatus(HttpResponse<byte[]> response) {
         int code = response.statusCode();
         if (code < 200 || code >= 300) {
-            throw new ExchangeException("HTTP error: " + code + ", body: " + response.body());
+            throw new ExchangeException("HTTP error: " + code + ", body: " + text(response));
         }
     }
 
-    private <R> R parseBody(HttpResponse<String> response, Class<R> type) {
+    private static String text(HttpResponse<byte[]> response) {
+        return response.body() == null ? "" : new String(response.body(), StandardCharsets.UTF_8);
+    }
+
+    private <R> R parseBody(HttpResponse<byte[]> response, Class<R> type) {
         try {
             return objectMapper.readValue(response.body(), type);
-        } catch (JsonProcessingException e) {
-            String snippet = response.body() == null ? "" : response.body();
-            log.error("JSON parse failed ({}): {}", type.getSimpleName(), snippet);
+        } catch (IOException e) {
+            log.error("JSON parse failed ({}): {}", type.getSimpleName(), text(response));
             throw new ExchangeException("JSON parse failed", e);
         }
     }
 
-    private <R> R parseBody(HttpResponse<String> response, TypeReference<R> typeRef) {
+    private <R> R parseBody(HttpResponse<byte[]> response, TypeReference<R> typeRef) {
         try {
             return objectMapper.readValue(response.body(), typeRef);
-        } catch (JsonProcessingException e) {
-            String snippet = response.body() == null ? "" : response.body();
-            log.error("JSON parse failed (TypeReference): {}", snippet);
+        } catch (IOException e) {
+            log.error("JSON parse failed (TypeReference): {}", text(response));
             throw new ExchangeException("JSON parse failed", e);
         }
     }
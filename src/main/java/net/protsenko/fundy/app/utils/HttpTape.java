@@ -0,0 +1,83 @@
+package net.protsenko.fundy.app.utils;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@UtilityClass
+public class HttpTape {
+
+    public static final String SUFFIX = ".tape.gz";
+
+    public record Entry(long recordedAt, int latencyMs, int status, String uri, byte[] body) {
+    }
+
+    public static String fileName(URI uri) {
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        return (uri.getHost() + path).replaceAll("[^A-Za-z0-9.-]+", "_") + SUFFIX;
+    }
+
+    public static String endpoint(URI uri) {
+        return uri.getHost() + (uri.getPath() == null ? "" : uri.getPath());
+    }
+
+    public static Writer writer(Path file) throws IOException {
+        return new Writer(file);
+    }
+
+    public static List<Entry> read(Path file) throws IOException {
+        List<Entry> out = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            while (true) {
+                long recordedAt;
+                try {
+                    recordedAt = in.readLong();
+                } catch (EOFException eof) {
+                    break;
+                }
+                int latency = in.readInt();
+                int status = in.readUnsignedShort();
+                String uri = in.readUTF();
+                byte[] body = new byte[in.readInt()];
+                in.readFully(body);
+                out.add(new Entry(recordedAt, latency, status, uri, body));
+            }
+        } catch (EOFException truncated) {
+            return out;
+        }
+        return out;
+    }
+
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+
+        private Writer(Path file) throws IOException {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.out = new DataOutputStream(new GZIPOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING), 8192, true));
+        }
+
+        public synchronized void append(Entry e) throws IOException {
+            out.writeLong(e.recordedAt());
+            out.writeInt(e.latencyMs());
+            out.writeShort(e.status());
+            out.writeUTF(e.uri());
+            out.writeInt(e.body().length);
+            out.write(e.body());
+            out.flush();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package net.protsenko.fundy.app.utils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.HttpTapeProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class HttpTapeRecorder {
+
+    private final boolean enabled;
+    private final Path sessionDir;
+    private final Map<String, HttpTape.Writer> writers = new ConcurrentHashMap<>();
+
+    public HttpTapeRecorder(HttpTapeProperties props) {
+        this.enabled = props.getMode() == HttpTapeProperties.Mode.RECORD;
+        this.sessionDir = Path.of(props.getDir(),
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        if (enabled) log.info("Recording exchange HTTP responses to {}", sessionDir.toAbsolutePath());
+    }
+
+    public void record(HttpRequest request, HttpResponse<byte[]> response, long latencyMs) {
+        if (!enabled) return;
+        String file = HttpTape.fileName(request.uri());
+        try {
+            HttpTape.Writer w = writers.computeIfAbsent(file, f -> {
+                try {
+                    return HttpTape.writer(sessionDir.resolve(f));
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            byte[] body = response.body() == null ? new byte[0] : response.body();
+            w.append(new HttpTape.Entry(System.currentTimeMillis(), (int) latencyMs, response.statusCode(),
+                    request.uri().toString(), body));
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Tape record failed for {}: {}", request.uri(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        writers.values().forEach(w -> {
+            try {
+                w.close();
+            } catch (IOException e) {
+                log.warn("Tape close failed: {}", e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package net.protsenko.fundy.app.utils;
+
+import net.protsenko.fundy.app.config.ApiQuotaProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class IpQuotaLimiter {
+
+    private final ApiQuotaProperties props;
+    private final TaskScheduler scheduler;
+    private final Stripe[] stripes;
+    private final long emissionNanos;
+    private final long toleranceNanos;
+
+    public IpQuotaLimiter(ApiQuotaProperties props, TaskScheduler scheduler) {
+        this.props = props;
+        this.scheduler = scheduler;
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, props.getStripes()))];
+        int maxPerStripe = Math.max(1, props.getMaxTracked() / stripes.length);
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new Stripe(maxPerStripe);
+        this.emissionNanos = (long) (1e9 / Math.max(1e-3, props.getRate()));
+        this.toleranceNanos = emissionNanos * Math.max(1, props.getBurst());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleEviction() {
+        Duration every = props.getIdleEviction().dividedBy(stripes.length);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            private int next;
+
+            @Override
+            public void run() {
+                evict(stripes[next++ & (stripes.length - 1)]);
+            }
+        }, every.isZero() ? Duration.ofSeconds(1) : every);
+    }
+
+    public long tryAcquire(String client, int cost) {
+        long now = System.nanoTime();
+        String key = key(client);
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        long increment = emissionNanos * Math.min(Math.max(1, cost), props.getBurst());
+        synchronized (stripe) {
+            Long tat = stripe.get(key);
+            long next = Math.max(tat != null ? tat : now - toleranceNanos, now) + increment;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) return wait;
+            stripe.put(key, next);
+            return 0;
+        }
+    }
+
+    public boolean exempt(String client) {
+        return props.getExempt().contains(client);
+    }
+
+    public int cost(String path) {
+        for (var e : props.getCosts().entrySet()) {
+            if (path.startsWith(e.getKey())) return e.getValue();
+        }
+        return props.getDefaultCost();
+    }
+
+    public int tracked() {
+        int n = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                n += s.size();
+            }
+        }
+        return n;
+    }
+
+    static String key(String client) {
+        if (client.indexOf(':') < 0) return client;
+        try {
+            InetAddress addr = InetAddress.getByName(client);
+            if (!(addr instanceof Inet6Address)) return addr.getHostAddress();
+            byte[] prefix = Arrays.copyOf(addr.getAddress(), 16);
+            Arrays.fill(prefix, 8, 16, (byte) 0);
+            return InetAddress.getByAddress(prefix).getHostAddress() + "/64";
+        } catch (UnknownHostException e) {
+            return client;
+        }
+    }
+
+    private void evict(Stripe stripe) {
+        long idleSince = System.nanoTime() - props.getIdleEviction().toNanos();
+        synchronized (stripe) {
+            stripe.values().removeIf(tat -> tat - idleSince < 0);
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Long> {
+        private final int max;
+
+        Stripe(int max) {
+            super(16, 0.75f, true);
+            this.max = max;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > max;
+        }
+    }
+}
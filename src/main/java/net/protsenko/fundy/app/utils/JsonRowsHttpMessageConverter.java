@@ -0,0 +1,53 @@
+package net.protsenko.fundy.app.utils;
+
+import net.protsenko.fundy.app.dto.rs.JsonRows;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+@Component
+public class JsonRowsHttpMessageConverter extends AbstractHttpMessageConverter<JsonRows> {
+
+    public JsonRowsHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonRows.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonRows readInternal(Class<? extends JsonRows> clazz, HttpInputMessage in) {
+        throw new HttpMessageNotReadableException("JsonRows is write-only", in);
+    }
+
+    @Override
+    protected Long getContentLength(JsonRows rows, MediaType contentType) {
+        return rows.contentLength();
+    }
+
+    @Override
+    protected void writeInternal(JsonRows rows, HttpOutputMessage out) throws IOException {
+        OutputStream body = out.getBody();
+        List<byte[]> list = rows.rows();
+        body.write('[');
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) body.write(',');
+            body.write(list.get(i));
+        }
+        body.write(']');
+    }
+}
@@ -0,0 +1,257 @@
+package net.protsenko.fundy.app.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.HttpTapeProperties;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+@Slf4j
+public class ReplayHttpClient extends HttpClient {
+
+    private static final HttpHeaders JSON = HttpHeaders.of(
+            Map.of("Content-Type", List.of("application/json")), (k, v) -> true);
+
+    private final HttpTapeProperties props;
+    private final Map<String, HttpTape.Entry[]> byUri = new HashMap<>();
+    private final Map<String, HttpTape.Entry[]> byEndpoint = new HashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+    private final long tapeStart;
+    private final long tapeLength;
+    private final long replayStart = System.nanoTime();
+
+    private ReplayHttpClient(HttpTapeProperties props, List<HttpTape.Entry> entries) {
+        this.props = props;
+        Map<String, List<HttpTape.Entry>> uri = new HashMap<>(), endpoint = new HashMap<>();
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (HttpTape.Entry e : entries) {
+            uri.computeIfAbsent(e.uri(), k -> new ArrayList<>()).add(e);
+            endpoint.computeIfAbsent(HttpTape.endpoint(URI.create(e.uri())), k -> new ArrayList<>()).add(e);
+            min = Math.min(min, e.recordedAt());
+            max = Math.max(max, e.recordedAt());
+        }
+        Comparator<HttpTape.Entry> byTime = Comparator.comparingLong(HttpTape.Entry::recordedAt);
+        uri.forEach((k, v) -> byUri.put(k, v.stream().sorted(byTime).toArray(HttpTape.Entry[]::new)));
+        endpoint.forEach((k, v) -> byEndpoint.put(k, v.stream().sorted(byTime).toArray(HttpTape.Entry[]::new)));
+        this.tapeStart = entries.isEmpty() ? 0 : min;
+        this.tapeLength = entries.isEmpty() ? 0 : max - min + 1;
+    }
+
+    public static ReplayHttpClient load(HttpTapeProperties props) {
+        Path session = resolveSession(props);
+        List<HttpTape.Entry> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(session)) {
+            for (Path f : files.filter(p -> p.getFileName().toString().endsWith(HttpTape.SUFFIX)).toList()) {
+                entries.addAll(HttpTape.read(f));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read tapes from " + session, e);
+        }
+        log.info("Replaying {} recorded responses from {} at speed {}", entries.size(), session, props.getSpeed());
+        return new ReplayHttpClient(props, entries);
+    }
+
+    private static Path resolveSession(HttpTapeProperties props) {
+        Path dir = Path.of(props.getDir());
+        if (props.getSession() != null && !props.getSession().isBlank()) return dir.resolve(props.getSession());
+        try (Stream<Path> sessions = Files.list(dir)) {
+            return sessions.filter(Files::isDirectory).max(Comparator.naturalOrder()).orElse(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list tape sessions in " + dir, e);
+        }
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        HttpTape.Entry e = pick(request.uri());
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        long delay = props.getExtraLatency().toMillis();
+        if (props.getLatencyJitter().toMillis() > 0) delay += rnd.nextLong(props.getLatencyJitter().toMillis() + 1);
+        if (e != null && props.isRecordedLatency() && props.getSpeed() > 0) delay += (long) (e.latencyMs() / props.getSpeed());
+        if (delay > 0) Thread.sleep(delay);
+
+        if (rnd.nextDouble() < props.getTimeoutRate()) {
+            throw new HttpTimeoutException("replay: injected timeout for " + request.uri());
+        }
+        if (rnd.nextDouble() < props.getErrorRate()) {
+            return respond(request, handler, props.getErrorStatus(), "{\"error\":\"injected\"}".getBytes(StandardCharsets.UTF_8));
+        }
+        if (e == null) return respond(request, handler, 404, new byte[0]);
+        return respond(request, handler, e.status(), e.body());
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return send(request, handler);
+            } catch (IOException | InterruptedException ex) {
+                throw new CompletionException(ex);
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> handler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return sendAsync(request, handler);
+    }
+
+    private HttpTape.Entry pick(URI uri) {
+        String key = uri.toString();
+        HttpTape.Entry[] tape = byUri.get(key);
+        if (tape == null) {
+            key = HttpTape.endpoint(uri);
+            tape = byEndpoint.get(key);
+        }
+        if (tape == null || tape.length == 0) return null;
+
+        if (props.getSpeed() <= 0) {
+            int i = cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+            return tape[props.isLoop() ? Math.floorMod(i, tape.length) : Math.min(i, tape.length - 1)];
+        }
+        long offset = (long) ((System.nanoTime() - replayStart) / 1e6 * props.getSpeed());
+        if (props.isLoop() && tapeLength > 0) offset %= tapeLength;
+        long at = tapeStart + offset;
+
+        int lo = 0, hi = tape.length - 1, found = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (tape[mid].recordedAt() <= at) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return tape[found];
+    }
+
+    private static <T> HttpResponse<T> respond(HttpRequest request, HttpResponse.BodyHandler<T> handler, int status, byte[] body) {
+        HttpResponse.BodySubscriber<T> subscriber = handler.apply(new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return status;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return JSON;
+            }
+
+            @Override
+            public Version version() {
+                return Version.HTTP_1_1;
+            }
+        });
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap(body)));
+        subscriber.onComplete();
+        T value = subscriber.getBody().toCompletableFuture().join();
+        return new ReplayResponse<>(status, request, value, request.uri());
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return Redirect.NEVER;
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return Optional.empty();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return new SSLParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Version version() {
+        return Version.HTTP_1_1;
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return Optional.empty();
+    }
+
+    private record ReplayResponse<T>(int statusCode, HttpRequest request, T body, URI uri) implements HttpResponse<T> {
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return JSON;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Version version() {
+            return Version.HTTP_1_1;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package net.protsenko.fundy.app.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.RateLimitProperties;
+import net.protsenko.fundy.app.exception.ExchangeException;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.Endpoint;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+public class RequestScheduler {
+
+    private final RateLimitProperties props;
+    private final Map<ExchangeType, Bucket> buckets = new EnumMap<>(ExchangeType.class);
+
+    public RequestScheduler(RateLimitProperties props, MeterRegistry registry) {
+        this.props = props;
+        for (ExchangeType ex : ExchangeType.values()) {
+            RateLimitProperties.Budget b = props.getExchanges().getOrDefault(ex, new RateLimitProperties.Budget());
+            Bucket bucket = new Bucket(ex, b.getRate(), Math.max(1, b.getBurst()), registry);
+            buckets.put(ex, bucket);
+            Gauge.builder("fundy.ratelimit.queue", bucket, Bucket::queued).tag("exchange", ex.name()).register(registry);
+            Gauge.builder("fundy.ratelimit.rate", bucket, Bucket::rate).tag("exchange", ex.name()).register(registry);
+        }
+    }
+
+    public void acquire(Endpoint endpoint) {
+        if (!props.isEnabled()) return;
+        Duration maxWait = props.getMaxWait().getOrDefault(endpoint.requestClass(), Duration.ofSeconds(10));
+        buckets.get(endpoint.exchange()).acquire(endpoint, System.nanoTime() + maxWait.toNanos());
+    }
+
+    public void onResponse(Endpoint endpoint, HttpResponse<?> response) {
+        if (!props.isEnabled()) return;
+        Bucket bucket = buckets.get(endpoint.exchange());
+        int code = response.statusCode();
+        if (code == 429 || code == 418) bucket.throttle(retryAfter(response));
+        else if (code < 400) bucket.recover();
+    }
+
+    private Duration retryAfter(HttpResponse<?> response) {
+        String header = response.headers().firstValue("Retry-After").orElse("").trim();
+        if (header.isEmpty()) return props.getDefaultPause();
+        long seconds = ExchangeUtils.toLong(header);
+        if (seconds > 0) return Duration.ofSeconds(seconds);
+        try {
+            Duration d = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(header, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return d.isNegative() ? props.getDefaultPause() : d;
+        } catch (RuntimeException e) {
+            return props.getDefaultPause();
+        }
+    }
+
+    private final class Bucket {
+        private final ExchangeType exchange;
+        private final double baseRate;
+        private final double capacity;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+                Comparator.comparingInt(Waiter::priority).thenComparingLong(Waiter::seq));
+        private final Counter rejected;
+        private final Counter throttled;
+
+        private volatile double rate;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+        private long pausedUntil = refilledAt;
+        private long seq;
+
+        Bucket(ExchangeType exchange, double rate, int burst, MeterRegistry registry) {
+            this.exchange = exchange;
+            this.baseRate = rate;
+            this.rate = rate;
+            this.capacity = burst;
+            this.tokens = burst;
+            this.rejected = registry.counter("fundy.ratelimit.rejected", "exchange", exchange.name());
+            this.throttled = registry.counter("fundy.ratelimit.throttled", "exchange", exchange.name());
+        }
+
+        void acquire(Endpoint endpoint, long deadline) {
+            double weight = Math.min(endpoint.weight(), capacity);
+            int priority = endpoint.requestClass().ordinal();
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                refill(now);
+                if (queue.isEmpty() && now >= pausedUntil && tokens >= weight) {
+                    tokens -= weight;
+                    return;
+                }
+                if (now + eta(weight, priority, now) > deadline) throw reject(endpoint);
+
+                Waiter w = new Waiter(priority, seq++, weight);
+                queue.add(w);
+                try {
+                    while (true) {
+                        now = System.nanoTime();
+                        refill(now);
+                        boolean head = queue.peek() == w;
+                        if (head && now >= pausedUntil && tokens >= weight) {
+                            queue.poll();
+                            tokens -= weight;
+                            changed.signalAll();
+                            return;
+                        }
+                        long left = deadline - now;
+                        if (left <= 0) {
+                            queue.remove(w);
+                            changed.signalAll();
+                            throw reject(endpoint);
+                        }
+                        long wait = head ? Math.max(pausedUntil - now, nanosFor(weight - tokens)) : left;
+                        changed.awaitNanos(Math.min(Math.max(wait, TimeUnit.MILLISECONDS.toNanos(1)), left));
+                    }
+                } catch (InterruptedException e) {
+                    queue.remove(w);
+                    changed.signalAll();
+                    Thread.currentThread().interrupt();
+                    throw new ExchangeException("Rate limit wait interrupted for " + exchange, e);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void throttle(Duration pause) {
+            lock.lock();
+            try {
+                pausedUntil = Math.max(pausedUntil, System.nanoTime() + pause.toNanos());
+                tokens = 0;
+                rate = Math.max(baseRate * props.getMinRateFactor(), rate / 2);
+                throttled.increment();
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            log.warn("{} rate limited, pausing {} ms, rate now {}/s", exchange, pause.toMillis(), String.format("%.2f", rate));
+        }
+
+        void recover() {
+            if (rate >= baseRate) return;
+            lock.lock();
+            try {
+                rate = Math.min(baseRate, rate + baseRate * props.getRecoveryStep());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int queued() {
+            return queue.size();
+        }
+
+        double rate() {
+            return rate;
+        }
+
+        private void refill(long now) {
+            long from = Math.max(refilledAt, pausedUntil);
+            if (now > from) tokens = Math.min(capacity, tokens + (now - from) * rate / 1e9);
+            refilledAt = Math.max(refilledAt, now);
+        }
+
+        private long eta(double weight, int priority, long now) {
+            double ahead = weight;
+            for (Waiter w : queue) {
+                if (w.priority() <= priority) ahead += w.weight();
+            }
+            return Math.max(0, pausedUntil - now) + nanosFor(ahead - tokens);
+        }
+
+        private long nanosFor(double missing) {
+            return missing <= 0 ? 0 : (long) (missing / rate * 1e9);
+        }
+
+        private ExchangeException reject(Endpoint endpoint) {
+            rejected.increment();
+            return new ExchangeException("Rate limit budget exhausted for " + exchange + " " + endpoint.requestClass());
+        }
+    }
+
+    private record Waiter(int priority, long seq, double weight) {
+    }
+}
@@ -0,0 +1,207 @@
+package net.protsenko.fundy.app.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+@Slf4j
+public final class RollupStore {
+
+    private static final int HEADER = 8;
+    private static final int RECORD = 28;
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    public enum Resolution {
+        MINUTE(60_000L, "1m"),
+        HOUR(3_600_000L, "1h"),
+        DAY(86_400_000L, "1d");
+
+        private final long millis;
+        private final String label;
+
+        Resolution(long millis, String label) {
+            this.millis = millis;
+            this.label = label;
+        }
+
+        public long millis() {
+            return millis;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public long floor(long ts) {
+            return Math.floorDiv(ts, millis) * millis;
+        }
+
+        public long ceil(long ts) {
+            return floor(ts + millis - 1);
+        }
+
+        public static Resolution of(String label) {
+            for (Resolution r : values()) if (r.label.equalsIgnoreCase(label)) return r;
+            throw new IllegalArgumentException("Unknown resolution: " + label);
+        }
+    }
+
+    public record Bucket(long start, double min, double max, double sum, long count) {
+        public static Bucket of(long start, double value) {
+            return new Bucket(start, value, value, value, 1);
+        }
+
+        public Bucket add(double value) {
+            return new Bucket(start, Math.min(min, value), Math.max(max, value), sum + value, count + 1);
+        }
+
+        public Bucket merge(Bucket other) {
+            if (other == null || other.count == 0) return this;
+            if (count == 0) return new Bucket(start, other.min, other.max, other.sum, other.count);
+            return new Bucket(start, Math.min(min, other.min), Math.max(max, other.max), sum + other.sum, count + other.count);
+        }
+    }
+
+    private final Path dir;
+
+    public RollupStore(Path dir) {
+        this.dir = dir;
+    }
+
+    public void write(Resolution r, ExchangeType ex, String key, Bucket bucket) throws IOException {
+        Path file = file(r, ex, key, bucket.start());
+        Files.createDirectories(file.getParent());
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = ch.lock()) {
+            long epoch = epoch(ch, r, bucket.start());
+            if (bucket.start() < epoch) {
+                log.debug("Rollup {} {} {} bucket {} precedes file epoch, skipped", r.label, ex, key, bucket.start());
+                return;
+            }
+            long offset = HEADER + (bucket.start() - epoch) / r.millis * RECORD;
+            ByteBuffer buf = ByteBuffer.allocate(RECORD);
+            Bucket merged = bucket;
+            if (ch.read(buf, offset) == RECORD) merged = decode(buf.flip(), bucket.start()).merge(bucket);
+            buf.clear();
+            ch.write(encode(buf, merged).flip(), offset);
+        }
+    }
+
+    public List<Bucket> read(Resolution r, ExchangeType ex, String key, long from, long to) throws IOException {
+        List<Bucket> out = new ArrayList<>();
+        if (from >= to) return out;
+        if (r != Resolution.MINUTE) {
+            readFile(file(r, ex, key, from), r, from, to, out);
+            return out;
+        }
+        for (long day = Resolution.DAY.floor(from); day < to; day += Resolution.DAY.millis) {
+            readFile(file(r, ex, key, day), r, Math.max(from, day), Math.min(to, day + Resolution.DAY.millis), out);
+        }
+        return out;
+    }
+
+    public SortedSet<String> keys(Resolution r, ExchangeType ex, long from, long to) throws IOException {
+        SortedSet<String> out = new TreeSet<>();
+        if (r != Resolution.MINUTE) {
+            collectKeys(dir.resolve(r.label).resolve(ex.name()), out);
+            return out;
+        }
+        for (long day = Resolution.DAY.floor(from); day < to; day += Resolution.DAY.millis) {
+            collectKeys(file(r, ex, "_", day).getParent(), out);
+        }
+        return out;
+    }
+
+    public void purgeMinutes(long before) throws IOException {
+        Path root = dir.resolve(Resolution.MINUTE.label);
+        if (!Files.isDirectory(root)) return;
+        String cutoff = DAY.format(Instant.ofEpochMilli(before));
+        try (Stream<Path> days = Files.list(root)) {
+            for (Path day : days.filter(p -> p.getFileName().toString().compareTo(cutoff) < 0).toList()) {
+                try (Stream<Path> walk = Files.walk(day)) {
+                    for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+                }
+            }
+        }
+    }
+
+    private void readFile(Path file, Resolution r, long from, long to, List<Bucket> out) throws IOException {
+        if (!Files.isRegularFile(file)) return;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER) return;
+            ByteBuffer head = ByteBuffer.allocate(HEADER);
+            ch.read(head, 0);
+            long epoch = head.flip().getLong();
+
+            long first = Math.max(0, Math.floorDiv(r.floor(from) - epoch, r.millis));
+            long last = Math.min((ch.size() - HEADER) / RECORD, Math.floorDiv(r.ceil(to) - epoch, r.millis));
+            if (last <= first) return;
+            ByteBuffer buf = ByteBuffer.allocate((int) ((last - first) * RECORD));
+            ch.read(buf, HEADER + first * RECORD);
+            buf.flip();
+            for (long i = first; buf.remaining() >= RECORD; i++) {
+                Bucket b = decode(buf, epoch + i * r.millis);
+                if (b.count() > 0 && b.start() >= r.floor(from) && b.start() < to) out.add(b);
+            }
+        }
+    }
+
+    private static void collectKeys(Path exchangeDir, SortedSet<String> out) throws IOException {
+        if (!Files.isDirectory(exchangeDir)) return;
+        try (Stream<Path> files = Files.list(exchangeDir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.endsWith(".bin"))
+                    .map(n -> n.substring(0, n.length() - 4))
+                    .map(n -> {
+                        int sep = n.lastIndexOf('_');
+                        return sep > 0 ? n.substring(0, sep) + "/" + n.substring(sep + 1) : n;
+                    })
+                    .forEach(out::add);
+        }
+    }
+
+    private long epoch(FileChannel ch, Resolution r, long start) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(HEADER);
+        if (ch.size() >= HEADER) {
+            ch.read(head, 0);
+            return head.flip().getLong();
+        }
+        long epoch = r == Resolution.MINUTE ? Resolution.DAY.floor(start) : start;
+        ch.write(head.putLong(epoch).flip(), 0);
+        return epoch;
+    }
+
+    private Path file(Resolution r, ExchangeType ex, String key, long start) {
+        String name = key.replaceAll("[^A-Za-z0-9]", "_") + ".bin";
+        Path base = dir.resolve(r.label);
+        if (r == Resolution.MINUTE) base = base.resolve(DAY.format(Instant.ofEpochMilli(start)));
+        return base.resolve(ex.name()).resolve(name);
+    }
+
+    private static ByteBuffer encode(ByteBuffer buf, Bucket b) {
+        return buf.putDouble(b.min()).putDouble(b.max()).putDouble(b.sum()).putInt((int) b.count());
+    }
+
+    private static Bucket decode(ByteBuffer buf, long start) {
+        double min = buf.getDouble(), max = buf.getDouble();
+        double sum = buf.getDouble();
+        int count = buf.getInt();
+        return new Bucket(start, min, max, sum, count);
+    }
+}
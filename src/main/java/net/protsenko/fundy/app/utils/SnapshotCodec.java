@@ -0,0 +1,165 @@
+package net.protsenko.fundy.app.utils;
+
+import lombok.experimental.UtilityClass;
+import net.protsenko.fundy.app.dto.ExchangeSnapshot;
+import net.protsenko.fundy.app.dto.InstrumentType;
+import net.protsenko.fundy.app.dto.rs.FundingRateData;
+import net.protsenko.fundy.app.dto.rs.InstrumentData;
+import net.protsenko.fundy.app.dto.rs.TickerData;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+@UtilityClass
+public class SnapshotCodec {
+
+    private static final byte UNIVERSE = 1;
+    private static final byte SNAPSHOT = 2;
+
+    private static final byte DEC_NULL = 0;
+    private static final byte DEC_LONG = 1;
+    private static final byte DEC_TEXT = 2;
+
+    public sealed interface Frame permits UniverseFrame, SnapshotFrame {
+    }
+
+    public record UniverseFrame(ExchangeType exchange, Map<String, String> nativeByKey) implements Frame {
+    }
+
+    public record SnapshotFrame(ExchangeSnapshot snapshot) implements Frame {
+    }
+
+    public static byte[] encodeUniverse(ExchangeType ex, Map<String, String> nativeByKey) {
+        return write(out -> {
+            out.writeByte(UNIVERSE);
+            out.writeByte(ex.ordinal());
+            out.writeInt(nativeByKey.size());
+            for (Map.Entry<String, String> e : nativeByKey.entrySet()) {
+                out.writeUTF(e.getKey());
+                out.writeUTF(e.getValue());
+            }
+        });
+    }
+
+    public static byte[] encodeSnapshot(ExchangeSnapshot s) {
+        return write(out -> {
+            out.writeByte(SNAPSHOT);
+            out.writeByte(s.exchange().ordinal());
+            out.writeLong(s.version());
+            out.writeLong(s.updatedAt());
+            out.writeInt(s.tickers().size());
+            for (Map.Entry<String, TickerData> e : s.tickers().entrySet()) {
+                TickerData t = e.getValue();
+                out.writeUTF(e.getKey());
+                writeInstrument(out, t.instrument());
+                writeDecimal(out, t.lastPrice());
+                writeDecimal(out, t.bid());
+                writeDecimal(out, t.ask());
+                writeDecimal(out, t.high24h());
+                writeDecimal(out, t.low24h());
+                writeDecimal(out, t.volume24h());
+            }
+            out.writeInt(s.funding().size());
+            for (Map.Entry<String, FundingRateData> e : s.funding().entrySet()) {
+                FundingRateData f = e.getValue();
+                out.writeUTF(e.getKey());
+                writeInstrument(out, f.instrument());
+                writeDecimal(out, f.fundingRate());
+                out.writeLong(f.nextFundingTs());
+            }
+        });
+    }
+
+    public static Frame decode(byte[] frame) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        byte type = in.readByte();
+        ExchangeType ex = ExchangeType.values()[in.readUnsignedByte()];
+        return switch (type) {
+            case UNIVERSE -> {
+                int n = count(in, frame.length);
+                Map<String, String> nativeByKey = HashMap.newHashMap(n);
+                for (int i = 0; i < n; i++) nativeByKey.put(in.readUTF(), in.readUTF());
+                yield new UniverseFrame(ex, nativeByKey);
+            }
+            case SNAPSHOT -> {
+                long version = in.readLong();
+                long updatedAt = in.readLong();
+                int nt = count(in, frame.length);
+                Map<String, TickerData> tickers = HashMap.newHashMap(nt);
+                for (int i = 0; i < nt; i++) {
+                    String key = in.readUTF();
+                    tickers.put(key, new TickerData(readInstrument(in, ex),
+                            readDecimal(in), readDecimal(in), readDecimal(in),
+                            readDecimal(in), readDecimal(in), readDecimal(in)));
+                }
+                int nf = count(in, frame.length);
+                Map<String, FundingRateData> funding = HashMap.newHashMap(nf);
+                for (int i = 0; i < nf; i++) {
+                    String key = in.readUTF();
+                    funding.put(key, new FundingRateData(readInstrument(in, ex), readDecimal(in), in.readLong()));
+                }
+                yield new SnapshotFrame(new ExchangeSnapshot(ex, version, updatedAt, Map.copyOf(tickers), Map.copyOf(funding)));
+            }
+            default -> throw new IOException("Unknown frame type " + type);
+        };
+    }
+
+    private static void writeInstrument(DataOutputStream out, InstrumentData i) throws IOException {
+        out.writeUTF(i.baseAsset());
+        out.writeUTF(i.quoteAsset());
+        out.writeUTF(i.nativeSymbol() == null ? "" : i.nativeSymbol());
+    }
+
+    private static InstrumentData readInstrument(DataInputStream in, ExchangeType ex) throws IOException {
+        String base = in.readUTF(), quote = in.readUTF(), sym = in.readUTF();
+        return new InstrumentData(base, quote, InstrumentType.PERPETUAL, sym.isEmpty() ? null : sym, ex);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal v) throws IOException {
+        if (v == null) {
+            out.writeByte(DEC_NULL);
+        } else if (v.unscaledValue().bitLength() < 64 && v.scale() == (short) v.scale()) {
+            out.writeByte(DEC_LONG);
+            out.writeShort(v.scale());
+            out.writeLong(v.unscaledValue().longValue());
+        } else {
+            out.writeByte(DEC_TEXT);
+            out.writeUTF(v.toString());
+        }
+    }
+
+    private static int count(DataInputStream in, int frameBytes) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || n > frameBytes / 2) throw new IOException("Bad entry count " + n);
+        return n;
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        return switch (in.readByte()) {
+            case DEC_NULL -> null;
+            case DEC_LONG -> {
+                int scale = in.readShort();
+                yield new BigDecimal(BigInteger.valueOf(in.readLong()), scale);
+            }
+            case DEC_TEXT -> new BigDecimal(in.readUTF());
+            default -> throw new IOException("Bad decimal tag");
+        };
+    }
+
+    private static byte[] write(Body body) {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(4096);
+        try (DataOutputStream out = new DataOutputStream(buf)) {
+            body.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buf.toByteArray();
+    }
+
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,156 @@
+package net.protsenko.fundy.app.utils;
+
+import net.protsenko.fundy.app.dto.PerpUniverse;
+import net.protsenko.fundy.app.dto.rs.UniverseEntry;
+
+import java.util.*;
+
+public final class SymbolIndex {
+
+    public static final SymbolIndex EMPTY = build(PerpUniverse.EMPTY, Map.of());
+
+    private static final int CANONICAL = 4;
+    private static final int EXACT = 3;
+    private static final int BASE = 2;
+    private static final int PREFIX = 1;
+
+    private final PerpUniverse universe;
+    private final UniverseEntry[] entries;
+    private final String[] bases;
+    private final String[] terms;
+    private final int[] postings;
+    private final boolean[] baseTerm;
+
+    private SymbolIndex(PerpUniverse universe, UniverseEntry[] entries, String[] bases,
+                        String[] terms, int[] postings, boolean[] baseTerm) {
+        this.universe = universe;
+        this.entries = entries;
+        this.bases = bases;
+        this.terms = terms;
+        this.postings = postings;
+        this.baseTerm = baseTerm;
+    }
+
+    public static SymbolIndex build(PerpUniverse universe, Map<String, String> aliases) {
+        List<PerpUniverse.Entry> list = new ArrayList<>(universe.entries());
+        UniverseEntry[] entries = new UniverseEntry[list.size()];
+        String[] bases = new String[list.size()];
+        Map<String, List<Integer>> byBase = new HashMap<>();
+        List<Term> raw = new ArrayList<>();
+
+        for (int id = 0; id < list.size(); id++) {
+            PerpUniverse.Entry e = list.get(id);
+            entries[id] = new UniverseEntry(e.base(), e.quote(), e.nativeSymbols());
+            bases[id] = normalize(e.base());
+            byBase.computeIfAbsent(bases[id], k -> new ArrayList<>()).add(id);
+
+            raw.add(new Term(bases[id], id, true));
+            String bare = bases[id].replaceFirst("^\\d+", "");
+            if (!bare.isEmpty() && !bare.equals(bases[id])) raw.add(new Term(bare, id, true));
+            raw.add(new Term(normalize(e.key()), id, false));
+            for (String nativeSymbol : e.nativeSymbols().values()) raw.add(new Term(normalize(nativeSymbol), id, false));
+        }
+        aliases.forEach((alias, target) -> {
+            for (int id : byBase.getOrDefault(normalize(target), List.of())) raw.add(new Term(normalize(alias), id, true));
+        });
+
+        raw.sort(Comparator.comparing(Term::text).thenComparingInt(Term::id));
+        List<Term> terms = new ArrayList<>(raw.size());
+        for (Term t : raw) {
+            Term last = terms.isEmpty() ? null : terms.getLast();
+            if (last != null && last.text().equals(t.text()) && last.id() == t.id()) {
+                if (t.base() && !last.base()) terms.set(terms.size() - 1, t);
+                continue;
+            }
+            if (!t.text().isEmpty()) terms.add(t);
+        }
+
+        String[] text = new String[terms.size()];
+        int[] postings = new int[terms.size()];
+        boolean[] baseTerm = new boolean[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            text[i] = terms.get(i).text();
+            postings[i] = terms.get(i).id();
+            baseTerm[i] = terms.get(i).base();
+        }
+        return new SymbolIndex(universe, entries, bases, text, postings, baseTerm);
+    }
+
+    public PerpUniverse universe() {
+        return universe;
+    }
+
+    public List<UniverseEntry> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) return List.of();
+
+        Map<Integer, Integer> scores = new HashMap<>();
+        int from = lowerBound(q);
+        for (int i = from; i < terms.length && terms[i].startsWith(q); i++) {
+            int score = terms[i].length() != q.length() ? (baseTerm[i] ? BASE : PREFIX)
+                    : bases[postings[i]].equals(q) ? CANONICAL : EXACT;
+            scores.merge(postings[i], score, Math::max);
+        }
+        if (scores.isEmpty() && q.length() >= 3) {
+            for (int id = 0; id < bases.length; id++) {
+                if (withinOneEdit(q, bases[id])) scores.put(id, PREFIX);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                        .thenComparing(e -> -entries[e.getKey()].coverage())
+                        .thenComparing(e -> entries[e.getKey()].token()))
+                .limit(limit)
+                .map(e -> entries[e.getKey()])
+                .toList();
+    }
+
+    private int lowerBound(String q) {
+        int lo = 0, hi = terms.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (terms[mid].compareTo(q) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    static String normalize(String s) {
+        if (s == null) return "";
+        StringBuilder b = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 'a' && c <= 'z') b.append((char) (c - 32));
+            else if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) b.append(c);
+        }
+        return b.toString();
+    }
+
+    private static boolean withinOneEdit(String q, String base) {
+        int n = q.length(), m = base.length();
+        if (Math.abs(n - m) > 1) return false;
+        int i = 0, j = 0, edits = 0;
+        while (i < n && j < m) {
+            if (q.charAt(i) == base.charAt(j)) {
+                i++;
+                j++;
+                continue;
+            }
+            if (++edits > 1) return false;
+            if (n == m && i + 1 < n && q.charAt(i) == base.charAt(j + 1) && q.charAt(i + 1) == base.charAt(j)) {
+                i += 2;
+                j += 2;
+            } else if (n > m) i++;
+            else if (m > n) j++;
+            else {
+                i++;
+                j++;
+            }
+        }
+        return edits + (n - i) + (m - j) <= 1;
+    }
+
+    private record Term(String text, int id, boolean base) {
+    }
+}
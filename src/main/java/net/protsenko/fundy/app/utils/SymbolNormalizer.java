@@ -21,6 +21,10 @@ public class SymbolNormalizer {
         BASE_ALIASES.put(dirty.toUpperCase(Locale.ROOT), clean.toUpperCase(Locale.ROOT));
     }
 
+    public static Map<String, String> baseAliases() {
+        return Map.copyOf(BASE_ALIASES);
+    }
+
     public static String canonicalKey(InstrumentData inst) {
         return key(inst.baseAsset(), inst.quoteAsset());
     }
@@ -0,0 +1,97 @@
+package net.protsenko.fundy.app.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class TelegramClient {
+
+    private final RestTemplate rt;
+    private final ObjectMapper objectMapper;
+    @Value("${fundy.feedback.telegram.token:}")
+    private String token;
+    @Value("${fundy.feedback.telegram.chat-id:}")
+    private String defaultChatId;
+
+    public TelegramClient(RestTemplateBuilder b, ObjectMapper objectMapper) {
+        this.rt = b.connectTimeout(Duration.ofSeconds(5)).readTimeout(Duration.ofSeconds(10))
+                .build();
+        this.objectMapper = objectMapper;
+    }
+
+    public String resolveChat(String chatId) {
+        return (chatId == null || chatId.isBlank()) ? defaultChatId : chatId;
+    }
+
+    public Delivery deliver(String chatId, String html) {
+        String chat = resolveChat(chatId);
+        if (token == null || token.isBlank() || chat == null || chat.isBlank()) {
+            log.info("TELEGRAM (not configured):\n{}", html.replaceAll("<[^>]+>", ""));
+            return Delivery.ok();
+        }
+        String url = "https://api.telegram.org/bot" + token + "/sendMessage";
+        Map<String, Object> body = Map.of(
+                "chat_id", chat,
+                "text", html,
+                "parse_mode", "HTML",
+                "disable_web_page_preview", true
+        );
+        try {
+            rt.exchange(RequestEntity.post(url).contentType(MediaType.APPLICATION_JSON).body(body), Void.class);
+            return Delivery.ok();
+        } catch (HttpStatusCodeException e) {
+            int code = e.getStatusCode().value();
+            if (code == 429) return Delivery.retryAfter(retryAfter(e));
+            if (code >= 500) return Delivery.transientFailure("HTTP " + code);
+            log.warn("Telegram rejected message ({}): {}", code, e.getResponseBodyAsString());
+            return Delivery.rejected("HTTP " + code);
+        } catch (Exception e) {
+            return Delivery.transientFailure(e.getMessage());
+        }
+    }
+
+    private Duration retryAfter(HttpStatusCodeException e) {
+        try {
+            long s = objectMapper.readTree(e.getResponseBodyAsString()).path("parameters").path("retry_after").asLong(0);
+            if (s > 0) return Duration.ofSeconds(s);
+        } catch (Exception ignore) {
+        }
+        String header = e.getResponseHeaders() == null ? null : e.getResponseHeaders().getFirst("Retry-After");
+        return Duration.ofSeconds(Math.max(1, ExchangeUtils.toLong(header)));
+    }
+
+    public record Delivery(Status status, Duration retryAfter, String error) {
+        public enum Status {
+            OK,
+            RETRY,
+            REJECTED
+        }
+
+        static Delivery ok() {
+            return new Delivery(Status.OK, Duration.ZERO, null);
+        }
+
+        static Delivery retryAfter(Duration d) {
+            return new Delivery(Status.RETRY, d, "rate limited");
+        }
+
+        static Delivery transientFailure(String error) {
+            return new Delivery(Status.RETRY, Duration.ZERO, error);
+        }
+
+        static Delivery rejected(String error) {
+            return new Delivery(Status.REJECTED, Duration.ZERO, error);
+        }
+    }
+}
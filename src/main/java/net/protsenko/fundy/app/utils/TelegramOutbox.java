@@ -0,0 +1,285 @@
+package net.protsenko.fundy.app.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.fundy.app.config.TelegramOutboxProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+@Component
+public class TelegramOutbox {
+
+    private static final String SEPARATOR = "\n\n";
+
+    private final TelegramClient client;
+    private final ObjectMapper objectMapper;
+    private final TelegramOutboxProperties props;
+    private final LinkedBlockingDeque<Message> queue;
+    private final Map<String, Long> nextAllowedByChat = new ConcurrentHashMap<>();
+    private final Counter sent;
+    private final Counter dropped;
+    private final Counter retried;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile Thread worker;
+    private long nextAllowedGlobal;
+    private BufferedWriter journal;
+    private int journalLines;
+
+    public TelegramOutbox(TelegramClient client,
+                          ObjectMapper objectMapper,
+                          TelegramOutboxProperties props,
+                          MeterRegistry registry) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.props = props;
+        this.queue = new LinkedBlockingDeque<>(props.getCapacity());
+        Gauge.builder("fundy.telegram.outbox.depth", queue, Collection::size).register(registry);
+        this.sent = registry.counter("fundy.telegram.outbox.sent");
+        this.dropped = registry.counter("fundy.telegram.outbox.dropped");
+        this.retried = registry.counter("fundy.telegram.outbox.retried");
+    }
+
+    public boolean enqueue(String chatId, String html) {
+        Message m = new Message(ids.incrementAndGet(), client.resolveChat(chatId), html, System.currentTimeMillis(), 0);
+        boolean accepted;
+        synchronized (this) {
+            accepted = queue.offerLast(m);
+            if (accepted) append(m);
+        }
+        if (accepted) {
+            LockSupport.unpark(worker);
+        } else {
+            dropped.increment();
+            log.warn("Telegram outbox full ({}), message rejected", props.getCapacity());
+        }
+        return accepted;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    @PostConstruct
+    public void start() {
+        restore();
+        compact();
+        running = true;
+        worker = Thread.ofVirtual().name("telegram-outbox").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(5_000);
+        compact();
+        synchronized (this) {
+            closeJournal();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Message head = nextReady();
+                if (head == null) {
+                    if (journalLines > props.getCompactAfter() && journalLines > 2 * queue.size()) compact();
+                    continue;
+                }
+                Batch batch = coalesce(head);
+                long wait = nextAllowedGlobal - System.currentTimeMillis();
+                if (wait > 0) {
+                    try {
+                        Thread.sleep(wait);
+                    } catch (InterruptedException e) {
+                        queue.offerFirst(batch.message());
+                        throw e;
+                    }
+                }
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Telegram outbox worker error", e);
+            }
+        }
+    }
+
+    private Message nextReady() {
+        long now = System.currentTimeMillis();
+        long wakeAt = now + 1_000;
+        for (Message m : queue) {
+            long at = nextAllowedByChat.getOrDefault(m.chatId(), 0L);
+            if (at > now) wakeAt = Math.min(wakeAt, at);
+            else if (queue.removeFirstOccurrence(m)) return m;
+        }
+        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(wakeAt - now));
+        return null;
+    }
+
+    private Batch coalesce(Message head) {
+        StringBuilder text = new StringBuilder(head.html());
+        List<Long> ids = new ArrayList<>();
+        ids.add(head.id());
+        int attempts = head.attempts();
+        Iterator<Message> it = queue.iterator();
+        while (it.hasNext()) {
+            Message m = it.next();
+            if (!m.chatId().equals(head.chatId())) continue;
+            if (text.length() + SEPARATOR.length() + m.html().length() > props.getMaxBatchChars()) break;
+            it.remove();
+            text.append(SEPARATOR).append(m.html());
+            ids.add(m.id());
+            attempts = Math.max(attempts, m.attempts());
+        }
+        return new Batch(new Message(head.id(), head.chatId(), text.toString(), head.enqueuedAt(), attempts), ids);
+    }
+
+    private void deliver(Batch batch) {
+        Message m = batch.message();
+        TelegramClient.Delivery d = client.deliver(m.chatId(), m.html());
+        long now = System.currentTimeMillis();
+        nextAllowedGlobal = now + props.getGlobalInterval().toMillis();
+        nextAllowedByChat.put(m.chatId(), now + props.getPerChatInterval().toMillis());
+
+        switch (d.status()) {
+            case OK -> sent.increment();
+            case REJECTED -> {
+                dropped.increment();
+                log.warn("Telegram message to {} dropped: {}", m.chatId(), d.error());
+            }
+            case RETRY -> {
+                int attempts = m.attempts() + 1;
+                if (attempts >= props.getMaxAttempts()) {
+                    dropped.increment();
+                    log.error("Telegram message to {} dropped after {} attempts: {}", m.chatId(), attempts, d.error());
+                    break;
+                }
+                long wait = d.retryAfter().isZero() ? backoff(attempts) : d.retryAfter().toMillis();
+                retried.increment();
+                log.warn("Telegram send to {} failed ({}), retry #{} in {} ms", m.chatId(), d.error(), attempts, wait);
+                Message retry = new Message(ids.incrementAndGet(), m.chatId(), m.html(), m.enqueuedAt(), attempts);
+                synchronized (this) {
+                    queue.offerFirst(retry);
+                    append(retry);
+                }
+                if (d.retryAfter().isZero()) nextAllowedByChat.put(m.chatId(), now + wait);
+                else nextAllowedGlobal = now + wait;
+            }
+        }
+        synchronized (this) {
+            for (long id : batch.ids()) append(Map.of("done", id));
+        }
+    }
+
+    private long backoff(int attempts) {
+        long base = 1_000L << Math.min(attempts - 1, 16);
+        return Math.min(base, props.getMaxBackoff().toMillis());
+    }
+
+    private synchronized void append(Object entry) {
+        try {
+            if (journal == null) {
+                Path file = Path.of(props.getSpoolFile());
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                journal = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            journal.write(objectMapper.writeValueAsString(entry));
+            journal.newLine();
+            journal.flush();
+            journalLines++;
+        } catch (IOException e) {
+            log.warn("Telegram outbox journal append failed: {}", e.getMessage());
+            closeJournal();
+        }
+    }
+
+    private synchronized void compact() {
+        closeJournal();
+        Path file = Path.of(props.getSpoolFile());
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "telegram-outbox", ".tmp");
+            int lines = 0;
+            try (BufferedWriter w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Message m : queue) {
+                    w.write(objectMapper.writeValueAsString(m));
+                    w.newLine();
+                    lines++;
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journalLines = lines;
+        } catch (IOException e) {
+            log.warn("Telegram outbox compaction failed: {}", e.getMessage());
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Telegram outbox journal close failed: {}", e.getMessage());
+        }
+        journal = null;
+    }
+
+    private void restore() {
+        Path file = Path.of(props.getSpoolFile());
+        if (!Files.exists(file)) return;
+        Map<Long, Message> pending = new LinkedHashMap<>();
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                JsonNode node = objectMapper.readTree(line);
+                if (node.has("done")) {
+                    pending.remove(node.get("done").asLong());
+                    continue;
+                }
+                Message m = objectMapper.treeToValue(node, Message.class);
+                if (m.id() == 0) m = new Message(-pending.size() - 1, m.chatId(), m.html(), m.enqueuedAt(), m.attempts());
+                pending.put(m.id(), m);
+            }
+        } catch (IOException e) {
+            log.warn("Telegram outbox restore failed: {}", e.getMessage());
+        }
+        for (Message m : pending.values()) {
+            if (!queue.offerLast(m)) break;
+            ids.accumulateAndGet(m.id(), Math::max);
+        }
+        if (!queue.isEmpty()) log.info("Telegram outbox restored {} pending messages", queue.size());
+    }
+
+    record Message(long id, String chatId, String html, long enqueuedAt, int attempts) {
+    }
+
+    private record Batch(Message message, List<Long> ids) {
+    }
+}
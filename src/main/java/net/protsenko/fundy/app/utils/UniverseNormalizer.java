@@ -44,6 +44,10 @@ public final class UniverseNormalizer {
         return out;
     }
 
+    public static Map<String, String> baseAliases() {
+        return BASE_ALIASES;
+    }
+
     public static String normalizeKey(String rawKey) {
         if (rawKey == null) return null;
         String s = rawKey.trim().toUpperCase(Locale.ROOT);
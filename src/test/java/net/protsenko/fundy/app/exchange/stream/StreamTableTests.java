@@ -0,0 +1,66 @@
+package net.protsenko.fundy.app.exchange.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.exchange.support.TickerColumns;
+import net.protsenko.fundy.app.exchange.support.TickerExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamTableTests {
+
+    private static final TickerExtractor REST = TickerExtractor.of(ExchangeType.BYBIT)
+            .symbol("symbol")
+            .field("last", LAST)
+            .field("bid", BID)
+            .build();
+
+    @Test
+    void replaysDeltasReceivedWhileTheSnapshotWasInFlight() {
+        StreamTable table = new StreamTable(ExchangeType.BYBIT);
+        table.apply(delta("BTCUSDT", 4, "100"), true);
+
+        table.resync(() -> {
+            table.apply(delta("BTCUSDT", 5, "102"), true);
+            return snapshot("[{\"symbol\":\"BTCUSDT\",\"last\":\"101\",\"bid\":\"100.5\"}]");
+        });
+
+        StreamTable.Row row = table.row("BTCUSDT");
+        assertEquals(0, new BigDecimal("102").compareTo(row.decimal(LAST)));
+        assertEquals(0, new BigDecimal("100.5").compareTo(row.decimal(BID)));
+        assertEquals(5, row.seq());
+        assertTrue(table.apply(delta("BTCUSDT", 6, "103"), true));
+    }
+
+    @Test
+    void stopsBufferingWhenTheSnapshotFails() {
+        StreamTable table = new StreamTable(ExchangeType.BYBIT);
+        assertThrows(IllegalStateException.class, () -> table.resync(() -> {
+            throw new IllegalStateException("down");
+        }));
+
+        table.apply(delta("ETHUSDT", 1, "3000"), true);
+        table.resync(() -> snapshot("[{\"symbol\":\"ETHUSDT\",\"last\":\"2990\"}]"));
+        assertEquals(0, new BigDecimal("2990").compareTo(table.row("ETHUSDT").decimal(LAST)));
+    }
+
+    private static TickerUpdate delta(String symbol, long seq, String last) {
+        return new TickerUpdate(symbol, seq, false, Map.of(LAST, new BigDecimal(last)));
+    }
+
+    private static TickerColumns snapshot(String json) {
+        try (JsonParser p = new JsonFactory().createParser(json)) {
+            return REST.extract(p);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
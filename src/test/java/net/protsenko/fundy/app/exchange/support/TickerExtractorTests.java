@@ -0,0 +1,92 @@
+package net.protsenko.fundy.app.exchange.support;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import static net.protsenko.fundy.app.exchange.support.TickerColumns.Field.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickerExtractorTests {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final TickerExtractor ROOT_ARRAY = TickerExtractor.of(ExchangeType.GATEIO)
+            .symbol("contract")
+            .field("last", LAST)
+            .field("highest_bid", BID)
+            .field("volume_24h", VOLUME)
+            .build();
+
+    private static final TickerExtractor ENVELOPED = TickerExtractor.of(ExchangeType.OKX)
+            .path("data")
+            .symbol("instId")
+            .field("last", LAST)
+            .envelope("code", "msg")
+            .build();
+
+    private static final TickerExtractor KEYED = TickerExtractor.of(ExchangeType.BINGX)
+            .path("data")
+            .keyedBySymbol()
+            .field("last", LAST)
+            .build();
+
+    private static TickerColumns extract(TickerExtractor extractor, String json) throws IOException {
+        try (JsonParser p = JSON.createParser(json)) {
+            return extractor.extract(p);
+        }
+    }
+
+    @Test
+    void rejectsErrorObjectWhereRowsArrayIsExpected() {
+        JsonParseException e = assertThrows(JsonParseException.class,
+                () -> extract(ROOT_ARRAY, "{\"label\":\"INVALID_PARAM_VALUE\",\"message\":\"settle\"}"));
+        assertTrue(e.getMessage().contains("expected array"));
+    }
+
+    @Test
+    void rejectsArrayWhereSymbolKeyedObjectIsExpected() {
+        assertThrows(JsonParseException.class, () -> extract(KEYED, "{\"data\":[{\"last\":\"1\"}]}"));
+    }
+
+    @Test
+    void keepsEnvelopeWhenRowsAreMissing() throws IOException {
+        TickerColumns cols = extract(ENVELOPED, "{\"code\":\"50011\",\"msg\":\"Too Many Requests\",\"data\":null}");
+        assertEquals(0, cols.size());
+        assertEquals("50011", cols.meta("code"));
+        assertEquals("Too Many Requests", cols.meta("msg"));
+    }
+
+    @Test
+    void treatsMalformedNumbersAsMissing() throws IOException {
+        TickerColumns cols = extract(ROOT_ARRAY,
+                "[{\"contract\":\"BTC_USDT\",\"last\":\"1.2.3\",\"highest_bid\":\"\",\"volume_24h\":\"abc\"}]");
+        assertEquals(1, cols.size());
+        assertFalse(cols.has(0, LAST));
+        assertFalse(cols.has(0, BID));
+        assertFalse(cols.has(0, VOLUME));
+        assertEquals(BigDecimal.ZERO, cols.decimal(0, LAST));
+    }
+
+    @Test
+    void keepsExponentAndOverflowingNumbersExact() throws IOException {
+        TickerColumns cols = extract(ROOT_ARRAY,
+                "[{\"contract\":\"BTC_USDT\",\"last\":\"1.5e-3\",\"volume_24h\":\"123456789012345678901234.5\"}]");
+        assertEquals(0, new BigDecimal("0.0015").compareTo(cols.decimal(0, LAST)));
+        assertEquals(new BigDecimal("123456789012345678901234.5"), cols.decimal(0, VOLUME));
+    }
+
+    @Test
+    void dropsRowsWithoutSymbolAndSkipsNonObjectRows() throws IOException {
+        TickerColumns cols = extract(ROOT_ARRAY,
+                "[{\"last\":\"1\"},42,null,{\"contract\":\"ETH_USDT\",\"last\":\"2\",\"extra\":{\"a\":[1]}}]");
+        assertEquals(1, cols.size());
+        assertEquals("ETH_USDT", cols.symbol(0));
+        assertEquals(new BigDecimal("2"), cols.decimal(0, LAST));
+    }
+}
@@ -0,0 +1,58 @@
+package net.protsenko.fundy.app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeLogTests {
+
+    @Test
+    void returnsEntriesNewerThanTheCursor() {
+        ChangeLog<String> log = new ChangeLog<>(3);
+        log.append(1, List.of("a"));
+        log.append(2, List.of("b"));
+        log.append(3, List.of("c"));
+
+        assertEquals(List.of("a", "b", "c"), log.since(0));
+        assertEquals(List.of("b", "c"), log.since(1));
+        assertEquals(List.of(), log.since(3));
+    }
+
+    @Test
+    void expiresCursorsOnceTheirRangeIsOverwritten() {
+        ChangeLog<String> log = new ChangeLog<>(3);
+        log.append(1, List.of("a"));
+        log.append(2, List.of("b"));
+        log.append(3, List.of("c"));
+        log.append(4, List.of("d"));
+
+        assertNull(log.since(0));
+        assertEquals(List.of("b", "c", "d"), log.since(1));
+        assertEquals(3, log.size());
+    }
+
+    @Test
+    void batchLargerThanCapacityExpiresEveryOlderCursor() {
+        ChangeLog<String> log = new ChangeLog<>(3);
+        log.append(1, List.of("a"));
+        log.append(2, List.of("b", "c", "d", "e"));
+
+        assertNull(log.since(1));
+        assertEquals(List.of(), log.since(2));
+        assertEquals(3, log.size());
+    }
+
+    @Test
+    void raisedFloorExpiresOlderCursors() {
+        ChangeLog<String> log = new ChangeLog<>(3);
+        log.append(5, List.of("a"));
+        log.raiseFloor(7);
+        log.append(8, List.of("b"));
+
+        assertNull(log.since(5));
+        assertNull(log.since(6));
+        assertEquals(List.of("b"), log.since(7));
+    }
+}
@@ -0,0 +1,39 @@
+package net.protsenko.fundy.app.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import net.protsenko.fundy.app.utils.ExportWriter.Format;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExportWriterTests {
+
+    @Test
+    void writesHeaderOnlyOnFirstPage() throws IOException {
+        assertEquals("symbol,rate\nBTC,0.1\nETH,0.2\n", csv(0));
+        assertEquals("ETH,0.2\n", csv(1));
+    }
+
+    @Test
+    void quotesCsvValuesWithSeparators() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter w = new ExportWriter(out, Format.CSV, new JsonFactory(), 0, "name")) {
+            w.row("a,\"b\"");
+        }
+        assertEquals("name\n\"a,\"\"b\"\"\"\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static String csv(long offset) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter w = new ExportWriter(out, Format.CSV, new JsonFactory(), offset, "symbol", "rate")) {
+            w.row("BTC", 0.1);
+            w.row("ETH", 0.2);
+            assertEquals(2 - offset, w.written());
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
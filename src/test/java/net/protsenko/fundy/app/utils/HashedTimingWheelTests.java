@@ -0,0 +1,58 @@
+package net.protsenko.fundy.app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTests {
+
+    @Test
+    void firesTimeoutsThatSpanSeveralRotations() throws InterruptedException {
+        Map<String, Long> fired = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(2);
+        try (HashedTimingWheel<String> wheel = new HashedTimingWheel<>("test-wheel", Duration.ofMillis(10), 4,
+                expired -> expired.forEach(p -> {
+                    fired.put(p, System.currentTimeMillis());
+                    done.countDown();
+                }))) {
+            long now = System.currentTimeMillis();
+            long nearAt = now + 20, farAt = now + 150;
+            wheel.schedule("far", farAt);
+            wheel.schedule("near", nearAt);
+
+            assertTrue(done.await(2, TimeUnit.SECONDS));
+            assertTrue(fired.get("near") >= nearAt);
+            assertTrue(fired.get("far") >= farAt);
+            assertTrue(fired.get("near") < fired.get("far"));
+            assertEquals(0, wheel.pending());
+        }
+    }
+
+    @Test
+    void cancelledTimeoutsAreDroppedOnTheirTick() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        try (HashedTimingWheel<String> wheel = new HashedTimingWheel<>("test-wheel", Duration.ofMillis(10), 4,
+                expired -> {
+                    fired.addAll(expired);
+                    done.countDown();
+                })) {
+            long now = System.currentTimeMillis();
+            wheel.schedule("cancelled", now + 60).cancel();
+            wheel.schedule("kept", now + 80);
+            assertEquals(2, wheel.pending());
+
+            assertTrue(done.await(2, TimeUnit.SECONDS));
+            assertEquals(List.of("kept"), fired);
+            assertEquals(0, wheel.pending());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package net.protsenko.fundy.app.utils;
+
+import net.protsenko.fundy.app.config.ApiQuotaProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpQuotaLimiterTests {
+
+    private static IpQuotaLimiter limiter(double rate, int burst) {
+        return limiter(rate, burst, 100_000);
+    }
+
+    private static IpQuotaLimiter limiter(double rate, int burst, int maxTracked) {
+        ApiQuotaProperties props = new ApiQuotaProperties();
+        props.setRate(rate);
+        props.setBurst(burst);
+        props.setStripes(1);
+        props.setMaxTracked(maxTracked);
+        return new IpQuotaLimiter(props, null);
+    }
+
+    @Test
+    void allowsBurstThenRejectsWithWait() {
+        IpQuotaLimiter limiter = limiter(10, 5);
+        for (int i = 0; i < 5; i++) assertEquals(0, limiter.tryAcquire("10.0.0.1", 1), "request " + i);
+
+        long wait = limiter.tryAcquire("10.0.0.1", 1);
+        assertTrue(wait > 0);
+        assertTrue(wait <= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", 1));
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() throws InterruptedException {
+        IpQuotaLimiter limiter = limiter(10, 2);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 1));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 1));
+        assertTrue(limiter.tryAcquire("10.0.0.1", 1) > 0);
+
+        Thread.sleep(120);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 1));
+        assertTrue(limiter.tryAcquire("10.0.0.1", 1) > 0);
+    }
+
+    @Test
+    void weightedRequestsSpendSeveralTokens() {
+        IpQuotaLimiter limiter = limiter(10, 10);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 6));
+        assertTrue(limiter.tryAcquire("10.0.0.1", 6) > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 4));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedClientWhenFull() {
+        IpQuotaLimiter limiter = limiter(10, 1, 2);
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", 1));
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", 1));
+        assertTrue(limiter.tryAcquire("10.0.0.1", 1) > 0);
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.3", 1));
+        assertEquals(2, limiter.tracked());
+        assertTrue(limiter.tryAcquire("10.0.0.1", 1) > 0);
+        assertEquals(0, limiter.tryAcquire("10.0.0.2", 1));
+    }
+
+    @Test
+    void sharesQuotaAcrossIpv6Slash64() {
+        IpQuotaLimiter limiter = limiter(10, 1);
+        assertEquals(0, limiter.tryAcquire("2001:db8:1:2::1", 1));
+        assertTrue(limiter.tryAcquire("2001:db8:1:2:ffff::9", 1) > 0);
+        assertEquals(0, limiter.tryAcquire("2001:db8:1:3::1", 1));
+
+        assertEquals("2001:db8:1:2:0:0:0:0/64", IpQuotaLimiter.key("2001:db8:1:2:0:0:0:1"));
+        assertEquals("10.0.0.1", IpQuotaLimiter.key("::ffff:10.0.0.1"));
+        assertEquals("10.0.0.1", IpQuotaLimiter.key("10.0.0.1"));
+    }
+}
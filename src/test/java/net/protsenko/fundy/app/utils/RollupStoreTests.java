@@ -0,0 +1,88 @@
+package net.protsenko.fundy.app.utils;
+
+import net.protsenko.fundy.app.exchange.ExchangeType;
+import net.protsenko.fundy.app.utils.RollupStore.Bucket;
+import net.protsenko.fundy.app.utils.RollupStore.Resolution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollupStoreTests {
+
+    private static final long DAY = Resolution.DAY.millis();
+    private static final long HOUR = Resolution.HOUR.millis();
+    private static final long MINUTE = Resolution.MINUTE.millis();
+    private static final long MIDNIGHT = 20_000 * DAY;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void floorsAndCeilsToBucketStarts() {
+        assertEquals(5 * HOUR, Resolution.HOUR.floor(5 * HOUR + 1));
+        assertEquals(5 * HOUR, Resolution.HOUR.floor(5 * HOUR));
+        assertEquals(6 * HOUR, Resolution.HOUR.ceil(5 * HOUR + 1));
+        assertEquals(5 * HOUR, Resolution.HOUR.ceil(5 * HOUR));
+        assertEquals(-MINUTE, Resolution.MINUTE.floor(-1));
+    }
+
+    @Test
+    void mergesSamplesIntoTheSameBucket() throws IOException {
+        RollupStore store = new RollupStore(dir);
+        long start = MIDNIGHT + 3 * HOUR;
+        store.write(Resolution.HOUR, ExchangeType.BYBIT, "BTC/USDT", Bucket.of(start, 0.0001));
+        store.write(Resolution.HOUR, ExchangeType.BYBIT, "BTC/USDT", Bucket.of(start, 0.0003));
+
+        List<Bucket> out = store.read(Resolution.HOUR, ExchangeType.BYBIT, "BTC/USDT", start, start + HOUR);
+        assertEquals(1, out.size());
+        Bucket b = out.getFirst();
+        assertEquals(start, b.start());
+        assertEquals(2, b.count());
+        assertEquals(0.0001, b.min(), 1e-12);
+        assertEquals(0.0003, b.max(), 1e-12);
+        assertEquals(0.0004, b.sum(), 1e-12);
+    }
+
+    @Test
+    void readsHalfOpenRangesAlignedToBuckets() throws IOException {
+        RollupStore store = new RollupStore(dir);
+        for (int h = 0; h < 4; h++) {
+            store.write(Resolution.HOUR, ExchangeType.OKX, "ETH/USDT", Bucket.of(MIDNIGHT + h * HOUR, h));
+        }
+
+        List<Bucket> out = store.read(Resolution.HOUR, ExchangeType.OKX, "ETH/USDT", MIDNIGHT + HOUR + 1, MIDNIGHT + 3 * HOUR);
+        assertEquals(List.of(MIDNIGHT + HOUR, MIDNIGHT + 2 * HOUR), out.stream().map(Bucket::start).toList());
+    }
+
+    @Test
+    void splitsMinuteBucketsAcrossDayFiles() throws IOException {
+        RollupStore store = new RollupStore(dir);
+        long beforeMidnight = MIDNIGHT + DAY - MINUTE, afterMidnight = MIDNIGHT + DAY;
+        store.write(Resolution.MINUTE, ExchangeType.MEXC, "SOL/USDT", Bucket.of(beforeMidnight, 1));
+        store.write(Resolution.MINUTE, ExchangeType.MEXC, "SOL/USDT", Bucket.of(afterMidnight, 2));
+
+        List<Bucket> out = store.read(Resolution.MINUTE, ExchangeType.MEXC, "SOL/USDT", beforeMidnight, afterMidnight + MINUTE);
+        assertEquals(List.of(beforeMidnight, afterMidnight), out.stream().map(Bucket::start).toList());
+        assertEquals(List.of(beforeMidnight), store.read(Resolution.MINUTE, ExchangeType.MEXC, "SOL/USDT",
+                beforeMidnight, afterMidnight).stream().map(Bucket::start).toList());
+
+        store.purgeMinutes(afterMidnight);
+        assertEquals(List.of(afterMidnight), store.read(Resolution.MINUTE, ExchangeType.MEXC, "SOL/USDT",
+                beforeMidnight, afterMidnight + MINUTE).stream().map(Bucket::start).toList());
+    }
+
+    @Test
+    void skipsBucketsBeforeTheFileEpoch() throws IOException {
+        RollupStore store = new RollupStore(dir);
+        store.write(Resolution.DAY, ExchangeType.GATEIO, "XRP/USDT", Bucket.of(MIDNIGHT + DAY, 1));
+        store.write(Resolution.DAY, ExchangeType.GATEIO, "XRP/USDT", Bucket.of(MIDNIGHT, 2));
+
+        List<Bucket> out = store.read(Resolution.DAY, ExchangeType.GATEIO, "XRP/USDT", MIDNIGHT, MIDNIGHT + 2 * DAY);
+        assertEquals(List.of(MIDNIGHT + DAY), out.stream().map(Bucket::start).toList());
+    }
+}